@@ -0,0 +1,147 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.benchmark;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.DurableSocialInator;
+import bg.sofia.uni.fmi.mjt.socialmedia.EvilSocialInator;
+import bg.sofia.uni.fmi.mjt.socialmedia.SocialMediaInator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DurabilityBenchmark {
+    //Throughput cost of durability - likes and comments on an in-memory EvilSocialInator (groupCommitSize 0)
+    //and on a DurableSocialInator in a temporary directory fsyncing every groupCommitSize changes.
+    //The recover benchmark measures opening a directory with a snapshot and a journal tail.
+
+    private static final long SEED = 42;
+    private static final int USERS = 1_000;
+    private static final int CONTENTS = 10_000;
+    private static final int ACTIVITY_LOG_RETENTION = 100;
+    private static final int SNAPSHOT_INTERVAL = 100_000;
+    private static final int RECOVERY_JOURNAL_TAIL = 50_000;
+
+    @Param({"0", "1", "64"})
+    private int groupCommitSize;
+
+    private Path directory;
+    private SocialMediaInator media;
+    private String[] usernames;
+    private String[] contentIds;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("durability-benchmark");
+        media = groupCommitSize == 0
+            ? new EvilSocialInator(ACTIVITY_LOG_RETENTION)
+            : new DurableSocialInator(directory, groupCommitSize, SNAPSHOT_INTERVAL, ACTIVITY_LOG_RETENTION);
+        random = new Random(SEED);
+        usernames = new String[USERS];
+        contentIds = new String[CONTENTS];
+        populate(media, usernames, contentIds);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (media instanceof Closeable) {
+            ((Closeable) media).close();
+        }
+        delete(directory);
+    }
+
+    @Benchmark
+    public void like() {
+        media.like(usernames[random.nextInt(USERS)], contentIds[random.nextInt(CONTENTS)]);
+    }
+
+    @Benchmark
+    public void comment() {
+        media.comment(usernames[random.nextInt(USERS)], "great photo!", contentIds[random.nextInt(CONTENTS)]);
+    }
+
+    @State(Scope.Benchmark)
+    public static class RecoveryState {
+        private Path directory;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            directory = Files.createTempDirectory("recovery-benchmark");
+            String[] usernames = new String[USERS];
+            String[] contentIds = new String[CONTENTS];
+            try (DurableSocialInator media = new DurableSocialInator(directory,
+                DurableSocialInator.DEFAULT_GROUP_COMMIT_SIZE, Integer.MAX_VALUE, ACTIVITY_LOG_RETENTION)) {
+                populate(media, usernames, contentIds);
+                media.snapshot();
+
+                Random random = new Random(SEED);
+                for (int i = 0; i < RECOVERY_JOURNAL_TAIL; ++i) {
+                    media.like(usernames[random.nextInt(USERS)], contentIds[random.nextInt(CONTENTS)]);
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public SocialMediaInator recover(RecoveryState state) throws IOException {
+        try (DurableSocialInator media = new DurableSocialInator(state.directory,
+            DurableSocialInator.DEFAULT_GROUP_COMMIT_SIZE, Integer.MAX_VALUE, ACTIVITY_LOG_RETENTION)) {
+            return media;
+        }
+    }
+
+    private static void populate(SocialMediaInator media, String[] usernames, String[] contentIds) {
+        for (int i = 0; i < usernames.length; ++i) {
+            usernames[i] = "user" + i;
+            media.register(usernames[i]);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < contentIds.length; ++i) {
+            contentIds[i] = media.publishPost(usernames[i % usernames.length], now, "benchmarking #jmh @user0");
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        // the platform keeps only files, no subdirectories
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,75 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.benchmark;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.ConcurrentSocialInator;
+import bg.sofia.uni.fmi.mjt.socialmedia.SocialMediaInator;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngagementBenchmark {
+    //Throughput of likes and comments on a shared ConcurrentSocialInator by random users on random content.
+    //Run with -t 1, 2, 4, ... (or EngagementScalingRunner) to see how it scales with the number of threads.
+    //The activity logs keep only the last activities, so they do not grow during the run.
+
+    private static final String DESCRIPTION = "benchmarking #jmh #throughput @user0";
+    private static final String COMMENT = "great photo!";
+    private static final int ACTIVITY_LOG_RETENTION = 100;
+
+    @Param({"1000"})
+    private int users;
+
+    @Param({"10000"})
+    private int contents;
+
+    private SocialMediaInator media;
+    private String[] usernames;
+    private String[] contentIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        media = new ConcurrentSocialInator(ACTIVITY_LOG_RETENTION);
+        usernames = new String[users];
+        for (int i = 0; i < users; ++i) {
+            usernames[i] = "user" + i;
+            media.register(usernames[i]);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        contentIds = new String[contents];
+        for (int i = 0; i < contents; ++i) {
+            contentIds[i] = media.publishPost(usernames[i % users], now, DESCRIPTION);
+        }
+    }
+
+    @Benchmark
+    public void like() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        media.like(usernames[random.nextInt(users)], contentIds[random.nextInt(contents)]);
+    }
+
+    @Benchmark
+    public void comment() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        media.comment(usernames[random.nextInt(users)], COMMENT, contentIds[random.nextInt(contents)]);
+    }
+}
@@ -0,0 +1,56 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+public final class EngagementScalingRunner {
+    //Runs EngagementBenchmark with 1, 2, 4, ... threads up to the number of cores and prints the throughput
+    //of every thread count relative to a single thread - linear scaling keeps the speedup close to the threads.
+    //Needs jmh-core and jmh-generator-annprocess (as annotation processor) next to src on the classpath.
+    //Usage: EngagementScalingRunner [max threads]
+
+    private EngagementScalingRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : cores;
+        if (maxThreads > cores) {
+            System.out.printf("warning: %d threads on %d cores - the speedup above %d threads is not scaling%n",
+                maxThreads, cores, cores);
+        }
+        if (cores < 2) {
+            System.out.println("warning: a single core is available, so the scaling cannot be measured");
+        }
+
+        double likeBaseline = 0;
+        double commentBaseline = 0;
+        System.out.printf("%8s %16s %8s %16s %8s%n", "threads", "like ops/ms", "speedup", "comment ops/ms", "speedup");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double like = run("like", threads);
+            double comment = run("comment", threads);
+            if (threads == 1) {
+                likeBaseline = like;
+                commentBaseline = comment;
+            }
+
+            System.out.printf("%8d %16.1f %8.2f %16.1f %8.2f%n",
+                threads, like, like / likeBaseline, comment, comment / commentBaseline);
+        }
+    }
+
+    private static double run(String benchmark, int threads) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(EngagementBenchmark.class.getName() + "." + benchmark + "$")
+            .threads(threads)
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        return results.iterator().next().getPrimaryResult().getScore();
+    }
+}
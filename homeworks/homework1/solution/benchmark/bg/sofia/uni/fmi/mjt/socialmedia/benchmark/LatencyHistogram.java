@@ -0,0 +1,80 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.benchmark;
+
+final class LatencyHistogram {
+    //Counts of latencies in nanoseconds in log-linear buckets - values below 64 exactly, larger ones in 32 buckets
+    //per power of two, so percentiles are within about 3% of the recorded values. Not thread-safe - every thread
+    //records into its own histogram and they are added together afterwards.
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_VALUES = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = EXACT_VALUES + (Long.SIZE - 1 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    private final long[] counts;
+    private long totalCount;
+    private long max;
+
+    LatencyHistogram() {
+        counts = new long[BUCKETS];
+    }
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        ++counts[bucketOf(value)];
+        ++totalCount;
+        max = Math.max(max, value);
+    }
+
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; ++i) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        max = Math.max(max, other.max);
+    }
+
+    long getCount() {
+        return totalCount;
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the latency not exceeded by {@code percentile} percent of the recorded ones (rounded up to the
+     * largest value of its bucket), or 0 if nothing is recorded.
+     */
+    long getPercentile(double percentile) {
+        long rank = (long) Math.ceil(percentile / 100 * totalCount);
+        long count = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            count += counts[i];
+            if (count >= rank && count > 0) {
+                return Math.min(max, largestValueOf(i));
+            }
+        }
+
+        return 0;
+    }
+
+    private static int bucketOf(long value) {
+        if (value < EXACT_VALUES) {
+            return (int) value;
+        }
+
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return EXACT_VALUES + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long largestValueOf(int bucket) {
+        if (bucket < EXACT_VALUES) {
+            return bucket;
+        }
+
+        int shift = (bucket - EXACT_VALUES) / SUB_BUCKETS + 1;
+        long top = (bucket - EXACT_VALUES) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
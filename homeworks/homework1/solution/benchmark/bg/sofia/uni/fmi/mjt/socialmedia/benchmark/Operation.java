@@ -0,0 +1,34 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.benchmark;
+
+public enum Operation {
+    REGISTER("register"),
+    PUBLISH_POST("publish-post"),
+    PUBLISH_STORY("publish-story"),
+    LIKE("like"),
+    COMMENT("comment"),
+    MOST_POPULAR_CONTENT("most-popular-content"),
+    MOST_RECENT_CONTENT("most-recent-content"),
+    MOST_POPULAR_USER("most-popular-user"),
+    FIND_BY_TAG("find-by-tag"),
+    ACTIVITY_LOG("activity-log");
+
+    private final String name;
+
+    Operation(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static Operation of(String name) {
+        for (Operation operation : values()) {
+            if (operation.name.equals(name)) {
+                return operation;
+            }
+        }
+
+        throw new IllegalArgumentException("unknown operation " + name);
+    }
+}
@@ -0,0 +1,33 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.benchmark;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.ConcurrentSocialInator;
+import bg.sofia.uni.fmi.mjt.socialmedia.EvilSocialInator;
+import bg.sofia.uni.fmi.mjt.socialmedia.SocialMediaInator;
+
+final class Platforms {
+    //The platforms compared by the workload benchmarks, by name. EvilSocialInator is the single-threaded baseline.
+    //The activity logs keep only the last activities, so they do not grow during a run.
+
+    static final String BASELINE = "evil";
+    static final String CONCURRENT = "concurrent";
+
+    private static final int ACTIVITY_LOG_RETENTION = 100;
+
+    private Platforms() {
+    }
+
+    static SocialMediaInator create(String name) {
+        switch (name) {
+            case BASELINE:
+                return new EvilSocialInator(ACTIVITY_LOG_RETENTION);
+            case CONCURRENT:
+                return new ConcurrentSocialInator(ACTIVITY_LOG_RETENTION);
+            default:
+                throw new IllegalArgumentException("unknown platform " + name);
+        }
+    }
+
+    static boolean isThreadSafe(String name) {
+        return !BASELINE.equals(name);
+    }
+}
@@ -0,0 +1,75 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.benchmark;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public final class Population {
+    //Usernames and content ids of a synthetic workload, shared by the threads generating it. Users are ranked
+    //in the order they registered and content by recency (the most recently published first), so with Zipfian
+    //ranks the first users and the newest content are the most active and popular.
+    //Only the last contentWindow content ids are kept - older content is not engaged with any more.
+
+    private final AtomicReferenceArray<String> usernames;
+    private final AtomicInteger numberOfUsers;
+
+    private final AtomicReferenceArray<String> recentContentIds;
+    private final AtomicLong numberOfContents;
+
+    public Population(int maxUsers, int contentWindow) {
+        if (maxUsers <= 0 || contentWindow <= 0) {
+            throw new IllegalArgumentException("maxUsers and contentWindow must be positive");
+        }
+
+        usernames = new AtomicReferenceArray<>(maxUsers);
+        numberOfUsers = new AtomicInteger();
+        recentContentIds = new AtomicReferenceArray<>(contentWindow);
+        numberOfContents = new AtomicLong();
+    }
+
+    /**
+     * Reserves the rank of a user about to be registered.
+     * @throws IllegalStateException If maxUsers users are already registered
+     */
+    int reserveUser() {
+        int rank = numberOfUsers.getAndIncrement();
+        if (rank >= usernames.length()) {
+            numberOfUsers.decrementAndGet();
+            throw new IllegalStateException("the population is limited to " + usernames.length() + " users");
+        }
+
+        return rank;
+    }
+
+    void addUser(int rank, String username) {
+        usernames.set(rank, username);
+    }
+
+    int getNumberOfUsers() {
+        return numberOfUsers.get();
+    }
+
+    /**
+     * Returns the user with the given rank or null if it is reserved but not registered yet.
+     */
+    String getUser(int rank) {
+        return usernames.get(rank);
+    }
+
+    void addContent(String id) {
+        long index = numberOfContents.getAndIncrement();
+        recentContentIds.set((int) (index % recentContentIds.length()), id);
+    }
+
+    int getNumberOfRecentContents() {
+        return (int) Math.min(numberOfContents.get(), recentContentIds.length());
+    }
+
+    /**
+     * Returns the content with the given recency rank, 0 being the most recent, or null if it is not added yet.
+     */
+    String getRecentContent(int rank) {
+        long index = numberOfContents.get() - 1 - rank;
+        return index < 0 ? null : recentContentIds.get((int) (index % recentContentIds.length()));
+    }
+}
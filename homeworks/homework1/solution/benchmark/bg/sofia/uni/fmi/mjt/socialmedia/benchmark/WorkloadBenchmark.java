@@ -0,0 +1,83 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.benchmark;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.SocialMediaInator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkloadBenchmark {
+    //Throughput and sampled latency percentiles of a synthetic WorkloadMix on every platform.
+    //The evil platform is the single-threaded baseline, run the concurrent one also with -t 2, 4, ...
+    //WorkloadRunner reports the same per operation.
+
+    private static final int MAX_USERS = 1_000_000;
+    private static final int CONTENT_WINDOW = 100_000;
+    private static final long SEED = 42;
+
+    @Param({Platforms.BASELINE, Platforms.CONCURRENT})
+    private String platform;
+
+    @Param({"balanced", "read-heavy", "write-heavy"})
+    private String mix;
+
+    @Param({"10000"})
+    private int users;
+
+    @Param({"50000"})
+    private int contents;
+
+    @Param({"0.99"})
+    private double skew;
+
+    private SocialMediaInator media;
+    private Population population;
+    private WorkloadMix workloadMix;
+
+    @Setup(Level.Trial)
+    public void setup(BenchmarkParams params) {
+        if (params.getThreads() > 1 && !Platforms.isThreadSafe(platform)) {
+            throw new IllegalStateException(platform + " is not thread-safe, run it on a single thread");
+        }
+
+        media = Platforms.create(platform);
+        population = new Population(MAX_USERS, CONTENT_WINDOW);
+        workloadMix = WorkloadMix.parse(mix);
+        new WorkloadGenerator(media, population, workloadMix, skew, skew, SEED).populate(users, contents);
+    }
+
+    @State(Scope.Thread)
+    public static class GeneratorState {
+        private WorkloadGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setup(WorkloadBenchmark benchmark, ThreadParams threadParams) {
+            generator = new WorkloadGenerator(benchmark.media, benchmark.population, benchmark.workloadMix,
+                benchmark.skew, benchmark.skew, SEED + 1 + threadParams.getThreadIndex());
+        }
+    }
+
+    @Benchmark
+    public Object mixed(GeneratorState state) {
+        return state.generator.execute(state.generator.nextOperation());
+    }
+}
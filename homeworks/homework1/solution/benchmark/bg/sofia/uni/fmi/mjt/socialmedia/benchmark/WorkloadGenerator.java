@@ -0,0 +1,140 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.benchmark;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.SocialMediaInator;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+public final class WorkloadGenerator {
+    //Drives a SocialMediaInator with operations drawn from a WorkloadMix. Acting users, mentioned users and tags
+    //are drawn by Zipfian rank with userSkew and engaged content by Zipfian recency rank with contentSkew.
+    //Every thread needs its own generator - they share only the platform and the Population.
+
+    public static final double DEFAULT_SKEW = 0.99;
+
+    private static final int TAGS = 1_000;
+    private static final int MAX_TAGS_PER_CONTENT = 3;
+    private static final int N = 10;
+    private static final String COMMENT = "great photo!";
+
+    private final SocialMediaInator media;
+    private final Population population;
+    private final WorkloadMix mix;
+    private final SplittableRandom random;
+
+    private final ZipfianGenerator users;
+    private final ZipfianGenerator contents;
+    private final ZipfianGenerator tags;
+
+    public WorkloadGenerator(SocialMediaInator media, Population population, WorkloadMix mix,
+                             double userSkew, double contentSkew, long seed) {
+        if (media == null || population == null || mix == null) {
+            throw new IllegalArgumentException("media, population and mix must not be null");
+        }
+
+        this.media = media;
+        this.population = population;
+        this.mix = mix;
+        random = new SplittableRandom(seed);
+        users = new ZipfianGenerator(userSkew);
+        contents = new ZipfianGenerator(contentSkew);
+        tags = new ZipfianGenerator(userSkew);
+    }
+
+    /**
+     * Registers {@code numberOfUsers} users and publishes {@code numberOfContents} posts, so the operations
+     * have users and content to act on.
+     */
+    public void populate(int numberOfUsers, int numberOfContents) {
+        if (numberOfUsers <= 0 || numberOfContents <= 0) {
+            throw new IllegalArgumentException("a population needs users and content");
+        }
+
+        for (int i = 0; i < numberOfUsers; ++i) {
+            execute(Operation.REGISTER);
+        }
+        for (int i = 0; i < numberOfContents; ++i) {
+            execute(Operation.PUBLISH_POST);
+        }
+    }
+
+    public Operation nextOperation() {
+        return mix.next(random);
+    }
+
+    /**
+     * Executes {@code operation} with random arguments and returns its result, if any.
+     */
+    public Object execute(Operation operation) {
+        switch (operation) {
+            case REGISTER:
+                int rank = population.reserveUser();
+                // the names start with '@' to be counted when mentioned
+                String username = "@user" + rank;
+                media.register(username);
+                population.addUser(rank, username);
+                return username;
+            case PUBLISH_POST:
+                return publish(media.publishPost(nextUser(), LocalDateTime.now(), nextDescription()));
+            case PUBLISH_STORY:
+                return publish(media.publishStory(nextUser(), LocalDateTime.now(), nextDescription()));
+            case LIKE:
+                media.like(nextUser(), nextContent());
+                return null;
+            case COMMENT:
+                media.comment(nextUser(), COMMENT, nextContent());
+                return null;
+            case MOST_POPULAR_CONTENT:
+                return media.getNMostPopularContent(N);
+            case MOST_RECENT_CONTENT:
+                return media.getNMostRecentContent(nextUser(), N);
+            case MOST_POPULAR_USER:
+                return media.getMostPopularUser();
+            case FIND_BY_TAG:
+                return media.findContentByTag(nextTag());
+            default:
+                return media.getActivityLog(nextUser());
+        }
+    }
+
+    private String publish(String id) {
+        population.addContent(id);
+        return id;
+    }
+
+    // ranks reserved by threads still registering are skipped towards the first (always registered) user
+    private String nextUser() {
+        int rank = users.next(random, population.getNumberOfUsers());
+        String username = population.getUser(rank);
+        while (username == null) {
+            username = population.getUser(--rank);
+        }
+
+        return username;
+    }
+
+    private String nextContent() {
+        int rank = contents.next(random, population.getNumberOfRecentContents());
+        String id = population.getRecentContent(rank);
+        while (id == null) {
+            id = population.getRecentContent(++rank);
+        }
+
+        return id;
+    }
+
+    private String nextTag() {
+        return "#tag" + tags.next(random, TAGS);
+    }
+
+    private String nextDescription() {
+        StringBuilder description = new StringBuilder("synthetic content");
+        int numberOfTags = random.nextInt(MAX_TAGS_PER_CONTENT + 1);
+        for (int i = 0; i < numberOfTags; ++i) {
+            description.append(' ').append(nextTag());
+        }
+        description.append(' ').append(nextUser());
+
+        return description.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.benchmark;
+
+import java.util.SplittableRandom;
+
+public final class WorkloadMix {
+    //Relative weights of the operations of a workload, e.g. "like=40,comment=10,find-by-tag=5".
+    //The presets balanced, read-heavy and write-heavy can be used by name.
+
+    private static final String[][] PRESETS = {
+        {"balanced", "register=1,publish-post=4,publish-story=2,like=40,comment=10,most-popular-content=5,"
+            + "most-recent-content=15,most-popular-user=3,find-by-tag=15,activity-log=5"},
+        {"read-heavy", "publish-post=1,publish-story=1,like=8,comment=2,most-popular-content=10,"
+            + "most-recent-content=35,most-popular-user=5,find-by-tag=30,activity-log=8"},
+        {"write-heavy", "register=2,publish-post=15,publish-story=8,like=50,comment=20,most-popular-content=1,"
+            + "most-recent-content=2,find-by-tag=1,activity-log=1"},
+    };
+
+    private final String description;
+
+    // cumulative weights, indexed by Operation#ordinal
+    private final int[] cumulativeWeights;
+
+    private WorkloadMix(String description, int[] weights) {
+        this.description = description;
+        cumulativeWeights = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; ++i) {
+            total += weights[i];
+            cumulativeWeights[i] = total;
+        }
+
+        if (total == 0) {
+            throw new IllegalArgumentException("mix " + description + " has no operations");
+        }
+    }
+
+    /**
+     * Parses a preset name or a comma-separated list of operation=weight, the missing operations weighing 0.
+     */
+    public static WorkloadMix parse(String mix) {
+        if (mix == null) {
+            throw new IllegalArgumentException("mix must not be null");
+        }
+
+        String weightsList = mix;
+        for (String[] preset : PRESETS) {
+            if (preset[0].equals(mix)) {
+                weightsList = preset[1];
+            }
+        }
+
+        int[] weights = new int[Operation.values().length];
+        for (String weight : weightsList.split(",")) {
+            String[] operationAndWeight = weight.trim().split("=");
+            if (operationAndWeight.length != 2) {
+                throw new IllegalArgumentException("expected operation=weight instead of " + weight);
+            }
+
+            int value = Integer.parseInt(operationAndWeight[1].trim());
+            if (value < 0) {
+                throw new IllegalArgumentException("weight of " + operationAndWeight[0] + " must be non-negative");
+            }
+            weights[Operation.of(operationAndWeight[0].trim()).ordinal()] = value;
+        }
+
+        return new WorkloadMix(mix, weights);
+    }
+
+    Operation next(SplittableRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (cumulativeWeights[index] <= value) {
+            ++index;
+        }
+
+        return Operation.values()[index];
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
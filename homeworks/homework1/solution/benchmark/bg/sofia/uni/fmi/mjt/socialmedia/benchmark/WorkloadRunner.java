@@ -0,0 +1,157 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.benchmark;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.SocialMediaInator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public final class WorkloadRunner {
+    //Runs a synthetic workload against EvilSocialInator (the baseline, on one thread) and ConcurrentSocialInator
+    //(on the given number of threads) and prints the throughput and latency percentiles of every operation.
+    //Each platform is populated, warmed up for the duration of the run and then measured.
+    //Usage: WorkloadRunner [mix] [threads] [seconds] - mix is a WorkloadMix preset or operation=weight list
+
+    private static final int USERS = 10_000;
+    private static final int MAX_USERS = 1_000_000;
+    private static final int CONTENTS = 50_000;
+    private static final int CONTENT_WINDOW = 100_000;
+    private static final long SEED = 42;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private WorkloadRunner() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        WorkloadMix mix = WorkloadMix.parse(args.length > 0 ? args[0] : "balanced");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        run(Platforms.BASELINE, mix, 1, seconds);
+        run(Platforms.CONCURRENT, mix, threads, seconds);
+    }
+
+    private static void run(String platform, WorkloadMix mix, int threads, int seconds)
+        throws InterruptedException {
+        SocialMediaInator media = Platforms.create(platform);
+        Population population = new Population(MAX_USERS, CONTENT_WINDOW);
+        new WorkloadGenerator(media, population, mix, WorkloadGenerator.DEFAULT_SKEW, WorkloadGenerator.DEFAULT_SKEW,
+            SEED).populate(USERS, CONTENTS);
+
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < threads; ++i) {
+            workers.add(new Worker(new WorkloadGenerator(media, population, mix, WorkloadGenerator.DEFAULT_SKEW,
+                WorkloadGenerator.DEFAULT_SKEW, SEED + 1 + i)));
+        }
+
+        runWorkers(workers, seconds, false);
+        long elapsedNanos = runWorkers(workers, seconds, true);
+
+        LatencyHistogram[] histograms = new LatencyHistogram[Operation.values().length];
+        for (int i = 0; i < histograms.length; ++i) {
+            histograms[i] = new LatencyHistogram();
+            for (Worker worker : workers) {
+                histograms[i].add(worker.histograms[i]);
+            }
+        }
+
+        print(platform, mix, threads, elapsedNanos, histograms);
+    }
+
+    // returns the elapsed time
+    private static long runWorkers(List<Worker> workers, int seconds, boolean recording) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> threads = new ArrayList<>();
+        for (Worker worker : workers) {
+            worker.prepare(deadline, recording);
+            Thread thread = new Thread(worker);
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (Worker worker : workers) {
+            if (worker.failure != null) {
+                throw new IllegalStateException("the workload failed", worker.failure);
+            }
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private static void print(String platform, WorkloadMix mix, int threads, long elapsedNanos,
+                              LatencyHistogram[] histograms) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nplatform: %s, threads: %d, mix: %s, %.1f s%n", platform, threads, mix, seconds);
+        System.out.printf("%-22s %12s %12s", "operation", "count", "ops/s");
+        for (double percentile : PERCENTILES) {
+            System.out.printf(" %10s", "p" + format(percentile) + " us");
+        }
+        System.out.printf(" %10s%n", "max us");
+
+        LatencyHistogram total = new LatencyHistogram();
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = histograms[operation.ordinal()];
+            total.add(histogram);
+            if (histogram.getCount() > 0) {
+                printRow(operation.getName(), histogram, seconds);
+            }
+        }
+        printRow("total", total, seconds);
+    }
+
+    private static void printRow(String name, LatencyHistogram histogram, double seconds) {
+        System.out.printf("%-22s %12d %12.0f", name, histogram.getCount(), histogram.getCount() / seconds);
+        for (double percentile : PERCENTILES) {
+            System.out.printf(" %10.2f", histogram.getPercentile(percentile) / 1e3);
+        }
+        System.out.printf(" %10.2f%n", histogram.getMax() / 1e3);
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private static final class Worker implements Runnable {
+        private final WorkloadGenerator generator;
+        private final LatencyHistogram[] histograms;
+        private long deadline;
+        private boolean recording;
+        private Throwable failure;
+
+        private Worker(WorkloadGenerator generator) {
+            this.generator = generator;
+            histograms = new LatencyHistogram[Operation.values().length];
+            for (int i = 0; i < histograms.length; ++i) {
+                histograms[i] = new LatencyHistogram();
+            }
+        }
+
+        // called before the thread running the worker is started, which makes the fields visible to it
+        private void prepare(long newDeadline, boolean newRecording) {
+            deadline = newDeadline;
+            recording = newRecording;
+        }
+
+        @Override
+        public void run() {
+            try {
+                long now = System.nanoTime();
+                while (now < deadline) {
+                    Operation operation = generator.nextOperation();
+                    generator.execute(operation);
+                    long end = System.nanoTime();
+                    if (recording) {
+                        histograms[operation.ordinal()].record(end - now);
+                    }
+                    now = end;
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+    }
+}
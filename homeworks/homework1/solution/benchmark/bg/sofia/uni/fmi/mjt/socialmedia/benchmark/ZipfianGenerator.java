@@ -0,0 +1,58 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.benchmark;
+
+import java.util.SplittableRandom;
+
+final class ZipfianGenerator {
+    //Ranks in [0, n) drawn with probability proportional to 1 / (rank + 1)^skew, by the method of Gray et al.
+    //("Quickly generating billion-record synthetic databases") also used by YCSB. The number of items may grow
+    //between draws - its zeta constant is extended by the new items only. Not thread-safe.
+
+    private final double skew;
+    private final double alpha;
+    private final double zeta2;
+
+    private int items;
+    private double zetaN;
+    private double eta;
+
+    /**
+     * @param skew Between 0 (uniform) and 1 (exclusive), YCSB uses 0.99
+     */
+    ZipfianGenerator(double skew) {
+        if (skew <= 0 || skew >= 1) {
+            throw new IllegalArgumentException("skew must be between 0 and 1");
+        }
+
+        this.skew = skew;
+        alpha = 1 / (1 - skew);
+        zeta2 = 1 + Math.pow(0.5, skew);
+    }
+
+    int next(SplittableRandom random, int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        if (n > items) {
+            extendTo(n);
+        }
+
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1) {
+            return 0;
+        }
+        if (uz < zeta2 || n <= 2) {
+            return 1;
+        }
+
+        return Math.min(n - 1, (int) (n * Math.pow(eta * u - eta + 1, alpha)));
+    }
+
+    private void extendTo(int n) {
+        while (items < n) {
+            ++items;
+            zetaN += 1 / Math.pow(items, skew);
+        }
+        eta = (1 - Math.pow(2.0 / items, 1 - skew)) / (1 - zeta2 / zetaN);
+    }
+}
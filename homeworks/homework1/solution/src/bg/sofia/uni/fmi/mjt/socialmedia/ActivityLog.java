@@ -0,0 +1,176 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.persistence.BinaryCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class ActivityLog {
+    //Activity log of a user - a ring buffer of the last activities, each kept as a timestamp, an action code
+    //and the content id (and text of comments). Activities are rendered to strings only when the log is read.
+
+    static final int UNLIMITED_RETENTION = Integer.MAX_VALUE;
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss dd.MM.yy");
+    private static final int INITIAL_CAPACITY = 8;
+
+    private static final byte CREATED_POST = 0;
+    private static final byte CREATED_STORY = 1;
+    private static final byte LIKED = 2;
+    private static final byte COMMENTED = 3;
+
+    private final int retention;
+
+    // the activities are [first, first + size) modulo the capacity, the oldest at first
+    private long[] timestamps;
+    private byte[] actions;
+    private String[] contentIds;
+    private String[] comments;
+    private int first;
+    private int size;
+
+    /**
+     * Creates a log keeping only the last {@code retention} activities.
+     */
+    ActivityLog(int retention) {
+        if (retention <= 0) {
+            throw new IllegalArgumentException("retention must be positive");
+        }
+
+        this.retention = retention;
+        int capacity = Math.min(retention, INITIAL_CAPACITY);
+        timestamps = new long[capacity];
+        actions = new byte[capacity];
+        contentIds = new String[capacity];
+        comments = new String[capacity];
+    }
+
+    void addCreatedPost(LocalDateTime publishedOn, String id) {
+        add(publishedOn.toEpochSecond(ZoneOffset.UTC), CREATED_POST, id, null);
+    }
+
+    void addCreatedStory(LocalDateTime publishedOn, String id) {
+        add(publishedOn.toEpochSecond(ZoneOffset.UTC), CREATED_STORY, id, null);
+    }
+
+    void addLike(LocalDateTime time, String id) {
+        add(time.toEpochSecond(ZoneOffset.UTC), LIKED, id, null);
+    }
+
+    void addComment(LocalDateTime time, String text, String id) {
+        add(time.toEpochSecond(ZoneOffset.UTC), COMMENTED, id, text);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the kept activities in reversed chronological order (i.e. newest first).
+     */
+    List<String> render() {
+        List<String> rendered = new ArrayList<>(size);
+        for (int i = size - 1; i >= 0; --i) {
+            int index = (first + i) % timestamps.length;
+            rendered.add(render(timestamps[index], actions[index], contentIds[index], comments[index]));
+        }
+
+        return rendered;
+    }
+
+    /**
+     * Writes the kept activities, oldest first, so that {@link #readFrom} can restore them.
+     */
+    void writeTo(DataOutput output) throws IOException {
+        output.writeInt(size);
+        for (int i = 0; i < size; ++i) {
+            int index = (first + i) % timestamps.length;
+            output.writeLong(timestamps[index]);
+            output.writeByte(actions[index]);
+            BinaryCodec.writeString(output, contentIds[index]);
+            BinaryCodec.writeString(output, comments[index]);
+        }
+    }
+
+    static ActivityLog readFrom(DataInput input, int retention) throws IOException {
+        ActivityLog activityLog = new ActivityLog(retention);
+        int size = input.readInt();
+        for (int i = 0; i < size; ++i) {
+            long timestamp = input.readLong();
+            byte action = input.readByte();
+            String id = BinaryCodec.readString(input);
+            activityLog.add(timestamp, action, id, BinaryCodec.readString(input));
+        }
+
+        return activityLog;
+    }
+
+    private void add(long timestamp, byte action, String id, String comment) {
+        if (size == timestamps.length && size < retention) {
+            grow();
+        }
+
+        int index;
+        if (size == timestamps.length) {
+            index = first;
+            first = (first + 1) % timestamps.length;
+        } else {
+            index = (first + size++) % timestamps.length;
+        }
+
+        timestamps[index] = timestamp;
+        actions[index] = action;
+        contentIds[index] = id;
+        comments[index] = comment;
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min((long) timestamps.length * 2, retention);
+        timestamps = unwrap(timestamps, capacity);
+        actions = unwrap(actions, capacity);
+        contentIds = unwrap(contentIds, capacity);
+        comments = unwrap(comments, capacity);
+        first = 0;
+    }
+
+    // the ring is full - copies it into a bigger array, the oldest activity first
+    private long[] unwrap(long[] ring, int capacity) {
+        long[] result = Arrays.copyOfRange(ring, first, first + capacity);
+        System.arraycopy(ring, 0, result, ring.length - first, first);
+        return result;
+    }
+
+    private byte[] unwrap(byte[] ring, int capacity) {
+        byte[] result = Arrays.copyOfRange(ring, first, first + capacity);
+        System.arraycopy(ring, 0, result, ring.length - first, first);
+        return result;
+    }
+
+    private String[] unwrap(String[] ring, int capacity) {
+        String[] result = Arrays.copyOfRange(ring, first, first + capacity);
+        System.arraycopy(ring, 0, result, ring.length - first, first);
+        return result;
+    }
+
+    private static String render(long timestamp, byte action, String id, String comment) {
+        String time = LocalDateTime.ofEpochSecond(timestamp, 0, ZoneOffset.UTC).format(TIME_FORMAT);
+        switch (action) {
+            case CREATED_POST:
+                return time + ": Created a post with id " + id;
+            case CREATED_STORY:
+                return time + ": Created a story with id " + id;
+            case LIKED:
+                return time + ": Liked a content with id " + id;
+            default:
+                return time + ": Commented \"" + comment + "\" on a content with id " + id;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.BaseContentImpl;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Content;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Post;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Story;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.SymbolTable;
+import bg.sofia.uni.fmi.mjt.socialmedia.exceptions.ContentNotFoundException;
+import bg.sofia.uni.fmi.mjt.socialmedia.exceptions.NoUsersException;
+import bg.sofia.uni.fmi.mjt.socialmedia.exceptions.UsernameAlreadyExistsException;
+import bg.sofia.uni.fmi.mjt.socialmedia.exceptions.UsernameNotFoundException;
+
+import java.time.LocalDateTime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class ConcurrentSocialInator implements SocialMediaInator {
+    //Thread-safe SocialMediaInator - users and content are in concurrent maps, the content and the activity log
+    //of a user are guarded by a lock of their own and likes and comments are counted in LongAdders,
+    //so requests of different users do not contend with each other.
+    //Equally popular content and equally mentioned users are ordered arbitrarily.
+
+    private final ConcurrentMap<String, User> users;
+    private final int activityLogRetention;
+    private final AtomicReference<String> firstUser;
+    private final SymbolTable symbols;
+
+    private final ConcurrentMap<String, BaseContentImpl> contentById;
+    private final ConcurrentMap<String, Set<Content>> contentsByTag;
+    private final ConcurrentMap<String, LongAdder> mentionsCount;
+
+    // guarded by itself
+    private final ExpirationQueue expirationQueue;
+
+    public ConcurrentSocialInator() {
+        this(ActivityLog.UNLIMITED_RETENTION);
+    }
+
+    /**
+     * Creates a platform keeping only the last {@code activityLogRetention} activities of every user.
+     * @throws IllegalArgumentException If {@code activityLogRetention} is not positive
+     */
+    public ConcurrentSocialInator(int activityLogRetention) {
+        if (activityLogRetention <= 0) {
+            throw new IllegalArgumentException("activityLogRetention must be positive");
+        }
+
+        this.activityLogRetention = activityLogRetention;
+        users = new ConcurrentHashMap<>();
+        firstUser = new AtomicReference<>();
+        symbols = new SymbolTable();
+        contentById = new ConcurrentHashMap<>();
+        contentsByTag = new ConcurrentHashMap<>();
+        mentionsCount = new ConcurrentHashMap<>();
+        expirationQueue = new ExpirationQueue();
+    }
+
+    @Override
+    public void register(String username) {
+        if (username == null) {
+            throw new IllegalArgumentException("username must not be null");
+        }
+
+        if (users.putIfAbsent(username, new User(activityLogRetention)) != null) {
+            throw new UsernameAlreadyExistsException(username + " is already registered");
+        }
+        firstUser.compareAndSet(null, username);
+    }
+
+    @Override
+    public String publishPost(String username, LocalDateTime publishedOn, String description) {
+        if (username == null || publishedOn == null || description == null) {
+            throw new IllegalArgumentException("publishPost takes non-null arguments");
+        }
+
+        User user = getUser(username);
+        BaseContentImpl post = new Post(username, publishedOn, description, symbols);
+        addContent(user, post);
+
+        return post.getId();
+    }
+
+    @Override
+    public String publishStory(String username, LocalDateTime publishedOn, String description) {
+        if (username == null || publishedOn == null || description == null) {
+            throw new IllegalArgumentException("publishStory takes non-null arguments");
+        }
+
+        User user = getUser(username);
+        BaseContentImpl story = new Story(username, publishedOn, description, symbols);
+        addContent(user, story);
+
+        return story.getId();
+    }
+
+    @Override
+    public void like(String username, String id) {
+        if (username == null || id == null) {
+            throw new IllegalArgumentException("like takes non-null arguments");
+        }
+
+        User user = getUser(username);
+        LocalDateTime now = LocalDateTime.now();
+        BaseContentImpl contentToLike = getContent(id, now);
+
+        contentToLike.addLike(username);
+
+        user.addLike(now, id);
+    }
+
+    @Override
+    public void comment(String username, String text, String id) {
+        if (username == null || text == null || id == null) {
+            throw new IllegalArgumentException("comment takes non-null arguments");
+        }
+
+        User user = getUser(username);
+        LocalDateTime now = LocalDateTime.now();
+        BaseContentImpl contentToComment = getContent(id, now);
+
+        contentToComment.addComment(username, text);
+
+        user.addComment(now, text, id);
+    }
+
+    @Override
+    public Collection<Content> getNMostPopularContent(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative int");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        removeExpiredContent(now);
+
+        // the n most popular seen so far, the least popular of them at the head
+        PriorityQueue<RankedContent> mostPopular = new PriorityQueue<>(new RankedContentComparator());
+        for (BaseContentImpl content : contentById.values()) {
+            if (n == 0 || now.isAfter(content.getExpiresOn())) {
+                continue;
+            }
+
+            RankedContent rankedContent = new RankedContent(content);
+            if (mostPopular.size() < n) {
+                mostPopular.add(rankedContent);
+            } else if (mostPopular.peek().popularity < rankedContent.popularity) {
+                mostPopular.poll();
+                mostPopular.add(rankedContent);
+            }
+        }
+
+        LinkedList<Content> result = new LinkedList<>();
+        while (!mostPopular.isEmpty()) {
+            result.addFirst(mostPopular.poll().content);
+        }
+
+        return Collections.unmodifiableCollection(result);
+    }
+
+    @Override
+    public Collection<Content> getNMostRecentContent(String username, int n) {
+        if (username == null || n < 0) {
+            throw new IllegalArgumentException("username must not be null and n must be non-negative int");
+        }
+
+        User user = getUser(username);
+        LocalDateTime now = LocalDateTime.now();
+
+        return Collections.unmodifiableCollection(user.getMostRecentContents(n, now));
+    }
+
+    @Override
+    public String getMostPopularUser() {
+        String mostPopularUser = firstUser.get();
+        if (mostPopularUser == null) {
+            throw new NoUsersException("There are no users in the platform.");
+        }
+
+        removeExpiredContent(LocalDateTime.now());
+
+        long mostPopularUserMentionsCount = 0;
+        for (Map.Entry<String, LongAdder> mentions : mentionsCount.entrySet()) {
+            long userMentionsCount = mentions.getValue().sum();
+            if (userMentionsCount > mostPopularUserMentionsCount && users.containsKey(mentions.getKey())) {
+                mostPopularUserMentionsCount = userMentionsCount;
+                mostPopularUser = mentions.getKey();
+            }
+        }
+
+        return mostPopularUser;
+    }
+
+    @Override
+    public Collection<Content> findContentByTag(String tag) {
+        if (tag == null) {
+            throw new IllegalArgumentException("tag must not be null");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        removeExpiredContent(now);
+
+        Set<Content> contents = contentsByTag.get(tag);
+        if (contents == null) {
+            return Collections.emptyList();
+        }
+
+        Collection<Content> contentsContainingTag = new ArrayList<>();
+        for (Content content : contents) {
+            if (!now.isAfter(((BaseContentImpl) content).getExpiresOn())) {
+                contentsContainingTag.add(content);
+            }
+        }
+
+        return Collections.unmodifiableCollection(contentsContainingTag);
+    }
+
+    @Override
+    public List<String> getActivityLog(String username) {
+        if (username == null) {
+            throw new IllegalArgumentException("username must not be null");
+        }
+
+        return getUser(username).getActivityLog();
+    }
+
+
+    private User getUser(String username) {
+        User user = users.get(username);
+        if (user == null) {
+            throw new UsernameNotFoundException(username + " is not registered in the platform");
+        }
+
+        return user;
+    }
+
+    private BaseContentImpl getContent(String id, LocalDateTime now) {
+        BaseContentImpl content = contentById.get(id);
+        if (content == null || now.isAfter(content.getExpiresOn())) {
+            throw new ContentNotFoundException("There is no content with id: " + id);
+        }
+
+        return content;
+    }
+
+    private void addContent(User author, BaseContentImpl content) {
+        author.addContent(content);
+        contentById.put(content.getId(), content);
+
+        for (String tag : content.getTags()) {
+            Set<Content> contents = contentsByTag.get(tag);
+            if (contents == null) {
+                Set<Content> newContents = ConcurrentHashMap.newKeySet();
+                contents = contentsByTag.putIfAbsent(tag, newContents);
+                if (contents == null) {
+                    contents = newContents;
+                }
+            }
+            contents.add(content);
+        }
+
+        for (String mention : content.getMentions()) {
+            LongAdder count = mentionsCount.get(mention);
+            if (count == null) {
+                LongAdder newCount = new LongAdder();
+                count = mentionsCount.putIfAbsent(mention, newCount);
+                if (count == null) {
+                    count = newCount;
+                }
+            }
+            count.increment();
+        }
+
+        synchronized (expirationQueue) {
+            expirationQueue.add(content);
+        }
+    }
+
+    // the emptied tag sets and mention counters are kept, removing them could lose a concurrent update
+    private void removeExpiredContent(LocalDateTime now) {
+        List<BaseContentImpl> expired;
+        synchronized (expirationQueue) {
+            expired = expirationQueue.pollExpired(now);
+        }
+
+        for (BaseContentImpl content : expired) {
+            contentById.remove(content.getId());
+            users.get(content.getAuthor()).removeContent(content);
+
+            for (String tag : content.getTags()) {
+                contentsByTag.get(tag).remove(content);
+            }
+            for (String mention : content.getMentions()) {
+                mentionsCount.get(mention).decrement();
+            }
+            content.releaseSymbols();
+        }
+    }
+
+    private static final class User {
+        // guarded by this
+        private final RecentContents contents;
+        private final ActivityLog activityLog;
+
+        User(int activityLogRetention) {
+            contents = new RecentContents();
+            activityLog = new ActivityLog(activityLogRetention);
+        }
+
+        synchronized void addContent(BaseContentImpl content) {
+            contents.add(content);
+            if (content instanceof Story) {
+                activityLog.addCreatedStory(content.getPublishedOn(), content.getId());
+            } else {
+                activityLog.addCreatedPost(content.getPublishedOn(), content.getId());
+            }
+        }
+
+        synchronized void removeContent(BaseContentImpl content) {
+            contents.remove(content);
+        }
+
+        synchronized void addLike(LocalDateTime time, String id) {
+            activityLog.addLike(time, id);
+        }
+
+        synchronized void addComment(LocalDateTime time, String text, String id) {
+            activityLog.addComment(time, text, id);
+        }
+
+        synchronized List<Content> getMostRecentContents(int n, LocalDateTime now) {
+            return contents.getMostRecent(n, now);
+        }
+
+        synchronized List<String> getActivityLog() {
+            return activityLog.render();
+        }
+    }
+
+    private static final class RankedContent {
+        // popularity is copied, so it does not change while the content is ranked
+        private final Content content;
+        private final int popularity;
+
+        private RankedContent(Content content) {
+            this.content = content;
+            this.popularity = content.getNumberOfLikes() + content.getNumberOfComments();
+        }
+    }
+
+    private static final class RankedContentComparator implements Comparator<RankedContent> {
+        @Override
+        public int compare(RankedContent first, RankedContent second) {
+            return Integer.compare(first.popularity, second.popularity);
+        }
+    }
+}
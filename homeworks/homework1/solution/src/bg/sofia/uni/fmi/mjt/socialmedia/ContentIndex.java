@@ -0,0 +1,153 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.BaseContent;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.BaseContentImpl;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Content;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+final class ContentIndex {
+    //Indexes of the published content - id -> content, tag -> contents, mention -> count and popularity ranking.
+    //They are updated on publishing and on expiration, so the lookups do not scan the content of every user.
+    //Expired content is removed by EvilSocialInator, the indexes do not check the expiration themselves.
+
+    private final Map<String, BaseContent> contentById;
+    private final Map<String, Set<Content>> contentsByTag;
+    private final Map<String, Integer> mentionsCount;
+
+    // mentions count -> registered users mentioned that many times, in the order they reached that count
+    private final TreeMap<Integer, Set<String>> usersByMentionsCount;
+    private final Set<String> users;
+
+    private final PopularityRanking popularityRanking;
+
+    ContentIndex() {
+        contentById = new HashMap<>();
+        contentsByTag = new HashMap<>();
+        mentionsCount = new HashMap<>();
+        usersByMentionsCount = new TreeMap<>();
+        users = new HashSet<>();
+        popularityRanking = new PopularityRanking();
+    }
+
+    void addUser(String username) {
+        users.add(username);
+
+        Integer count = mentionsCount.get(username);
+        if (count != null) {
+            addToMentionsCount(username, count);
+        }
+    }
+
+    void addContent(BaseContentImpl content) {
+        contentById.put(content.getId(), content);
+
+        for (String tag : content.getTags()) {
+            if (!contentsByTag.containsKey(tag)) {
+                contentsByTag.put(tag, new LinkedHashSet<>());
+            }
+            contentsByTag.get(tag).add(content);
+        }
+
+        for (String mention : content.getMentions()) {
+            Integer count = mentionsCount.get(mention);
+            updateMentionsCount(mention, count == null ? 0 : count, count == null ? 1 : count + 1);
+        }
+
+        popularityRanking.add(content);
+    }
+
+    /**
+     * Has to be called after the content is liked or commented.
+     */
+    void updatePopularity(BaseContent content) {
+        popularityRanking.update(content);
+    }
+
+    /**
+     * Returns the content with this id or null if there is no such.
+     */
+    BaseContent getContent(String id) {
+        return contentById.get(id);
+    }
+
+    Collection<Content> getContentsByTag(String tag) {
+        Set<Content> contents = contentsByTag.get(tag);
+        if (contents == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(contents);
+    }
+
+    /**
+     * Returns the registered user mentioned the most times in not expired content,
+     * or null if no registered user is mentioned.
+     */
+    String getMostMentionedUser() {
+        if (usersByMentionsCount.isEmpty()) {
+            return null;
+        }
+        return usersByMentionsCount.lastEntry().getValue().iterator().next();
+    }
+
+    Collection<Content> getMostPopularContents(int n) {
+        return popularityRanking.getMostPopular(n);
+    }
+
+    void removeContent(BaseContentImpl content) {
+        contentById.remove(content.getId());
+
+        for (String tag : content.getTags()) {
+            Set<Content> contents = contentsByTag.get(tag);
+            if (contents != null && contents.remove(content) && contents.isEmpty()) {
+                contentsByTag.remove(tag);
+            }
+        }
+
+        for (String mention : content.getMentions()) {
+            int count = mentionsCount.get(mention);
+            updateMentionsCount(mention, count, count - 1);
+        }
+
+        popularityRanking.remove(content);
+    }
+
+    private void updateMentionsCount(String mention, int oldCount, int newCount) {
+        if (newCount == 0) {
+            mentionsCount.remove(mention);
+        } else {
+            mentionsCount.put(mention, newCount);
+        }
+
+        if (users.contains(mention)) {
+            if (oldCount != 0) {
+                removeFromMentionsCount(mention, oldCount);
+            }
+            if (newCount != 0) {
+                addToMentionsCount(mention, newCount);
+            }
+        }
+    }
+
+    private void addToMentionsCount(String username, int count) {
+        if (!usersByMentionsCount.containsKey(count)) {
+            usersByMentionsCount.put(count, new LinkedHashSet<>());
+        }
+        usersByMentionsCount.get(count).add(username);
+    }
+
+    private void removeFromMentionsCount(String username, int count) {
+        Set<String> usersWithCount = usersByMentionsCount.get(count);
+        usersWithCount.remove(username);
+        if (usersWithCount.isEmpty()) {
+            usersByMentionsCount.remove(count);
+        }
+    }
+}
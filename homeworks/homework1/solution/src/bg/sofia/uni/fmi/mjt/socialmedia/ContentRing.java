@@ -0,0 +1,61 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.BaseContentImpl;
+
+import java.util.Arrays;
+
+final class ContentRing {
+    //Ring buffer of the last contents added to it, growing up to its retention.
+    //When it is full, adding content overwrites the oldest one.
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final int retention;
+
+    // the contents are [first, first + size) modulo the capacity, the oldest at first
+    private BaseContentImpl[] contents;
+    private int first;
+    private int size;
+
+    ContentRing(int retention) {
+        if (retention <= 0) {
+            throw new IllegalArgumentException("retention must be positive");
+        }
+
+        this.retention = retention;
+        contents = new BaseContentImpl[Math.min(retention, INITIAL_CAPACITY)];
+    }
+
+    void add(BaseContentImpl content) {
+        if (size == contents.length && size < retention) {
+            grow();
+        }
+
+        if (size == contents.length) {
+            contents[first] = content;
+            first = (first + 1) % contents.length;
+        } else {
+            contents[(first + size++) % contents.length] = content;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the {@code index}-th most recently added content, the most recent being 0.
+     */
+    BaseContentImpl getRecent(int index) {
+        return contents[(first + size - 1 - index) % contents.length];
+    }
+
+    // the ring is full - copies it into a bigger array, the oldest content first
+    private void grow() {
+        int capacity = (int) Math.min((long) contents.length * 2, retention);
+        BaseContentImpl[] grown = Arrays.copyOfRange(contents, first, first + capacity);
+        System.arraycopy(contents, 0, grown, contents.length - first, first);
+        contents = grown;
+        first = 0;
+    }
+}
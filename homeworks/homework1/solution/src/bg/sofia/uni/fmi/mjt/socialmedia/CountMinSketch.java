@@ -0,0 +1,69 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import java.util.Arrays;
+import java.util.List;
+
+final class CountMinSketch {
+    //Count-Min sketch of int keys - depth rows of width counters, every key is counted in one counter per row.
+    //The estimate of a key (the smallest of its counters) is never less than its count and with probability
+    //1 - delta exceeds it by at most epsilon * (number of added keys). Sketches with equal epsilon and delta
+    //hash the keys equally, so they can be estimated together.
+
+    private final int width;
+    private final int depth;
+    // row-major
+    private final int[] counters;
+
+    CountMinSketch(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("epsilon and delta must be between 0 and 1");
+        }
+
+        width = (int) Math.ceil(Math.E / epsilon);
+        depth = (int) Math.ceil(Math.log(1 / delta));
+        counters = new int[width * depth];
+    }
+
+    void add(int key) {
+        for (int row = 0; row < depth; ++row) {
+            ++counters[row * width + column(key, row)];
+        }
+    }
+
+    void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    /**
+     * Estimates the count of {@code key} in all {@code sketches} together, which must have equal epsilon and delta.
+     */
+    static long estimate(int key, List<CountMinSketch> sketches) {
+        if (sketches.isEmpty()) {
+            return 0;
+        }
+
+        CountMinSketch first = sketches.get(0);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < first.depth; ++row) {
+            int index = row * first.width + first.column(key, row);
+            long rowCount = 0;
+            for (CountMinSketch sketch : sketches) {
+                rowCount += sketch.counters[index];
+            }
+            estimate = Math.min(estimate, rowCount);
+        }
+
+        return estimate;
+    }
+
+    // a different hash per row - the key and the row are mixed by the finalizer of MurmurHash3
+    private int column(int key, int row) {
+        int hash = key * 0x9E3779B1 + row * 0x85EBCA77;
+        hash ^= hash >>> 16;
+        hash *= 0x7FEB352D;
+        hash ^= hash >>> 15;
+        hash *= 0x846CA68B;
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % width;
+    }
+}
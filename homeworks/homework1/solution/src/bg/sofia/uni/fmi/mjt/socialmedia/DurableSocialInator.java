@@ -0,0 +1,189 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Content;
+import bg.sofia.uni.fmi.mjt.socialmedia.persistence.Journal;
+import bg.sofia.uni.fmi.mjt.socialmedia.persistence.JournalListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public final class DurableSocialInator implements SocialMediaInator, Closeable {
+    //EvilSocialInator persisted in a directory - every change is appended to a binary journal and after every
+    //snapshotInterval changes the whole state is written to a snapshot, after which the journal starts over.
+    //Opening the directory restores the snapshot and replays the journal written after it.
+
+    public static final int DEFAULT_GROUP_COMMIT_SIZE = 64;
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 100_000;
+
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String JOURNAL_FILE = "journal.bin";
+
+    private final EvilSocialInator platform;
+    private final Path snapshotFile;
+    private final Journal journal;
+    private final int snapshotInterval;
+    private long lastSnapshotSequence;
+
+    public DurableSocialInator(Path directory) {
+        this(directory, DEFAULT_GROUP_COMMIT_SIZE, DEFAULT_SNAPSHOT_INTERVAL, ActivityLog.UNLIMITED_RETENTION);
+    }
+
+    /**
+     * Opens the platform persisted in {@code directory}, creating it if it does not exist.
+     * @param groupCommitSize The number of changes written and fsynced together - a crash can lose the last
+     *                        {@code groupCommitSize - 1} changes, unless {@link #flush} is called
+     * @param snapshotInterval The number of changes after which a snapshot is written
+     * @param activityLogRetention The number of last activities kept for every user
+     * @throws IllegalArgumentException If {@code directory} is null or any of the numbers is not positive
+     */
+    public DurableSocialInator(Path directory, int groupCommitSize, int snapshotInterval,
+                               int activityLogRetention) {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory must not be null");
+        }
+        if (groupCommitSize <= 0 || snapshotInterval <= 0) {
+            throw new IllegalArgumentException("groupCommitSize and snapshotInterval must be positive");
+        }
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException("creating directory failed due to: " + e);
+        }
+
+        this.snapshotInterval = snapshotInterval;
+        platform = new EvilSocialInator(activityLogRetention);
+        snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotFile)) {
+            lastSnapshotSequence = PlatformSnapshot.read(snapshotFile, platform, activityLogRetention);
+        }
+        journal = Journal.open(directory.resolve(JOURNAL_FILE), groupCommitSize, lastSnapshotSequence,
+            new JournalReplayer(platform));
+        platform.setJournal(journal);
+    }
+
+    @Override
+    public void register(String username) {
+        platform.register(username);
+        snapshotIfDue();
+    }
+
+    @Override
+    public String publishPost(String username, LocalDateTime publishedOn, String description) {
+        String id = platform.publishPost(username, publishedOn, description);
+        snapshotIfDue();
+        return id;
+    }
+
+    @Override
+    public String publishStory(String username, LocalDateTime publishedOn, String description) {
+        String id = platform.publishStory(username, publishedOn, description);
+        snapshotIfDue();
+        return id;
+    }
+
+    @Override
+    public void like(String username, String id) {
+        platform.like(username, id);
+        snapshotIfDue();
+    }
+
+    @Override
+    public void comment(String username, String text, String id) {
+        platform.comment(username, text, id);
+        snapshotIfDue();
+    }
+
+    @Override
+    public Collection<Content> getNMostPopularContent(int n) {
+        return platform.getNMostPopularContent(n);
+    }
+
+    @Override
+    public Collection<Content> getNMostRecentContent(String username, int n) {
+        return platform.getNMostRecentContent(username, n);
+    }
+
+    @Override
+    public String getMostPopularUser() {
+        return platform.getMostPopularUser();
+    }
+
+    @Override
+    public Collection<Content> findContentByTag(String tag) {
+        return platform.findContentByTag(tag);
+    }
+
+    @Override
+    public List<String> getActivityLog(String username) {
+        return platform.getActivityLog(username);
+    }
+
+    /**
+     * Writes and fsyncs the changes which are not yet durable.
+     */
+    public void flush() {
+        journal.flush();
+    }
+
+    /**
+     * Writes the whole state to a snapshot and starts the journal over.
+     */
+    public void snapshot() {
+        PlatformSnapshot.write(platform, journal.getLastSequence(), snapshotFile);
+        journal.reset();
+        lastSnapshotSequence = journal.getLastSequence();
+    }
+
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    private void snapshotIfDue() {
+        if (journal.getLastSequence() - lastSnapshotSequence >= snapshotInterval) {
+            snapshot();
+        }
+    }
+
+    private static final class JournalReplayer implements JournalListener {
+        //Repeats the journaled changes on the platform, with their original times and content numbers
+
+        private final EvilSocialInator platform;
+
+        private JournalReplayer(EvilSocialInator platform) {
+            this.platform = platform;
+        }
+
+        @Override
+        public void onRegister(String username) {
+            platform.register(username);
+        }
+
+        @Override
+        public void onPublishPost(String username, LocalDateTime publishedOn, String description, int contentNumber) {
+            platform.publishPost(username, publishedOn, description, contentNumber);
+        }
+
+        @Override
+        public void onPublishStory(String username, LocalDateTime publishedOn, String description,
+                                   int contentNumber) {
+            platform.publishStory(username, publishedOn, description, contentNumber);
+        }
+
+        @Override
+        public void onLike(String username, String id, LocalDateTime time) {
+            platform.like(username, id, time);
+        }
+
+        @Override
+        public void onComment(String username, String text, String id, LocalDateTime time) {
+            platform.comment(username, text, id, time);
+        }
+    }
+}
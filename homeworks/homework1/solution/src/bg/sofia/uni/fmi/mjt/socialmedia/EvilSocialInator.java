@@ -5,32 +5,85 @@ import bg.sofia.uni.fmi.mjt.socialmedia.content.BaseContentImpl;
 import bg.sofia.uni.fmi.mjt.socialmedia.content.Content;
 import bg.sofia.uni.fmi.mjt.socialmedia.content.Post;
 import bg.sofia.uni.fmi.mjt.socialmedia.content.Story;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.SymbolTable;
 import bg.sofia.uni.fmi.mjt.socialmedia.exceptions.ContentNotFoundException;
 import bg.sofia.uni.fmi.mjt.socialmedia.exceptions.NoUsersException;
 import bg.sofia.uni.fmi.mjt.socialmedia.exceptions.UsernameAlreadyExistsException;
 import bg.sofia.uni.fmi.mjt.socialmedia.exceptions.UsernameNotFoundException;
+import bg.sofia.uni.fmi.mjt.socialmedia.persistence.JournalListener;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.LinkedHashMap;
 
 
 public final class EvilSocialInator implements SocialMediaInator {
 
-    private final Map<String, List<BaseContent>> users;
-    private final Map<String, List<String>> activityLog;
+    private final Map<String, RecentContents> users;
+    private final Map<String, ActivityLog> activityLog;
+    private final int activityLogRetention;
+    private final SymbolTable symbols;
+    private final ContentIndex contentIndex;
+    private final ExpirationQueue expirationQueue;
+    private final FeedTimelines feedTimelines;
+    private final TrendingTags trendingTags;
+
+    // notified of every change, if set
+    private JournalListener journal;
 
     public EvilSocialInator() {
+        this(ActivityLog.UNLIMITED_RETENTION);
+    }
+
+    /**
+     * Creates a platform keeping only the last {@code activityLogRetention} activities of every user.
+     * @throws IllegalArgumentException If {@code activityLogRetention} is not positive
+     */
+    public EvilSocialInator(int activityLogRetention) {
+        this(activityLogRetention, FeedTimelines.DEFAULT_FEED_RETENTION, FeedTimelines.DEFAULT_FAN_OUT_LIMIT);
+    }
+
+    /**
+     * Creates a platform keeping only the last {@code activityLogRetention} activities and the last
+     * {@code feedRetention} feed entries of every user.
+     * @param fanOutLimit The number of followers up to which new content is pushed to their feeds. Content of
+     *                    authors with more followers is merged into the feeds when they are read.
+     * @throws IllegalArgumentException If a retention is not positive or {@code fanOutLimit} is negative
+     */
+    public EvilSocialInator(int activityLogRetention, int feedRetention, int fanOutLimit) {
+        this(activityLogRetention, feedRetention, fanOutLimit, TrendingTags.DEFAULT_MAX_WINDOW,
+            TrendingTags.DEFAULT_ERROR);
+    }
+
+    /**
+     * Creates a platform as {@link #EvilSocialInator(int, int, int)} does, which counts tags for
+     * {@link #getTrendingTags} in windows of up to {@code trendingMaxWindow}.
+     * @param trendingError The fraction of the tags published in a window by which the count of a tag may be
+     *                      overestimated. The memory used for counting grows as it gets smaller.
+     * @throws IllegalArgumentException If {@code trendingMaxWindow} is shorter than a few minutes or
+     *                                  {@code trendingError} is not between 0 and 1
+     */
+    public EvilSocialInator(int activityLogRetention, int feedRetention, int fanOutLimit,
+                            Duration trendingMaxWindow, double trendingError) {
+        if (activityLogRetention <= 0) {
+            throw new IllegalArgumentException("activityLogRetention must be positive");
+        }
+
+        this.activityLogRetention = activityLogRetention;
         users = new LinkedHashMap<>();
         activityLog = new LinkedHashMap<>();
+        symbols = new SymbolTable();
+        contentIndex = new ContentIndex();
+        expirationQueue = new ExpirationQueue();
+        feedTimelines = new FeedTimelines(feedRetention, fanOutLimit);
+        trendingTags = new TrendingTags(trendingMaxWindow, trendingError, symbols);
     }
 
 
@@ -44,8 +97,11 @@ public final class EvilSocialInator implements SocialMediaInator {
             throw new UsernameAlreadyExistsException(username + " is already registered");
         }
 
-        users.put(username, new ArrayList<>());
-        activityLog.put(username, new LinkedList<>());
+        addUser(username, new ActivityLog(activityLogRetention));
+
+        if (journal != null) {
+            journal.onRegister(username);
+        }
     }
 
     @Override
@@ -58,14 +114,22 @@ public final class EvilSocialInator implements SocialMediaInator {
             throw new UsernameNotFoundException(username + " is not registered in the platform");
         }
 
-        BaseContent post = new Post(username, publishedOn, description);
-        users.get(username).add(post);
+        return publish(new Post(username, publishedOn, description, symbols));
+    }
+
+    /**
+     * Publishes a post with an already generated content number, e.g. when replaying a journal.
+     */
+    String publishPost(String username, LocalDateTime publishedOn, String description, int contentNumber) {
+        if (username == null || publishedOn == null || description == null) {
+            throw new IllegalArgumentException("publishPost takes non-null arguments");
+        }
 
-        String logString = publishedOn.format(DateTimeFormatter.ofPattern("HH:mm:ss dd.MM.yy"))
-                + ": Created a post with id " + post.getId();
-        addActivityLogToUser(username, logString);
+        if (!userExists(username)) {
+            throw new UsernameNotFoundException(username + " is not registered in the platform");
+        }
 
-        return post.getId();
+        return publish(new Post(username, publishedOn, description, contentNumber, symbols));
     }
 
     @Override
@@ -78,19 +142,34 @@ public final class EvilSocialInator implements SocialMediaInator {
             throw new UsernameNotFoundException(username + " is not registered in the platform");
         }
 
-        BaseContent story = new Story(username, publishedOn, description);
-        users.get(username).add(story);
+        return publish(new Story(username, publishedOn, description, symbols));
+    }
+
+    /**
+     * Publishes a story with an already generated content number, e.g. when replaying a journal.
+     */
+    String publishStory(String username, LocalDateTime publishedOn, String description, int contentNumber) {
+        if (username == null || publishedOn == null || description == null) {
+            throw new IllegalArgumentException("publishStory takes non-null arguments");
+        }
 
-        String logString = publishedOn.format(DateTimeFormatter.ofPattern("HH:mm:ss dd.MM.yy"))
-                + ": Created a story with id " + story.getId();
-        addActivityLogToUser(username, logString);
+        if (!userExists(username)) {
+            throw new UsernameNotFoundException(username + " is not registered in the platform");
+        }
 
-        return story.getId();
+        return publish(new Story(username, publishedOn, description, contentNumber, symbols));
     }
 
     @Override
     public void like(String username, String id) {
-        if (username == null || id == null) {
+        like(username, id, LocalDateTime.now());
+    }
+
+    /**
+     * Likes the content at {@code time}, which is also the time at which the content must not be expired.
+     */
+    void like(String username, String id, LocalDateTime time) {
+        if (username == null || id == null || time == null) {
             throw new IllegalArgumentException("like takes non-null arguments");
         }
 
@@ -98,6 +177,7 @@ public final class EvilSocialInator implements SocialMediaInator {
             throw new UsernameNotFoundException(username + " is not registered in the platform");
         }
 
+        removeExpiredContent(time);
         BaseContent contentToLike = getUserContent(id);
 
         if (contentToLike == null) {
@@ -105,15 +185,25 @@ public final class EvilSocialInator implements SocialMediaInator {
         }
 
         contentToLike.addLike(username);
+        contentIndex.updatePopularity(contentToLike);
+
+        activityLog.get(username).addLike(time, id);
 
-        String logString = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss dd.MM.yy"))
-                + ": Liked a content with id " + id;
-        addActivityLogToUser(username, logString);
+        if (journal != null) {
+            journal.onLike(username, id, time);
+        }
     }
 
     @Override
     public void comment(String username, String text, String id) {
-        if (username == null || text == null || id == null) {
+        comment(username, text, id, LocalDateTime.now());
+    }
+
+    /**
+     * Comments on the content at {@code time}, which is also the time at which the content must not be expired.
+     */
+    void comment(String username, String text, String id, LocalDateTime time) {
+        if (username == null || text == null || id == null || time == null) {
             throw new IllegalArgumentException("comment takes non-null arguments");
         }
 
@@ -121,6 +211,7 @@ public final class EvilSocialInator implements SocialMediaInator {
             throw new UsernameNotFoundException(username + " is not registered in the platform");
         }
 
+        removeExpiredContent(time);
         BaseContent contentToComment = getUserContent(id);
 
         if (contentToComment == null) {
@@ -128,10 +219,13 @@ public final class EvilSocialInator implements SocialMediaInator {
         }
 
         contentToComment.addComment(username, text);
+        contentIndex.updatePopularity(contentToComment);
+
+        activityLog.get(username).addComment(time, text, id);
 
-        String logString = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss dd.MM.yy"))
-                + ": Commented \"" + text + "\" on a content with id " + id;
-        addActivityLogToUser(username, logString);
+        if (journal != null) {
+            journal.onComment(username, text, id, time);
+        }
     }
 
     @Override
@@ -140,10 +234,8 @@ public final class EvilSocialInator implements SocialMediaInator {
             throw new IllegalArgumentException("n must be non-negative int");
         }
 
-        Map<Integer, ArrayList<Content>> contentsPopularity = getContentsPopularity();
-
-
-        return Collections.unmodifiableCollection(getNMostPopularContentsFromMap(contentsPopularity, n));
+        removeExpiredContent(LocalDateTime.now());
+        return Collections.unmodifiableCollection(contentIndex.getMostPopularContents(n));
     }
 
     @Override
@@ -156,9 +248,10 @@ public final class EvilSocialInator implements SocialMediaInator {
             throw new UsernameNotFoundException(username + "is not registered in the system");
         }
 
-        Map<LocalDateTime, ArrayList<Content>> mostRecentContents = getUserMostRecentContents(username);
+        LocalDateTime now = LocalDateTime.now();
+        removeExpiredContent(now);
 
-        return Collections.unmodifiableCollection(getNMostRecentContentsFromMap(mostRecentContents, n));
+        return Collections.unmodifiableCollection(users.get(username).getMostRecent(n, now));
     }
 
     @Override
@@ -167,11 +260,12 @@ public final class EvilSocialInator implements SocialMediaInator {
             throw new NoUsersException("There are no users in the platform.");
         }
 
-        Map<String, Integer> usersMentionsCount = getUsersMentionsCountMap();
-        if (usersMentionsCount.isEmpty()) {
-            return (String) users.keySet().toArray()[0];
+        removeExpiredContent(LocalDateTime.now());
+        String mostMentionedUser = contentIndex.getMostMentionedUser();
+        if (mostMentionedUser == null) {
+            return users.keySet().iterator().next();
         }
-        return getMostMentionedUserName(usersMentionsCount);
+        return mostMentionedUser;
     }
 
     @Override
@@ -180,7 +274,8 @@ public final class EvilSocialInator implements SocialMediaInator {
             throw new IllegalArgumentException("tag must not be null");
         }
 
-        return getContentsContainingTag(tag);
+        removeExpiredContent(LocalDateTime.now());
+        return Collections.unmodifiableCollection(contentIndex.getContentsByTag(tag));
     }
 
     @Override
@@ -193,148 +288,178 @@ public final class EvilSocialInator implements SocialMediaInator {
             throw new UsernameNotFoundException(username + " is not registered in the platform");
         }
 
-        return activityLog.get(username);
+        return activityLog.get(username).render();
     }
 
+    /**
+     * Makes {@code follower} follow {@code followee}, so the content {@code followee} publishes afterwards
+     * appears in the feed of {@code follower}. Following someone already followed does nothing.
+     */
+    public void follow(String follower, String followee) {
+        validateFollowing(follower, followee);
+        feedTimelines.follow(follower, followee);
+    }
 
-    private void addActivityLogToUser(String username, String activityLogString) {
-        if (!activityLog.containsKey(username)) {
-            activityLog.put(username, new LinkedList<>());
+    public void unfollow(String follower, String followee) {
+        validateFollowing(follower, followee);
+        feedTimelines.unfollow(follower, followee);
+    }
+
+    /**
+     * Returns the {@code n} most recently published not expired contents of the users followed by
+     * {@code username}, the most recent first. Only the last published contents are kept in a feed.
+     */
+    public Collection<Content> getFeed(String username, int n) {
+        if (username == null || n < 0) {
+            throw new IllegalArgumentException("username must not be null and n must be non-negative int");
+        }
+
+        if (!userExists(username)) {
+            throw new UsernameNotFoundException(username + " is not registered in the platform");
         }
 
-        ((LinkedList<String>) activityLog.get(username)).addFirst(activityLogString);
+        return Collections.unmodifiableCollection(feedTimelines.getFeed(username, n, LocalDateTime.now()));
     }
 
-    private boolean userExists(String username) {
-        return users.containsKey(username);
+    /**
+     * Returns up to {@code k} tags used the most in the content published in the last {@code window},
+     * the most used first. The counts are approximate, so tags used almost equally may be swapped.
+     * @throws IllegalArgumentException If {@code k} is negative or {@code window} is not positive or is longer
+     *                                  than the longest counted window
+     */
+    public List<String> getTrendingTags(int k, Duration window) {
+        return Collections.unmodifiableList(trendingTags.getTrending(k, window, LocalDateTime.now()));
     }
 
-    private BaseContent getUserContent(String contentId) {
-        String contentAuthor = contentId.substring(0, contentId.indexOf("-"));
-        for (BaseContent content : users.get(contentAuthor)) {
-            if (content.getId().equals(contentId)) {
-                return content;
-            }
-        }
 
-        return null;
+    void setJournal(JournalListener journal) {
+        this.journal = journal;
     }
 
-    private Map<String, Integer> getUsersMentionsCountMap() {
-        Map<String, Integer> usersMentionsCount = new LinkedHashMap<>(users.size());
-        for (List<BaseContent> userContents : users.values()) {
-            for (BaseContent content : userContents) {
-                if (content.isExpired()) {
-                    continue;
-                }
+    Collection<String> getUsernames() {
+        return Collections.unmodifiableSet(users.keySet());
+    }
 
-                for (String mention : content.getMentions()) {
-                    if (users.containsKey(mention)) {
-                        if (usersMentionsCount.containsKey(mention)) {
-                            usersMentionsCount.put(mention, usersMentionsCount.get(mention) + 1);
-                        } else {
-                            usersMentionsCount.put(mention, 1);
-                        }
-                    }
-                }
-            }
-        }
+    ActivityLog getActivityLogOf(String username) {
+        return activityLog.get(username);
+    }
 
-        return usersMentionsCount;
+    /**
+     * Returns the table in which the tags and mentions of the content of the platform are interned.
+     */
+    SymbolTable getSymbols() {
+        return symbols;
     }
 
-    private String getMostMentionedUserName(Map<String, Integer> usersMentionsCount) {
-        int mostPopularUserMentionsCount = 0;
-        String mostPopularUserName = "";
-        for (Map.Entry<String, Integer> userMentions : usersMentionsCount.entrySet()) {
-            int userMentionsCount = userMentions.getValue();
-            if (userMentionsCount > mostPopularUserMentionsCount) {
-                mostPopularUserMentionsCount = userMentionsCount;
-                mostPopularUserName = userMentions.getKey();
-            }
+    /**
+     * Returns the not expired content, in the order it was published.
+     */
+    List<BaseContentImpl> getContents() {
+        removeExpiredContent(LocalDateTime.now());
+
+        List<BaseContentImpl> contents = new ArrayList<>();
+        for (RecentContents userContents : users.values()) {
+            contents.addAll(userContents.getAll());
         }
+        contents.sort(new ContentNumberComparator());
 
-        return mostPopularUserName;
+        return contents;
     }
 
-    private Collection<Content> getContentsContainingTag(String tag) {
-        Collection<Content> contentsContainingTag = new ArrayList<>();
+    /**
+     * Adds a user with its activity log, e.g. restored from a snapshot. The journal is not notified.
+     */
+    void restoreUser(String username, ActivityLog userActivityLog) {
+        if (userExists(username)) {
+            throw new UsernameAlreadyExistsException(username + " is already registered");
+        }
 
-        for (List<BaseContent> usersContents : users.values()) {
-            for (BaseContent content : usersContents) {
-                if (!(content.isExpired()) && content.getTags().contains(tag)) {
-                    contentsContainingTag.add(content);
-                }
-            }
+        addUser(username, userActivityLog);
+    }
+
+    /**
+     * Adds content of a registered user, e.g. restored from a snapshot. The journal is not notified.
+     */
+    void restoreContent(BaseContentImpl content) {
+        if (!userExists(content.getAuthor())) {
+            throw new UsernameNotFoundException(content.getAuthor() + " is not registered in the platform");
         }
 
-        return contentsContainingTag;
+        addContent(content);
     }
 
-    private Map<Integer, ArrayList<Content>> getContentsPopularity() {
-        Map<Integer, ArrayList<Content>> contentsPopularity = new TreeMap<>(Collections.reverseOrder());
+    private void addUser(String username, ActivityLog userActivityLog) {
+        users.put(username, new RecentContents());
+        activityLog.put(username, userActivityLog);
+        contentIndex.addUser(username);
+        feedTimelines.addUser(username);
+    }
 
-        for (Map.Entry<String, List<BaseContent>> userContents : users.entrySet()) {
-            for (BaseContent content : userContents.getValue()) {
-                if (!content.isExpired()) {
-                    int popularity = content.getNumberOfComments() + content.getNumberOfLikes();
-                    if (contentsPopularity.get(popularity) == null) {
-                        contentsPopularity.put(popularity, new ArrayList<>());
-                    }
-                    contentsPopularity.get(popularity).add(content);
-                }
+    private String publish(BaseContentImpl content) {
+        addContent(content);
+        feedTimelines.publish(content);
+
+        String username = content.getAuthor();
+        if (content instanceof Story) {
+            activityLog.get(username).addCreatedStory(content.getPublishedOn(), content.getId());
+            if (journal != null) {
+                journal.onPublishStory(username, content.getPublishedOn(), content.getDescription(),
+                    content.getContentNumber());
+            }
+        } else {
+            activityLog.get(username).addCreatedPost(content.getPublishedOn(), content.getId());
+            if (journal != null) {
+                journal.onPublishPost(username, content.getPublishedOn(), content.getDescription(),
+                    content.getContentNumber());
             }
         }
 
-        return contentsPopularity;
+        return content.getId();
     }
 
-    private Collection<Content> getNMostPopularContentsFromMap(Map<Integer, ArrayList<Content>> map, int n) {
-        Collection<Content> mostPopularContents = new ArrayList<>();
-        int numberOfContents = 0;
-        for (Map.Entry<Integer, ArrayList<Content>> contentPopularity : map.entrySet()) {
-            for (Content content : contentPopularity.getValue()) {
-                if (numberOfContents >= n) {
-                    return Collections.unmodifiableCollection(mostPopularContents);
-                }
+    private void addContent(BaseContentImpl content) {
+        users.get(content.getAuthor()).add(content);
+        contentIndex.addContent(content);
+        expirationQueue.add(content);
+        trendingTags.add(content);
+    }
 
-                mostPopularContents.add(content);
-                numberOfContents++;
-            }
+    // expired content is removed from everywhere, so the rest of the queries see only not expired content,
+    // and its symbols are released, so the symbol table keeps only the symbols of not expired content
+    private void removeExpiredContent(LocalDateTime now) {
+        for (BaseContentImpl content : expirationQueue.pollExpired(now)) {
+            users.get(content.getAuthor()).remove(content);
+            contentIndex.removeContent(content);
+            content.releaseSymbols();
         }
-
-        return mostPopularContents;
     }
 
-    private Collection<Content> getNMostRecentContentsFromMap(Map<LocalDateTime, ArrayList<Content>> map, int n) {
-        Collection<Content> mostRecentContents = new ArrayList<>();
-        int numberOfContents = 0;
-        for (Map.Entry<LocalDateTime, ArrayList<Content>> contentsToThatTime : map.entrySet()) {
-            for (Content content : contentsToThatTime.getValue()) {
-                if (numberOfContents >= n) {
-                    return Collections.unmodifiableCollection(mostRecentContents);
-                }
+    private void validateFollowing(String follower, String followee) {
+        if (follower == null || followee == null) {
+            throw new IllegalArgumentException("follower and followee must not be null");
+        }
 
-                mostRecentContents.add(content);
-                numberOfContents++;
-            }
+        if (follower.equals(followee)) {
+            throw new IllegalArgumentException(follower + " cannot follow themselves");
         }
 
-        return mostRecentContents;
+        if (!userExists(follower) || !userExists(followee)) {
+            throw new UsernameNotFoundException(follower + " or " + followee + " is not registered in the platform");
+        }
     }
 
-    private Map<LocalDateTime, ArrayList<Content>> getUserMostRecentContents(String username) {
-        Map<LocalDateTime, ArrayList<Content>> mostRecentContents = new TreeMap<>();
-        for (Content content : users.get(username)) {
-            if (!((BaseContentImpl) content).isExpired()) {
-                LocalDateTime contentPublishedOn = ((BaseContentImpl) content).getPublishedOn();
-                if (mostRecentContents.get(contentPublishedOn) == null) {
-                    mostRecentContents.put(contentPublishedOn, new ArrayList<>());
-                }
-                mostRecentContents.get(contentPublishedOn).add(content);
-            }
-        }
+    private boolean userExists(String username) {
+        return users.containsKey(username);
+    }
 
-        return mostRecentContents;
+    private BaseContent getUserContent(String contentId) {
+        return contentIndex.getContent(contentId);
+    }
+
+    private static final class ContentNumberComparator implements Comparator<BaseContentImpl> {
+        @Override
+        public int compare(BaseContentImpl first, BaseContentImpl second) {
+            return Integer.compare(first.getContentNumber(), second.getContentNumber());
+        }
     }
 }
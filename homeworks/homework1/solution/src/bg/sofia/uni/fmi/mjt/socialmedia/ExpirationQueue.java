@@ -0,0 +1,45 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.BaseContentImpl;
+
+import java.time.LocalDateTime;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+final class ExpirationQueue {
+    //Content ordered by expiration time, the one expiring first at the head.
+    //Expired content is taken from the head in batches, so nothing else has to check BaseContent#isExpired.
+
+    private final Queue<BaseContentImpl> queue;
+
+    ExpirationQueue() {
+        queue = new PriorityQueue<>(new ExpiresOnComparator());
+    }
+
+    void add(BaseContentImpl content) {
+        queue.add(content);
+    }
+
+    /**
+     * Removes and returns the content expired at {@code now}, the one expired first being first.
+     */
+    List<BaseContentImpl> pollExpired(LocalDateTime now) {
+        List<BaseContentImpl> expired = new ArrayList<>();
+        while (!queue.isEmpty() && now.isAfter(queue.peek().getExpiresOn())) {
+            expired.add(queue.poll());
+        }
+
+        return expired;
+    }
+
+    private static final class ExpiresOnComparator implements Comparator<BaseContentImpl> {
+        @Override
+        public int compare(BaseContentImpl first, BaseContentImpl second) {
+            return first.getExpiresOn().compareTo(second.getExpiresOn());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.BaseContentImpl;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Content;
+
+import java.time.LocalDateTime;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+
+final class FeedTimelines {
+    //Follow graph and home feeds of the users. Content is pushed into the bounded timelines of all followers
+    //of its author when it is published (fan-out on write). Authors with more than fanOutLimit followers are
+    //not pushed - their content goes to their own bounded outbox, merged into the feeds of their followers
+    //when they are read (pull on read). Feeds are in publishing order, the most recent first.
+    //Every follow records the number of the last content published before it, so a feed shows only the content
+    //of an author published after the follower followed them last, whether it was pushed or pulled.
+
+    static final int DEFAULT_FEED_RETENTION = 500;
+    static final int DEFAULT_FAN_OUT_LIMIT = 10_000;
+
+    private final int feedRetention;
+    private final int fanOutLimit;
+
+    // author -> followers and follower -> followed authors -> number of the last content published before the follow
+    private final Map<String, Set<String>> followers;
+    private final Map<String, Map<String, Integer>> followees;
+
+    private final Map<String, ContentRing> timelines;
+
+    // only authors which have published with more than fanOutLimit followers have outboxes
+    private final Map<String, ContentRing> outboxes;
+    // follower -> followed authors with outboxes
+    private final Map<String, Set<String>> pulledAuthors;
+
+    FeedTimelines(int feedRetention, int fanOutLimit) {
+        if (feedRetention <= 0 || fanOutLimit < 0) {
+            throw new IllegalArgumentException("feedRetention must be positive and fanOutLimit non-negative");
+        }
+
+        this.feedRetention = feedRetention;
+        this.fanOutLimit = fanOutLimit;
+        followers = new HashMap<>();
+        followees = new HashMap<>();
+        timelines = new HashMap<>();
+        outboxes = new HashMap<>();
+        pulledAuthors = new HashMap<>();
+    }
+
+    void addUser(String username) {
+        followers.put(username, new LinkedHashSet<>());
+        followees.put(username, new LinkedHashMap<>());
+        timelines.put(username, new ContentRing(feedRetention));
+        pulledAuthors.put(username, new LinkedHashSet<>());
+    }
+
+    /**
+     * Makes {@code follower} follow {@code followee}. Only content published afterwards appears in the feed.
+     */
+    void follow(String follower, String followee) {
+        Map<String, Integer> followed = followees.get(follower);
+        if (followed.containsKey(followee)) {
+            return;
+        }
+
+        followed.put(followee, BaseContentImpl.getNumberOfContents());
+
+        followers.get(followee).add(follower);
+        if (outboxes.containsKey(followee)) {
+            pulledAuthors.get(follower).add(followee);
+        }
+    }
+
+    void unfollow(String follower, String followee) {
+        if (followees.get(follower).remove(followee) == null) {
+            return;
+        }
+
+        followers.get(followee).remove(follower);
+        pulledAuthors.get(follower).remove(followee);
+    }
+
+    void publish(BaseContentImpl content) {
+        String author = content.getAuthor();
+        Set<String> authorFollowers = followers.get(author);
+        if (authorFollowers.size() <= fanOutLimit) {
+            for (String follower : authorFollowers) {
+                timelines.get(follower).add(content);
+            }
+            return;
+        }
+
+        ContentRing outbox = outboxes.get(author);
+        if (outbox == null) {
+            outbox = new ContentRing(feedRetention);
+            outboxes.put(author, outbox);
+            for (String follower : authorFollowers) {
+                pulledAuthors.get(follower).add(author);
+            }
+        }
+        outbox.add(content);
+    }
+
+    /**
+     * Returns the {@code n} most recently published contents of the authors followed by {@code username},
+     * not expired at {@code now}. The timeline and the outboxes of the followed high-fanout authors are merged
+     * newest first, so only the entries up to the n-th one are visited.
+     */
+    List<Content> getFeed(String username, int n, LocalDateTime now) {
+        Map<String, Integer> followed = followees.get(username);
+
+        Queue<Cursor> cursors = new PriorityQueue<>(new MostRecentCursorFirstComparator());
+        addIfNotEmpty(cursors, new Cursor(timelines.get(username)));
+        for (String author : pulledAuthors.get(username)) {
+            addIfNotEmpty(cursors, new Cursor(outboxes.get(author)));
+        }
+
+        List<Content> feed = new ArrayList<>(Math.min(n, feedRetention));
+        while (feed.size() < n && !cursors.isEmpty()) {
+            Cursor cursor = cursors.poll();
+            BaseContentImpl content = cursor.current();
+            // the timeline keeps content of authors unfollowed after it was pushed, and the outbox of an author
+            // keeps their content published before they were followed
+            Integer followedSince = followed.get(content.getAuthor());
+            if (followedSince != null && content.getContentNumber() > followedSince
+                && !now.isAfter(content.getExpiresOn())) {
+                feed.add(content);
+            }
+
+            cursor.advance();
+            addIfNotEmpty(cursors, cursor);
+        }
+
+        return feed;
+    }
+
+    private static void addIfNotEmpty(Queue<Cursor> cursors, Cursor cursor) {
+        if (cursor.hasCurrent()) {
+            cursors.add(cursor);
+        }
+    }
+
+    private static final class Cursor {
+        private final ContentRing ring;
+        private int index;
+
+        private Cursor(ContentRing ring) {
+            this.ring = ring;
+        }
+
+        private boolean hasCurrent() {
+            return index < ring.size();
+        }
+
+        private BaseContentImpl current() {
+            return ring.getRecent(index);
+        }
+
+        private void advance() {
+            ++index;
+        }
+    }
+
+    private static final class MostRecentCursorFirstComparator implements Comparator<Cursor> {
+        @Override
+        public int compare(Cursor first, Cursor second) {
+            return Integer.compare(second.current().getContentNumber(), first.current().getContentNumber());
+        }
+    }
+}
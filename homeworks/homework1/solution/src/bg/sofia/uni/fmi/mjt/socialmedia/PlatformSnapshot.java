@@ -0,0 +1,130 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.BaseContentImpl;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Post;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Story;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.SymbolTable;
+import bg.sofia.uni.fmi.mjt.socialmedia.persistence.BinaryCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+final class PlatformSnapshot {
+    //Compact binary snapshot of an EvilSocialInator - the users with their activity logs and the not expired
+    //content with its likes and comments, in publishing order. The indexes are rebuilt when it is read.
+    //It is written to a temporary file which then replaces the snapshot, so a crash never leaves half of one.
+
+    private static final int MAGIC = 0x534D4953;
+    private static final int VERSION = 1;
+
+    private static final byte POST = 0;
+    private static final byte STORY = 1;
+
+    private PlatformSnapshot() {
+    }
+
+    /**
+     * Writes {@code platform} to {@code file}, recording that it contains the journal records up to
+     * {@code lastSequence}.
+     */
+    static void write(EvilSocialInator platform, long lastSequence, Path file) {
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(lastSequence);
+            output.writeInt(BaseContentImpl.getNumberOfContents());
+
+            Collection<String> usernames = platform.getUsernames();
+            output.writeInt(usernames.size());
+            for (String username : usernames) {
+                BinaryCodec.writeString(output, username);
+                platform.getActivityLogOf(username).writeTo(output);
+            }
+
+            List<BaseContentImpl> contents = platform.getContents();
+            output.writeInt(contents.size());
+            for (BaseContentImpl content : contents) {
+                output.writeByte(content instanceof Story ? STORY : POST);
+                BinaryCodec.writeString(output, content.getAuthor());
+                BinaryCodec.writeTime(output, content.getPublishedOn());
+                BinaryCodec.writeString(output, content.getDescription());
+                output.writeInt(content.getContentNumber());
+                output.writeInt(content.getNumberOfLikes());
+                output.writeInt(content.getNumberOfComments());
+            }
+
+            output.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new RuntimeException("writing snapshot failed due to: " + e);
+        }
+
+        try {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("replacing snapshot failed due to: " + e);
+        }
+    }
+
+    /**
+     * Restores the snapshot in {@code file} into the empty {@code platform}.
+     * @return The sequence number of the last journal record contained in the snapshot
+     * @throws IllegalArgumentException If the file is not a snapshot of the current version or is truncated
+     */
+    static long read(Path file, EvilSocialInator platform, int activityLogRetention) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IllegalArgumentException(file + " is not a snapshot of the current version");
+            }
+            long lastSequence = input.readLong();
+            BaseContentImpl.reserveContentNumbers(input.readInt());
+
+            int numberOfUsers = input.readInt();
+            for (int i = 0; i < numberOfUsers; ++i) {
+                String username = BinaryCodec.readString(input);
+                platform.restoreUser(username, ActivityLog.readFrom(input, activityLogRetention));
+            }
+
+            int numberOfContents = input.readInt();
+            for (int i = 0; i < numberOfContents; ++i) {
+                platform.restoreContent(readContent(input, platform.getSymbols()));
+            }
+
+            return lastSequence;
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("snapshot " + file + " is truncated");
+        } catch (IOException e) {
+            throw new RuntimeException("reading snapshot failed due to: " + e);
+        }
+    }
+
+    private static BaseContentImpl readContent(DataInputStream input, SymbolTable symbols) throws IOException {
+        byte type = input.readByte();
+        String author = BinaryCodec.readString(input);
+        LocalDateTime publishedOn = BinaryCodec.readTime(input);
+        String description = BinaryCodec.readString(input);
+        int contentNumber = input.readInt();
+
+        BaseContentImpl content = type == STORY
+            ? new Story(author, publishedOn, description, contentNumber, symbols)
+            : new Post(author, publishedOn, description, contentNumber, symbols);
+        content.restoreEngagement(input.readInt(), input.readInt());
+        return content;
+    }
+}
@@ -0,0 +1,93 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Content;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+final class PopularityRanking {
+    //Content ordered by popularity (likes + comments) descending, equally popular content in the order it was added.
+    //Adding, removing and updating content are O(log n), the n most popular are read in O(n + log total).
+
+    private final NavigableSet<RankedContent> ranking;
+    private final Map<Content, RankedContent> rankedContents;
+    private long numberOfAddedContents;
+
+    PopularityRanking() {
+        ranking = new TreeSet<>(new RankedContentComparator());
+        rankedContents = new HashMap<>();
+    }
+
+    void add(Content content) {
+        RankedContent rankedContent = new RankedContent(content, popularityOf(content), numberOfAddedContents++);
+        rankedContents.put(content, rankedContent);
+        ranking.add(rankedContent);
+    }
+
+    void remove(Content content) {
+        RankedContent rankedContent = rankedContents.remove(content);
+        if (rankedContent != null) {
+            ranking.remove(rankedContent);
+        }
+    }
+
+    /**
+     * Moves the content to its place after its likes or comments have changed.
+     * Content which is not in the ranking is ignored.
+     */
+    void update(Content content) {
+        RankedContent rankedContent = rankedContents.get(content);
+        if (rankedContent == null || rankedContent.popularity == popularityOf(content)) {
+            return;
+        }
+
+        ranking.remove(rankedContent);
+        RankedContent updatedContent = new RankedContent(content, popularityOf(content), rankedContent.order);
+        rankedContents.put(content, updatedContent);
+        ranking.add(updatedContent);
+    }
+
+    Collection<Content> getMostPopular(int n) {
+        Collection<Content> mostPopular = new ArrayList<>(Math.min(n, ranking.size()));
+        for (RankedContent rankedContent : ranking) {
+            if (mostPopular.size() >= n) {
+                break;
+            }
+            mostPopular.add(rankedContent.content);
+        }
+
+        return mostPopular;
+    }
+
+    private static int popularityOf(Content content) {
+        return content.getNumberOfLikes() + content.getNumberOfComments();
+    }
+
+    private static final class RankedContent {
+        // popularity is copied, so the content is found in the set even after its likes or comments change
+        private final Content content;
+        private final int popularity;
+        private final long order;
+
+        private RankedContent(Content content, int popularity, long order) {
+            this.content = content;
+            this.popularity = popularity;
+            this.order = order;
+        }
+    }
+
+    private static final class RankedContentComparator implements Comparator<RankedContent> {
+        @Override
+        public int compare(RankedContent first, RankedContent second) {
+            if (first.popularity != second.popularity) {
+                return Integer.compare(second.popularity, first.popularity);
+            }
+            return Long.compare(first.order, second.order);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.BaseContentImpl;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Content;
+
+import java.time.LocalDateTime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+final class RecentContents {
+    //Content of a user in an array ordered by publishing time (content published at the same time - by number),
+    //the most recent at the end. Content is usually published "now", so it is appended; content published
+    //earlier is inserted at the position found by binary search. The most recent content is read from the end.
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final Comparator<BaseContentImpl> PUBLISHED_ON_ORDER = new PublishedOnComparator();
+
+    private BaseContentImpl[] contents;
+    private int size;
+
+    RecentContents() {
+        contents = new BaseContentImpl[INITIAL_CAPACITY];
+    }
+
+    void add(BaseContentImpl content) {
+        if (size == contents.length) {
+            contents = Arrays.copyOf(contents, 2 * size);
+        }
+
+        int index = size;
+        if (size > 0 && PUBLISHED_ON_ORDER.compare(contents[size - 1], content) > 0) {
+            index = -Arrays.binarySearch(contents, 0, size, content, PUBLISHED_ON_ORDER) - 1;
+        }
+
+        System.arraycopy(contents, index, contents, index + 1, size - index);
+        contents[index] = content;
+        ++size;
+    }
+
+    void remove(BaseContentImpl content) {
+        int index = Arrays.binarySearch(contents, 0, size, content, PUBLISHED_ON_ORDER);
+        if (index < 0) {
+            return;
+        }
+
+        System.arraycopy(contents, index + 1, contents, index, size - index - 1);
+        contents[--size] = null;
+    }
+
+    /**
+     * Returns the {@code n} most recent contents not expired at {@code now}, the most recent first.
+     */
+    List<Content> getMostRecent(int n, LocalDateTime now) {
+        List<Content> mostRecent = new ArrayList<>(Math.min(n, size));
+        for (int i = size - 1; i >= 0 && mostRecent.size() < n; --i) {
+            if (!now.isAfter(contents[i].getExpiresOn())) {
+                mostRecent.add(contents[i]);
+            }
+        }
+
+        return mostRecent;
+    }
+
+    /**
+     * Returns all contents, the least recent first.
+     */
+    List<BaseContentImpl> getAll() {
+        return new ArrayList<>(Arrays.asList(contents).subList(0, size));
+    }
+
+    private static final class PublishedOnComparator implements Comparator<BaseContentImpl> {
+        @Override
+        public int compare(BaseContentImpl first, BaseContentImpl second) {
+            int publishedOnComparison = first.getPublishedOn().compareTo(second.getPublishedOn());
+            if (publishedOnComparison != 0) {
+                return publishedOnComparison;
+            }
+
+            return Integer.compare(first.getContentNumber(), second.getContentNumber());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class SpaceSaving {
+    //Space-Saving summary of the most frequent int keys in a fixed number of counters. A key which is not monitored
+    //takes over the counter with the smallest count, so every key added more than (number of added keys) / capacity
+    //times is monitored. The counters are kept in a binary min-heap, the smallest at its root.
+
+    static final int NO_KEY = -1;
+
+    private final int[] keys;
+    private final long[] counts;
+    private final Map<Integer, Integer> counterOfKey;
+
+    // heap of counter indexes ordered by count and the position of every counter in it
+    private final int[] heap;
+    private final int[] heapPosition;
+    private int size;
+
+    SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        keys = new int[capacity];
+        counts = new long[capacity];
+        counterOfKey = new HashMap<>();
+        heap = new int[capacity];
+        heapPosition = new int[capacity];
+    }
+
+    /**
+     * Counts {@code key}, which must not be negative, and returns the key no longer monitored because of it
+     * or {@link #NO_KEY} if there is no such.
+     */
+    int add(int key) {
+        Integer counter = counterOfKey.get(key);
+        if (counter == null && size < keys.length) {
+            counter = size;
+            keys[counter] = key;
+            counts[counter] = 1;
+            counterOfKey.put(key, counter);
+            siftUp(size++, counter);
+            return NO_KEY;
+        }
+
+        int evictedKey = NO_KEY;
+        if (counter == null) {
+            counter = heap[0];
+            evictedKey = keys[counter];
+            counterOfKey.remove(evictedKey);
+            keys[counter] = key;
+            counterOfKey.put(key, counter);
+        }
+
+        ++counts[counter];
+        siftDown(heapPosition[counter]);
+        return evictedKey;
+    }
+
+    boolean isMonitored(int key) {
+        return counterOfKey.containsKey(key);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int keyAt(int counter) {
+        return keys[counter];
+    }
+
+    void clear() {
+        counterOfKey.clear();
+        for (int counter = 0; counter < size; ++counter) {
+            counts[counter] = 0;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position, int counter) {
+        while (position > 0 && counts[heap[(position - 1) / 2]] > counts[counter]) {
+            heap[position] = heap[(position - 1) / 2];
+            heapPosition[heap[position]] = position;
+            position = (position - 1) / 2;
+        }
+
+        heap[position] = counter;
+        heapPosition[counter] = position;
+    }
+
+    // the count at position only grows, so it can only move towards the leaves
+    private void siftDown(int position) {
+        int counter = heap[position];
+        while (2 * position + 1 < size) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && counts[heap[child + 1]] < counts[heap[child]]) {
+                ++child;
+            }
+            if (counts[counter] <= counts[heap[child]]) {
+                break;
+            }
+
+            heap[position] = heap[child];
+            heapPosition[heap[position]] = position;
+            position = child;
+        }
+
+        heap[position] = counter;
+        heapPosition[counter] = position;
+    }
+}
@@ -0,0 +1,184 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.BaseContentImpl;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.SymbolTable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+final class TrendingTags {
+    //Approximate tag counts over sliding time windows. Time is divided into slices of maxWindow / SLICES, each
+    //counted by a Count-Min sketch and a Space-Saving summary in a ring of buckets reused once their slice is older
+    //than maxWindow. The trending tags of a window are the tags monitored in any of its buckets, ranked by their
+    //counts estimated by its sketches together. Memory depends only on maxWindow and the allowed error.
+    //The monitored tags are referenced in the symbol table of the platform, so their ids are not reused while they
+    //are candidates. A sketch may still count an id of an expired tag reused by a new one, which only adds to the
+    //overestimation the sketch allows anyway.
+
+    static final Duration DEFAULT_MAX_WINDOW = Duration.ofHours(24);
+    static final double DEFAULT_ERROR = 0.01;
+
+    private static final int SLICES = 240;
+    private static final double FAILURE_PROBABILITY = 0.01;
+
+    private final Duration maxWindow;
+    private final long sliceSeconds;
+    private final double error;
+    private final SymbolTable symbols;
+    private final Bucket[] buckets;
+
+    /**
+     * @param error The fraction of the tags published in a window by which their counts may be overestimated
+     * @param symbols The symbol table of the counted content
+     */
+    TrendingTags(Duration maxWindow, double error, SymbolTable symbols) {
+        if (maxWindow == null || maxWindow.getSeconds() < SLICES) {
+            throw new IllegalArgumentException("maxWindow must be at least " + SLICES + " seconds");
+        }
+        if (error <= 0 || error >= 1) {
+            throw new IllegalArgumentException("error must be between 0 and 1");
+        }
+
+        this.maxWindow = maxWindow;
+        this.sliceSeconds = maxWindow.getSeconds() / SLICES;
+        this.error = error;
+        this.symbols = symbols;
+        buckets = new Bucket[SLICES + 1];
+    }
+
+    /**
+     * Counts the tags of {@code content} at the time it was published. Content published before the oldest
+     * window is not counted.
+     */
+    void add(BaseContentImpl content) {
+        if (content.getNumberOfTags() == 0) {
+            return;
+        }
+
+        Bucket bucket = bucketOf(sliceOf(content.getPublishedOn()));
+        if (bucket == null) {
+            return;
+        }
+        for (int i = 0; i < content.getNumberOfTags(); ++i) {
+            bucket.add(content.getTagSymbol(i));
+        }
+    }
+
+    /**
+     * Returns up to {@code k} tags most used in the {@code window} before {@code now}, the most used first.
+     * The window is rounded up to whole slices, the slice of {@code now} included.
+     */
+    List<String> getTrending(int k, Duration window, LocalDateTime now) {
+        if (k < 0 || window == null || window.isNegative() || window.isZero() || window.compareTo(maxWindow) > 0) {
+            throw new IllegalArgumentException("k must be non-negative and window between 0 and " + maxWindow);
+        }
+
+        long nowSlice = sliceOf(now);
+        long numberOfSlices = (window.getSeconds() + sliceSeconds - 1) / sliceSeconds;
+
+        List<CountMinSketch> sketches = new ArrayList<>();
+        Set<Integer> candidates = new LinkedHashSet<>();
+        for (Bucket bucket : buckets) {
+            if (bucket != null && bucket.slice <= nowSlice && nowSlice - bucket.slice < numberOfSlices) {
+                sketches.add(bucket.sketch);
+                for (int counter = 0; counter < bucket.topTags.size(); ++counter) {
+                    candidates.add(bucket.topTags.keyAt(counter));
+                }
+            }
+        }
+
+        List<TagCount> counts = new ArrayList<>(candidates.size());
+        for (int symbol : candidates) {
+            counts.add(new TagCount(symbol, CountMinSketch.estimate(symbol, sketches)));
+        }
+        counts.sort(new MostUsedFirstComparator());
+
+        List<String> trending = new ArrayList<>(Math.min(k, counts.size()));
+        for (int i = 0; i < k && i < counts.size(); ++i) {
+            trending.add(symbols.symbolOf(counts.get(i).symbol));
+        }
+
+        return trending;
+    }
+
+    private long sliceOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), sliceSeconds);
+    }
+
+    // returns null if the slice is older than the one kept in its bucket
+    private Bucket bucketOf(long slice) {
+        int index = (int) Math.floorMod(slice, (long) buckets.length);
+        Bucket bucket = buckets[index];
+        if (bucket == null) {
+            bucket = new Bucket(slice, error, symbols);
+            buckets[index] = bucket;
+        } else if (bucket.slice < slice) {
+            bucket.reset(slice);
+        } else if (bucket.slice > slice) {
+            return null;
+        }
+
+        return bucket;
+    }
+
+    private static final class Bucket {
+        private long slice;
+        private final CountMinSketch sketch;
+        private final SpaceSaving topTags;
+        private final SymbolTable symbols;
+
+        private Bucket(long slice, double error, SymbolTable symbols) {
+            this.slice = slice;
+            this.symbols = symbols;
+            sketch = new CountMinSketch(error, FAILURE_PROBABILITY);
+            topTags = new SpaceSaving((int) Math.ceil(1 / error));
+        }
+
+        // the symbol is referenced by the content being added, so it can be acquired
+        private void add(int symbol) {
+            sketch.add(symbol);
+            if (!topTags.isMonitored(symbol)) {
+                symbols.acquire(symbol);
+            }
+
+            int evictedSymbol = topTags.add(symbol);
+            if (evictedSymbol != SpaceSaving.NO_KEY) {
+                symbols.release(evictedSymbol);
+            }
+        }
+
+        private void reset(long newSlice) {
+            for (int counter = 0; counter < topTags.size(); ++counter) {
+                symbols.release(topTags.keyAt(counter));
+            }
+
+            slice = newSlice;
+            sketch.clear();
+            topTags.clear();
+        }
+    }
+
+    private static final class TagCount {
+        private final int symbol;
+        private final long count;
+
+        private TagCount(int symbol, long count) {
+            this.symbol = symbol;
+            this.count = count;
+        }
+    }
+
+    private static final class MostUsedFirstComparator implements Comparator<TagCount> {
+        @Override
+        public int compare(TagCount first, TagCount second) {
+            return Long.compare(second.count, first.count);
+        }
+    }
+}
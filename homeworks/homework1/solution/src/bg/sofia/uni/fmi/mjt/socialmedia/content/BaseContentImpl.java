@@ -1,32 +1,93 @@
 package bg.sofia.uni.fmi.mjt.socialmedia.content;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 public abstract class BaseContentImpl implements BaseContent {
 
     private int expirationDays;
-    private static int numberOfContents = 0;
-    private int numberOfLikes;
-    private int numberOfComments;
+    private static final AtomicInteger NUMBER_OF_CONTENTS = new AtomicInteger();
+    private static final int[] NO_SYMBOLS = new int[0];
+    private static final String[] NO_RESOLVED_SYMBOLS = new String[0];
+    private final LongAdder numberOfLikes = new LongAdder();
+    private final LongAdder numberOfComments = new LongAdder();
     private String author;
     private String string;
-    private List<String> tags = null;
-    private List<String> mentions = null;
+    private final SymbolTable symbols;
+    private int[] tags;
+    private int[] mentions;
+    // guarded by this - the tags and mentions once their symbols are released, null before that
+    private String[] releasedTags;
+    private String[] releasedMentions;
     private String id;
+    private int contentNumber;
     private LocalDateTime publishedOn;
+    private LocalDateTime expiresOn;
 
     public BaseContentImpl(String author, String description) {
+        this.symbols = new SymbolTable();
         setAuthor(author);
         setDescription(description);
 
-        numberOfContents++;
+        generateTagsAndMentions(description);
+        generateId(NUMBER_OF_CONTENTS.incrementAndGet());
+    }
+
+    /**
+     * Creates content published on {@code publishedOn} whose tags and mentions are interned in {@code symbols},
+     * e.g. the table of its platform. The arguments are validated before interning, so content which cannot be
+     * created does not reference any symbols.
+     */
+    public BaseContentImpl(String author, LocalDateTime publishedOn, String description, SymbolTable symbols) {
+        this.symbols = symbols;
+        setAuthor(author);
+        setDescription(description);
+        setPublishedOn(publishedOn);
+
+        generateTagsAndMentions(description);
+        generateId(NUMBER_OF_CONTENTS.incrementAndGet());
+    }
 
-        generateMentions(description);
-        generateTags(description);
-        generateId();
+    /**
+     * Creates content with an already generated number, e.g. restored from persisted state.
+     * Content created afterwards gets greater numbers.
+     */
+    public BaseContentImpl(String author, String description, int contentNumber) {
+        if (contentNumber <= 0) {
+            throw new IllegalArgumentException("contentNumber must be positive");
+        }
+
+        this.symbols = new SymbolTable();
+        setAuthor(author);
+        setDescription(description);
+
+        generateTagsAndMentions(description);
+        reserveContentNumbers(contentNumber);
+        generateId(contentNumber);
+    }
+
+    /**
+     * Creates content with an already generated number as {@link #BaseContentImpl(String, LocalDateTime, String,
+     * SymbolTable)} does.
+     */
+    public BaseContentImpl(String author, LocalDateTime publishedOn, String description, int contentNumber,
+                           SymbolTable symbols) {
+        if (contentNumber <= 0) {
+            throw new IllegalArgumentException("contentNumber must be positive");
+        }
+
+        this.symbols = symbols;
+        setAuthor(author);
+        setDescription(description);
+        setPublishedOn(publishedOn);
+
+        generateTagsAndMentions(description);
+        reserveContentNumbers(contentNumber);
+        generateId(contentNumber);
     }
 
     @Override
@@ -35,7 +96,7 @@ public abstract class BaseContentImpl implements BaseContent {
             throw new IllegalArgumentException("likedFromUsername must not be null");
         }
 
-        numberOfLikes++;
+        numberOfLikes.increment();
     }
 
     @Override
@@ -44,12 +105,12 @@ public abstract class BaseContentImpl implements BaseContent {
             throw new IllegalArgumentException("addComment takes non-null arguments");
         }
 
-        numberOfComments++;
+        numberOfComments.increment();
     }
 
     @Override
     public boolean isExpired() {
-        return LocalDateTime.now().minusDays(expirationDays).isAfter(publishedOn);
+        return LocalDateTime.now().isAfter(expiresOn);
     }
 
     @Override
@@ -59,6 +120,7 @@ public abstract class BaseContentImpl implements BaseContent {
         }
 
         this.publishedOn = publishedOn;
+        this.expiresOn = publishedOn.plusDays(expirationDays);
     }
 
     @Override
@@ -79,19 +141,36 @@ public abstract class BaseContentImpl implements BaseContent {
         this.string = description;
     }
 
+    /**
+     * Sets the likes and comments of content restored from persisted state.
+     */
+    public void restoreEngagement(int likes, int comments) {
+        if (likes < 0 || comments < 0) {
+            throw new IllegalArgumentException("likes and comments must be non-negative");
+        }
+
+        numberOfLikes.reset();
+        numberOfLikes.add(likes);
+        numberOfComments.reset();
+        numberOfComments.add(comments);
+    }
+
     protected void setExpirationDays(int days) {
         this.expirationDays = days;
+        if (publishedOn != null) {
+            this.expiresOn = publishedOn.plusDays(days);
+        }
     }
 
 
     @Override
     public int getNumberOfLikes() {
-        return numberOfLikes;
+        return numberOfLikes.intValue();
     }
 
     @Override
     public int getNumberOfComments() {
-        return numberOfComments;
+        return numberOfComments.intValue();
     }
 
     @Override
@@ -100,13 +179,45 @@ public abstract class BaseContentImpl implements BaseContent {
     }
 
     @Override
-    public Collection<String> getTags() {
-        return tags;
+    public synchronized Collection<String> getTags() {
+        return Collections.unmodifiableList(Arrays.asList(releasedTags != null ? releasedTags : resolve(tags)));
     }
 
     @Override
-    public Collection<String> getMentions() {
-        return mentions;
+    public synchronized Collection<String> getMentions() {
+        return Collections.unmodifiableList(
+            Arrays.asList(releasedMentions != null ? releasedMentions : resolve(mentions)));
+    }
+
+    public int getNumberOfTags() {
+        return tags.length;
+    }
+
+    /**
+     * Returns the symbol id of the {@code index}-th tag in the table of the content. It is the same for equal tags
+     * of all contents in the table until the content releases its symbols.
+     */
+    public int getTagSymbol(int index) {
+        return tags[index];
+    }
+
+    /**
+     * Drops the references of the content to the symbols of its tags and mentions, e.g. once it expires, so the
+     * table can drop the symbols no other content uses. The tags and mentions are still returned afterwards.
+     */
+    public synchronized void releaseSymbols() {
+        if (releasedTags != null) {
+            return;
+        }
+
+        releasedTags = resolve(tags);
+        releasedMentions = resolve(mentions);
+        for (int symbol : tags) {
+            symbols.release(symbol);
+        }
+        for (int symbol : mentions) {
+            symbols.release(symbol);
+        }
     }
 
     public String getAuthor() {
@@ -121,41 +232,83 @@ public abstract class BaseContentImpl implements BaseContent {
         return publishedOn;
     }
 
+    /**
+     * The content is expired from the moment after this one on.
+     */
+    public LocalDateTime getExpiresOn() {
+        return expiresOn;
+    }
+
+    public int getContentNumber() {
+        return contentNumber;
+    }
+
     public static int getNumberOfContents() {
-        return numberOfContents;
+        return NUMBER_OF_CONTENTS.get();
+    }
+
+    /**
+     * Makes the content created afterwards get numbers greater than {@code contentNumber}.
+     */
+    public static void reserveContentNumbers(int contentNumber) {
+        int numberOfContents = NUMBER_OF_CONTENTS.get();
+        while (numberOfContents < contentNumber && !NUMBER_OF_CONTENTS.compareAndSet(numberOfContents, contentNumber)) {
+            numberOfContents = NUMBER_OF_CONTENTS.get();
+        }
     }
 
-    private Collection<String> getSubstringsStartingWith(String substringStartChar, String string) {
-        string = " " + string + " ";
-        List<String> resultSubstrings = new ArrayList<>();
-        String[] splitString;
-        splitString = string.split(" ");
-        for (String str : splitString) {
-            if (str.startsWith(substringStartChar)) {
-                resultSubstrings.add(str);
+    // the tags and mentions are the words starting with '#' and '@' - words are separated by single spaces
+    private void generateTagsAndMentions(String description) {
+        int[] foundTags = NO_SYMBOLS;
+        int numberOfTags = 0;
+        int[] foundMentions = NO_SYMBOLS;
+        int numberOfMentions = 0;
+
+        int length = description.length();
+        int wordStart = 0;
+        while (wordStart < length) {
+            int wordEnd = description.indexOf(' ', wordStart);
+            if (wordEnd < 0) {
+                wordEnd = length;
             }
+
+            char firstChar = wordEnd > wordStart ? description.charAt(wordStart) : ' ';
+            if (firstChar == '#') {
+                foundTags = ensureCapacity(foundTags, numberOfTags);
+                foundTags[numberOfTags++] = symbols.intern(description.substring(wordStart, wordEnd));
+            } else if (firstChar == '@') {
+                foundMentions = ensureCapacity(foundMentions, numberOfMentions);
+                foundMentions[numberOfMentions++] = symbols.intern(description.substring(wordStart, wordEnd));
+            }
+
+            wordStart = wordEnd + 1;
         }
 
-        return resultSubstrings;
+        this.tags = numberOfTags == 0 ? NO_SYMBOLS : Arrays.copyOf(foundTags, numberOfTags);
+        this.mentions = numberOfMentions == 0 ? NO_SYMBOLS : Arrays.copyOf(foundMentions, numberOfMentions);
     }
 
-    private void generateTags(String description) {
-        if (this.tags == null) {
-            this.tags = new ArrayList<>();
+    private static int[] ensureCapacity(int[] symbols, int size) {
+        if (size < symbols.length) {
+            return symbols;
         }
-
-        this.tags = (List<String>) getSubstringsStartingWith("#", description);
+        return Arrays.copyOf(symbols, Math.max(2 * size, 4));
     }
 
-    private void generateMentions(String description) {
-        if (this.mentions == null) {
-            this.mentions = new ArrayList<>();
+    private String[] resolve(int[] symbolIds) {
+        if (symbolIds.length == 0) {
+            return NO_RESOLVED_SYMBOLS;
         }
 
-        this.mentions = (List<String>) getSubstringsStartingWith("@", description);
+        String[] resolved = new String[symbolIds.length];
+        for (int i = 0; i < symbolIds.length; ++i) {
+            resolved[i] = symbols.symbolOf(symbolIds[i]);
+        }
+        return resolved;
     }
 
-    private void generateId() {
-        this.id = getAuthor() + "-" + getNumberOfContents();
+    private void generateId(int contentNumber) {
+        this.contentNumber = contentNumber;
+        this.id = getAuthor() + "-" + contentNumber;
     }
 }
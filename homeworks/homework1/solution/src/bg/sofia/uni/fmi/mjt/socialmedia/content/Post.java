@@ -9,4 +9,21 @@ public class Post extends BaseContentImpl {
         setExpirationDays(30);
         setPublishedOn(publishedOn);
     }
+
+    public Post(String author, LocalDateTime publishedOn, String description, int contentNumber) {
+        super(author, description, contentNumber);
+        setExpirationDays(30);
+        setPublishedOn(publishedOn);
+    }
+
+    public Post(String author, LocalDateTime publishedOn, String description, SymbolTable symbols) {
+        super(author, publishedOn, description, symbols);
+        setExpirationDays(30);
+    }
+
+    public Post(String author, LocalDateTime publishedOn, String description, int contentNumber,
+                SymbolTable symbols) {
+        super(author, publishedOn, description, contentNumber, symbols);
+        setExpirationDays(30);
+    }
 }
@@ -9,4 +9,21 @@ public class Story extends BaseContentImpl {
         setExpirationDays(1);
         setPublishedOn(publishedOn);
     }
+
+    public Story(String author, LocalDateTime publishedOn, String description, int contentNumber) {
+        super(author, description, contentNumber);
+        setExpirationDays(1);
+        setPublishedOn(publishedOn);
+    }
+
+    public Story(String author, LocalDateTime publishedOn, String description, SymbolTable symbols) {
+        super(author, publishedOn, description, symbols);
+        setExpirationDays(1);
+    }
+
+    public Story(String author, LocalDateTime publishedOn, String description, int contentNumber,
+                 SymbolTable symbols) {
+        super(author, publishedOn, description, contentNumber, symbols);
+        setExpirationDays(1);
+    }
 }
\ No newline at end of file
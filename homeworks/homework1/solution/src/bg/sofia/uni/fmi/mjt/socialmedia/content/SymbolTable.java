@@ -0,0 +1,123 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.content;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class SymbolTable {
+    //Interned tags and mentions of a platform - every distinct symbol is kept once and content refers to it by its
+    //int id. Every id is counted as referenced once per intern or acquire and the symbol is dropped when all its
+    //references are released, so the ids of dropped symbols are reused and the table does not outgrow the symbols
+    //in use. Thread-safe: referencing a symbol in use takes no lock, only adding or dropping one does.
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ConcurrentMap<String, Entry> entries;
+    private volatile Entry[] entryOfId;
+    private int nextId;
+
+    // ids of dropped symbols, reused before new ones are taken
+    private int[] freeIds;
+    private int numberOfFreeIds;
+
+    public SymbolTable() {
+        entries = new ConcurrentHashMap<>();
+        entryOfId = new Entry[INITIAL_CAPACITY];
+        freeIds = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the id of {@code symbol}, adding it to the table if it is not there yet, and references it once.
+     */
+    int intern(String symbol) {
+        Entry entry = entries.get(symbol);
+        if (entry != null && entry.tryAcquire()) {
+            return entry.id;
+        }
+
+        synchronized (this) {
+            entry = entries.get(symbol);
+            if (entry != null && entry.tryAcquire()) {
+                return entry.id;
+            }
+
+            // the entry found is released to 0 and is about to be removed by the releasing thread
+            int id = numberOfFreeIds > 0 ? freeIds[--numberOfFreeIds] : nextId++;
+            if (id == entryOfId.length) {
+                entryOfId = Arrays.copyOf(entryOfId, id * 2);
+            }
+            // the symbol is stored before its id is published, so whoever gets the id can read it
+            Entry newEntry = new Entry(id, symbol);
+            entryOfId[id] = newEntry;
+            entries.put(symbol, newEntry);
+            return id;
+        }
+    }
+
+    /**
+     * References the symbol of {@code id} once more. The symbol must be referenced already.
+     */
+    public void acquire(int id) {
+        if (!entryOfId[id].tryAcquire()) {
+            throw new IllegalStateException("symbol " + id + " is not referenced");
+        }
+    }
+
+    /**
+     * Drops a reference to the symbol of {@code id}, dropping the symbol with its last reference.
+     */
+    public void release(int id) {
+        Entry entry = entryOfId[id];
+        if (entry.references.decrementAndGet() > 0) {
+            return;
+        }
+
+        synchronized (this) {
+            entries.remove(entry.symbol, entry);
+            entryOfId[id] = null;
+            if (numberOfFreeIds == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, numberOfFreeIds * 2);
+            }
+            freeIds[numberOfFreeIds++] = id;
+        }
+    }
+
+    /**
+     * Returns the symbol of {@code id}, which must be referenced.
+     */
+    public String symbolOf(int id) {
+        return entryOfId[id].symbol;
+    }
+
+    /**
+     * Returns the number of symbols referenced.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final int id;
+        private final String symbol;
+        private final AtomicInteger references;
+
+        private Entry(int id, String symbol) {
+            this.id = id;
+            this.symbol = symbol;
+            this.references = new AtomicInteger(1);
+        }
+
+        // fails once the references are released to 0, the entry is dropped then and cannot be revived
+        private boolean tryAcquire() {
+            int count = references.get();
+            while (count > 0) {
+                if (references.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+                count = references.get();
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+public final class BinaryCodec {
+    //Encoding of the values in the journal and the snapshots - strings are length-prefixed UTF-8,
+    //so unlike DataOutput#writeUTF they are not limited to 64KB, and times are epoch second and nano.
+
+    private static final int NULL_LENGTH = -1;
+
+    private BinaryCodec() {
+    }
+
+    public static void writeString(DataOutput output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(NULL_LENGTH);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    public static String readString(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("corrupted string length " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeTime(DataOutput output, LocalDateTime time) throws IOException {
+        output.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        output.writeInt(time.getNano());
+    }
+
+    public static LocalDateTime readTime(DataInput input) throws IOException {
+        long epochSecond = input.readLong();
+        int nano = input.readInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+}
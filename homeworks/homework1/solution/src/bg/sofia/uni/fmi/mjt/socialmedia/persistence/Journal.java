@@ -0,0 +1,309 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.zip.CRC32;
+
+public final class Journal implements JournalListener, Closeable {
+    //Append-only binary journal of changes. Every record is [payload length][CRC32 of the payload][payload],
+    //the payload starting with the sequence number and the type of the record.
+    //Records are written and fsynced in groups (group commit), so a crash loses at most the last group.
+    //A torn or corrupted tail left by a crash is cut off when the journal is opened.
+
+    private static final byte REGISTER = 0;
+    private static final byte PUBLISH_POST = 1;
+    private static final byte PUBLISH_STORY = 2;
+    private static final byte LIKE = 3;
+    private static final byte COMMENT = 4;
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int MIN_PAYLOAD_BYTES = Long.BYTES + Byte.BYTES;
+    private static final int MAX_PAYLOAD_BYTES = 64 * 1024 * 1024;
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final int groupCommitSize;
+
+    private final ByteArrayOutputStream payloadBytes;
+    private final DataOutputStream payload;
+    private final CRC32 checksum;
+
+    // records not written yet
+    private ByteBuffer pending;
+    private int pendingRecords;
+    private long lastSequence;
+
+    private Journal(FileChannel channel, int groupCommitSize, long lastSequence) {
+        this.channel = channel;
+        this.groupCommitSize = groupCommitSize;
+        this.lastSequence = lastSequence;
+        payloadBytes = new ByteArrayOutputStream();
+        payload = new DataOutputStream(payloadBytes);
+        checksum = new CRC32();
+        pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    }
+
+    /**
+     * Opens (or creates) the journal in {@code file} for appending, first replaying into {@code listener}
+     * the records with sequence numbers greater than {@code afterSequence}.
+     * The records appended afterwards are numbered after both {@code afterSequence} and the replayed ones.
+     * @param groupCommitSize The number of records written and fsynced together
+     */
+    public static Journal open(Path file, int groupCommitSize, long afterSequence, JournalListener listener) {
+        if (file == null || listener == null) {
+            throw new IllegalArgumentException("file and listener must not be null");
+        }
+        if (groupCommitSize <= 0) {
+            throw new IllegalArgumentException("groupCommitSize must be positive");
+        }
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            Journal journal = new Journal(channel, groupCommitSize, afterSequence);
+            long validBytes = journal.replay(afterSequence, listener);
+            channel.truncate(validBytes);
+            channel.position(validBytes);
+            return journal;
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new RuntimeException("opening journal failed due to: " + e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public void onRegister(String username) {
+        try {
+            beginRecord(REGISTER);
+            BinaryCodec.writeString(payload, username);
+            endRecord();
+        } catch (IOException e) {
+            throw new RuntimeException("journaling failed due to: " + e);
+        }
+    }
+
+    @Override
+    public void onPublishPost(String username, LocalDateTime publishedOn, String description, int contentNumber) {
+        appendPublish(PUBLISH_POST, username, publishedOn, description, contentNumber);
+    }
+
+    @Override
+    public void onPublishStory(String username, LocalDateTime publishedOn, String description, int contentNumber) {
+        appendPublish(PUBLISH_STORY, username, publishedOn, description, contentNumber);
+    }
+
+    @Override
+    public void onLike(String username, String id, LocalDateTime time) {
+        try {
+            beginRecord(LIKE);
+            BinaryCodec.writeString(payload, username);
+            BinaryCodec.writeString(payload, id);
+            BinaryCodec.writeTime(payload, time);
+            endRecord();
+        } catch (IOException e) {
+            throw new RuntimeException("journaling failed due to: " + e);
+        }
+    }
+
+    @Override
+    public void onComment(String username, String text, String id, LocalDateTime time) {
+        try {
+            beginRecord(COMMENT);
+            BinaryCodec.writeString(payload, username);
+            BinaryCodec.writeString(payload, text);
+            BinaryCodec.writeString(payload, id);
+            BinaryCodec.writeTime(payload, time);
+            endRecord();
+        } catch (IOException e) {
+            throw new RuntimeException("journaling failed due to: " + e);
+        }
+    }
+
+    /**
+     * Writes and fsyncs the records appended since the last group commit.
+     */
+    public void flush() {
+        try {
+            commit();
+        } catch (IOException e) {
+            throw new RuntimeException("journaling failed due to: " + e);
+        }
+    }
+
+    /**
+     * Drops all records, e.g. after a snapshot containing them is written. The sequence numbers continue.
+     */
+    public void reset() {
+        pending.clear();
+        pendingRecords = 0;
+        try {
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new RuntimeException("resetting journal failed due to: " + e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            commit();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void appendPublish(byte type, String username, LocalDateTime publishedOn, String description,
+                               int contentNumber) {
+        try {
+            beginRecord(type);
+            BinaryCodec.writeString(payload, username);
+            BinaryCodec.writeTime(payload, publishedOn);
+            BinaryCodec.writeString(payload, description);
+            payload.writeInt(contentNumber);
+            endRecord();
+        } catch (IOException e) {
+            throw new RuntimeException("journaling failed due to: " + e);
+        }
+    }
+
+    private void beginRecord(byte type) throws IOException {
+        payloadBytes.reset();
+        payload.writeLong(lastSequence + 1);
+        payload.writeByte(type);
+    }
+
+    private void endRecord() throws IOException {
+        byte[] bytes = payloadBytes.toByteArray();
+        checksum.reset();
+        checksum.update(bytes);
+
+        if (pending.remaining() < HEADER_BYTES + bytes.length) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(2 * pending.capacity(),
+                pending.position() + HEADER_BYTES + bytes.length));
+            pending.flip();
+            bigger.put(pending);
+            pending = bigger;
+        }
+        pending.putInt(bytes.length).putInt((int) checksum.getValue()).put(bytes);
+        ++lastSequence;
+
+        if (++pendingRecords >= groupCommitSize) {
+            commit();
+        }
+    }
+
+    private void commit() throws IOException {
+        if (pendingRecords == 0) {
+            return;
+        }
+
+        pending.flip();
+        while (pending.hasRemaining()) {
+            channel.write(pending);
+        }
+        channel.force(false);
+        pending.clear();
+        pendingRecords = 0;
+    }
+
+    // returns the number of bytes of the valid records
+    private long replay(long afterSequence, JournalListener listener) throws IOException {
+        channel.position(0);
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+
+        long validBytes = 0;
+        while (true) {
+            byte[] bytes = readRecord(input);
+            if (bytes == null) {
+                return validBytes;
+            }
+
+            DataInputStream record = new DataInputStream(new ByteArrayInputStream(bytes));
+            long sequence = record.readLong();
+            byte type = record.readByte();
+            if (sequence > afterSequence) {
+                dispatch(type, record, listener);
+                lastSequence = sequence;
+            }
+            validBytes += HEADER_BYTES + bytes.length;
+        }
+    }
+
+    // returns null at the end of the journal or at a torn or corrupted record
+    private byte[] readRecord(DataInputStream input) throws IOException {
+        try {
+            int length = input.readInt();
+            int expectedChecksum = input.readInt();
+            if (length < MIN_PAYLOAD_BYTES || length > MAX_PAYLOAD_BYTES) {
+                return null;
+            }
+
+            byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            checksum.reset();
+            checksum.update(bytes);
+            return (int) checksum.getValue() == expectedChecksum ? bytes : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static void dispatch(byte type, DataInputStream record, JournalListener listener) throws IOException {
+        switch (type) {
+            case REGISTER:
+                listener.onRegister(BinaryCodec.readString(record));
+                break;
+            case PUBLISH_POST:
+                listener.onPublishPost(BinaryCodec.readString(record), BinaryCodec.readTime(record),
+                    BinaryCodec.readString(record), record.readInt());
+                break;
+            case PUBLISH_STORY:
+                listener.onPublishStory(BinaryCodec.readString(record), BinaryCodec.readTime(record),
+                    BinaryCodec.readString(record), record.readInt());
+                break;
+            case LIKE:
+                listener.onLike(BinaryCodec.readString(record), BinaryCodec.readString(record),
+                    BinaryCodec.readTime(record));
+                break;
+            case COMMENT:
+                listener.onComment(BinaryCodec.readString(record), BinaryCodec.readString(record),
+                    BinaryCodec.readString(record), BinaryCodec.readTime(record));
+                break;
+            default:
+                throw new IOException("unknown journal record type " + type);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // the original failure is reported
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.persistence;
+
+import java.time.LocalDateTime;
+
+public interface JournalListener {
+    //The changes of a SocialMediaInator which are journaled - called after a change succeeds,
+    //with everything needed to repeat it exactly, and for every record when the journal is replayed.
+
+    void onRegister(String username);
+
+    void onPublishPost(String username, LocalDateTime publishedOn, String description, int contentNumber);
+
+    void onPublishStory(String username, LocalDateTime publishedOn, String description, int contentNumber);
+
+    void onLike(String username, String id, LocalDateTime time);
+
+    void onComment(String username, String text, String id, LocalDateTime time);
+}
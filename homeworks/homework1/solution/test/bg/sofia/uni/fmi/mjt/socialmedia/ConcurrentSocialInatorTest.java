@@ -0,0 +1,178 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Content;
+import bg.sofia.uni.fmi.mjt.socialmedia.exceptions.ContentNotFoundException;
+import bg.sofia.uni.fmi.mjt.socialmedia.exceptions.UsernameAlreadyExistsException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentSocialInatorTest {
+
+    private static final String USERNAME = "gabi";
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 5_000;
+
+    private SocialMediaInator media;
+
+    @Before
+    public void setup() {
+        media = new ConcurrentSocialInator();
+        media.register(USERNAME);
+    }
+
+    @Test
+    public void testConcurrentLikesAndCommentsAreAllCounted() throws Exception {
+        String popular = media.publishPost(USERNAME, LocalDateTime.now(), "#cat");
+        String other = media.publishStory(USERNAME, LocalDateTime.now(), "#cat");
+        for (int i = 0; i < THREADS; ++i) {
+            media.register("user" + i);
+        }
+
+        runConcurrently(new Task() {
+            @Override
+            public void run(int thread, int operation) {
+                String username = "user" + thread;
+                media.like(username, popular);
+                media.comment(username, "nice", operation % 2 == 0 ? popular : other);
+            }
+        });
+
+        List<Content> mostPopular = new ArrayList<>(media.getNMostPopularContent(2));
+        int operations = THREADS * OPERATIONS_PER_THREAD;
+        assertEquals(popular, mostPopular.get(0).getId());
+        assertEquals(operations, mostPopular.get(0).getNumberOfLikes());
+        assertEquals(operations / 2, mostPopular.get(0).getNumberOfComments());
+        assertEquals(operations / 2, mostPopular.get(1).getNumberOfComments());
+        for (int i = 0; i < THREADS; ++i) {
+            assertEquals(2 * OPERATIONS_PER_THREAD, media.getActivityLog("user" + i).size());
+        }
+    }
+
+    @Test
+    public void testConcurrentPublishesGetDistinctIds() throws Exception {
+        Set<String> ids = Collections.synchronizedSet(new HashSet<>());
+
+        runConcurrently(new Task() {
+            @Override
+            public void run(int thread, int operation) {
+                ids.add(media.publishPost(USERNAME, LocalDateTime.now(), "#cat @gabi"));
+            }
+        });
+
+        int operations = THREADS * OPERATIONS_PER_THREAD;
+        assertEquals(operations, ids.size());
+        assertEquals(operations, media.findContentByTag("#cat").size());
+        assertEquals(operations, media.getNMostRecentContent(USERNAME, operations + 1).size());
+        assertEquals(operations, media.getActivityLog(USERNAME).size());
+    }
+
+    @Test
+    public void testConcurrentRegistrationsOfTheSameUserAcceptOnlyOne() throws Exception {
+        Set<Integer> registered = Collections.synchronizedSet(new HashSet<>());
+
+        runConcurrently(new Task() {
+            @Override
+            public void run(int thread, int operation) {
+                try {
+                    media.register("user" + operation);
+                    registered.add(operation);
+                } catch (UsernameAlreadyExistsException e) {
+                    // registered by another thread
+                }
+            }
+        });
+
+        assertEquals(OPERATIONS_PER_THREAD, registered.size());
+        assertEquals(USERNAME, media.getMostPopularUser());
+    }
+
+    @Test
+    public void testQueriesSkipExpiredContent() {
+        media.register("@moni");
+        LocalDateTime now = LocalDateTime.now();
+        String post = media.publishPost(USERNAME, now.minusDays(1), "#cat @moni");
+        media.publishStory(USERNAME, now.minusDays(2), "#cat @moni @moni");
+        media.like(USERNAME, post);
+
+        assertEquals(Set.of(post), idsOf(media.findContentByTag("#cat")));
+        assertEquals(Set.of(post), idsOf(media.getNMostPopularContent(10)));
+        assertEquals(Set.of(post), idsOf(media.getNMostRecentContent(USERNAME, 10)));
+        assertEquals("@moni", media.getMostPopularUser());
+    }
+
+    @Test(expected = ContentNotFoundException.class)
+    public void testLikeExpiredContent() {
+        String story = media.publishStory(USERNAME, LocalDateTime.now().minusDays(2), "hi");
+
+        media.like(USERNAME, story);
+    }
+
+    @Test
+    public void testGetNMostRecentContentIsNewestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        String oldest = media.publishPost(USERNAME, now.minusHours(2), "first");
+        String newest = media.publishPost(USERNAME, now, "third");
+        String middle = media.publishPost(USERNAME, now.minusHours(1), "second");
+
+        List<String> ids = new ArrayList<>();
+        for (Content content : media.getNMostRecentContent(USERNAME, 3)) {
+            ids.add(content.getId());
+        }
+        assertEquals(List.of(newest, middle, oldest), ids);
+    }
+
+    private void runConcurrently(Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; ++i) {
+            int thread = i;
+            results.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    for (int operation = 0; operation < OPERATIONS_PER_THREAD; ++operation) {
+                        task.run(thread, operation);
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        start.countDown();
+        for (Future<Void> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    }
+
+    private interface Task {
+        void run(int thread, int operation);
+    }
+
+    private static Set<String> idsOf(Collection<Content> contents) {
+        Set<String> ids = new HashSet<>();
+        for (Content content : contents) {
+            ids.add(content.getId());
+        }
+        return ids;
+    }
+}
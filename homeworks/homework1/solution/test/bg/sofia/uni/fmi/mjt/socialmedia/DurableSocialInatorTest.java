@@ -0,0 +1,156 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Content;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DurableSocialInatorTest {
+
+    private static final String[] USERNAMES = {"gabi", "@moni", "desi"};
+    private static final int GROUP_COMMIT_SIZE = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testStateIsRecoveredFromTheJournal() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        List<String> state;
+        try (DurableSocialInator media = open(directory, 1_000)) {
+            generateActivity(media);
+            state = stateOf(media);
+        }
+
+        try (DurableSocialInator media = open(directory, 1_000)) {
+            assertEquals(state, stateOf(media));
+        }
+    }
+
+    @Test
+    public void testStateIsRecoveredFromTheSnapshotAndTheJournalTail() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        List<String> state;
+        try (DurableSocialInator media = open(directory, 7)) {
+            generateActivity(media);
+            state = stateOf(media);
+        }
+        assertTrue(Files.exists(directory.resolve("snapshot.bin")));
+
+        try (DurableSocialInator media = open(directory, 7)) {
+            assertEquals(state, stateOf(media));
+
+            media.snapshot();
+            String id = media.publishPost("desi", LocalDateTime.now(), "after #snapshot");
+            media.like("gabi", id);
+            state = stateOf(media);
+        }
+
+        try (DurableSocialInator media = open(directory, 7)) {
+            assertEquals(state, stateOf(media));
+        }
+    }
+
+    @Test
+    public void testTornJournalTailIsCutOff() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        List<String> state;
+        try (DurableSocialInator media = open(directory, 1_000)) {
+            generateActivity(media);
+            state = stateOf(media);
+        }
+        Files.write(directory.resolve("journal.bin"), new byte[] {0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        String id;
+        try (DurableSocialInator media = open(directory, 1_000)) {
+            assertEquals(state, stateOf(media));
+
+            id = media.publishStory("gabi", LocalDateTime.now(), "after #crash");
+            state = stateOf(media);
+        }
+
+        try (DurableSocialInator media = open(directory, 1_000)) {
+            assertEquals(state, stateOf(media));
+            assertEquals(id, media.findContentByTag("#crash").iterator().next().getId());
+        }
+    }
+
+    @Test
+    public void testFlushedChangesAreRecoveredWithoutClosing() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (DurableSocialInator media = open(directory, 1_000)) {
+            media.register("gabi");
+            media.flush();
+
+            try (DurableSocialInator recovered = open(directory, 1_000)) {
+                assertEquals("gabi", recovered.getMostPopularUser());
+            }
+        }
+    }
+
+    private static DurableSocialInator open(Path directory, int snapshotInterval) {
+        return new DurableSocialInator(directory, GROUP_COMMIT_SIZE, snapshotInterval, 100);
+    }
+
+    private static void generateActivity(SocialMediaInator media) {
+        for (String username : USERNAMES) {
+            media.register(username);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            String author = USERNAMES[i % USERNAMES.length];
+            String description = "content " + i + " #tag" + (i % 3) + " @moni";
+            ids.add(i % 2 == 0
+                ? media.publishPost(author, now.minusDays(i * 4), description)
+                : media.publishStory(author, now.minusHours(i * 4), description));
+        }
+
+        for (int i = 0; i < 30; ++i) {
+            String id = ids.get(i * 7 % 5);
+            if (i % 3 == 0) {
+                media.comment(USERNAMES[i % USERNAMES.length], "comment " + i, id);
+            } else {
+                media.like(USERNAMES[i % USERNAMES.length], id);
+            }
+        }
+    }
+
+    private static List<String> stateOf(SocialMediaInator media) {
+        List<String> state = new ArrayList<>();
+        for (String username : USERNAMES) {
+            state.addAll(media.getActivityLog(username));
+            state.add(describe(media.getNMostRecentContent(username, 100)));
+        }
+        state.add(describe(media.getNMostPopularContent(100)));
+        for (int i = 0; i < 3; ++i) {
+            state.add(describe(media.findContentByTag("#tag" + i)));
+        }
+        state.add(media.getMostPopularUser());
+
+        return state;
+    }
+
+    private static String describe(Iterable<Content> contents) {
+        StringBuilder description = new StringBuilder();
+        for (Content content : contents) {
+            description.append(content.getId()).append(' ')
+                .append(content.getNumberOfLikes()).append(' ')
+                .append(content.getNumberOfComments()).append(' ')
+                .append(content.getTags()).append(content.getMentions()).append(';');
+        }
+        return description.toString();
+    }
+}
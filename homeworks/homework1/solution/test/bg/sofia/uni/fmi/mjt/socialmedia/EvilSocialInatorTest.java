@@ -0,0 +1,363 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Content;
+import bg.sofia.uni.fmi.mjt.socialmedia.exceptions.ContentNotFoundException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EvilSocialInatorTest {
+
+    private static final String USERNAME = "gabi";
+    private static final String MENTIONED_USERNAME_1 = "@moni";
+    private static final String MENTIONED_USERNAME_2 = "@desi";
+
+    private SocialMediaInator media;
+
+    @Before
+    public void setup() {
+        media = new EvilSocialInator();
+        media.register(USERNAME);
+    }
+
+    @Test
+    public void testFindContentByTagSkipsExpiredContent() {
+        LocalDateTime now = LocalDateTime.now();
+        String post = media.publishPost(USERNAME, now.minusDays(2), "#cat #dog");
+        media.publishStory(USERNAME, now.minusDays(2), "#cat");
+        String story = media.publishStory(USERNAME, now, "#cat #cat");
+
+        assertEquals(Set.of(post, story), idsOf(media.findContentByTag("#cat")));
+        assertEquals(Set.of(post), idsOf(media.findContentByTag("#dog")));
+        assertTrue(media.findContentByTag("#bird").isEmpty());
+    }
+
+    @Test
+    public void testGetMostPopularUserCountsOnlyRegisteredUsersInNotExpiredContent() {
+        media.register(MENTIONED_USERNAME_1);
+        LocalDateTime now = LocalDateTime.now();
+        media.publishPost(USERNAME, now, "hi @moni @unknown @unknown");
+        media.publishStory(USERNAME, now.minusDays(2), "hi @desi @desi");
+        media.register(MENTIONED_USERNAME_2);
+
+        assertEquals(MENTIONED_USERNAME_1, media.getMostPopularUser());
+
+        media.publishStory(USERNAME, now, "hi @desi @desi");
+
+        assertEquals(MENTIONED_USERNAME_2, media.getMostPopularUser());
+    }
+
+    @Test
+    public void testGetMostPopularUserWithoutMentionsReturnsTheFirstUser() {
+        media.register(MENTIONED_USERNAME_1);
+        media.publishPost(MENTIONED_USERNAME_1, LocalDateTime.now(), "hi @gabi");
+
+        assertEquals(USERNAME, media.getMostPopularUser());
+    }
+
+    @Test
+    public void testGetNMostPopularContentFollowsLikesAndComments() {
+        LocalDateTime now = LocalDateTime.now();
+        String first = media.publishPost(USERNAME, now, "first");
+        String second = media.publishPost(USERNAME, now, "second");
+        String third = media.publishStory(USERNAME, now, "third");
+        media.publishStory(USERNAME, now.minusDays(2), "expired");
+
+        media.like(USERNAME, second);
+        media.comment(USERNAME, "nice", third);
+        media.comment(USERNAME, "nice", third);
+
+        assertEquals(List.of(third, second), idsInOrderOf(media.getNMostPopularContent(2)));
+        assertEquals(List.of(third, second, first), idsInOrderOf(media.getNMostPopularContent(10)));
+
+        media.like(USERNAME, first);
+        media.like(USERNAME, first);
+        media.like(USERNAME, first);
+
+        assertEquals(List.of(first, third, second), idsInOrderOf(media.getNMostPopularContent(10)));
+        assertTrue(media.getNMostPopularContent(0).isEmpty());
+    }
+
+    @Test
+    public void testLikeFindsContentById() {
+        String id = media.publishPost(USERNAME, LocalDateTime.now(), "hi");
+        media.like(USERNAME, id);
+
+        assertEquals(1, media.getNMostRecentContent(USERNAME, 1).iterator().next().getNumberOfLikes());
+    }
+
+    @Test(expected = ContentNotFoundException.class)
+    public void testLikeUnknownContent() {
+        media.like(USERNAME, "unknown");
+    }
+
+    @Test(expected = ContentNotFoundException.class)
+    public void testCommentExpiredContent() {
+        String id = media.publishStory(USERNAME, LocalDateTime.now().minusDays(2), "hi");
+
+        media.comment(USERNAME, "nice", id);
+    }
+
+    @Test
+    public void testExpiredContentIsRemovedFromTheUserContent() {
+        LocalDateTime now = LocalDateTime.now();
+        String post = media.publishPost(USERNAME, now.minusDays(29), "#cat");
+        media.publishStory(USERNAME, now.minusDays(1).minusHours(1), "#cat");
+        media.publishPost(USERNAME, now.minusDays(31), "#cat");
+
+        assertEquals(Set.of(post), idsOf(media.getNMostRecentContent(USERNAME, 10)));
+        assertEquals(Set.of(post), idsOf(media.findContentByTag("#cat")));
+        assertEquals(3, media.getActivityLog(USERNAME).size());
+    }
+
+    @Test
+    public void testSymbolsOfExpiredContentAreDropped() {
+        EvilSocialInator platform = new EvilSocialInator();
+        platform.register(USERNAME);
+        LocalDateTime now = LocalDateTime.now();
+        platform.publishPost(USERNAME, now, "hi @moni");
+        platform.publishStory(USERNAME, now.minusDays(2), "hi @moni @desi");
+
+        assertEquals(2, platform.getSymbols().size());
+
+        platform.getMostPopularUser();
+
+        assertEquals(1, platform.getSymbols().size());
+        assertEquals(List.of(MENTIONED_USERNAME_1), platform.getNMostRecentContent(USERNAME, 1).iterator().next()
+            .getMentions());
+    }
+
+    @Test
+    public void testContentPublishedInTheFutureReferencesNoSymbols() {
+        EvilSocialInator platform = new EvilSocialInator();
+        platform.register(USERNAME);
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            platform.publishPost(USERNAME, now.plusDays(1), "#cat @moni");
+            fail("publishing in the future must be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            platform.publishStory(USERNAME, now.plusDays(1), "#cat @moni @desi");
+            fail("publishing in the future must be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        assertEquals(0, platform.getSymbols().size());
+
+        // the only references left to @moni are the ones of the expired story, so it is dropped with them
+        platform.publishStory(USERNAME, now.minusDays(2), "hi @moni @moni");
+        platform.getMostPopularUser();
+
+        assertEquals(0, platform.getSymbols().size());
+    }
+
+    @Test
+    public void testGetNMostRecentContentIsNewestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        String oldest = media.publishPost(USERNAME, now.minusHours(2), "first");
+        String newest = media.publishPost(USERNAME, now, "third");
+        String middle = media.publishPost(USERNAME, now.minusHours(1), "second");
+        String sameTimeAsMiddle = media.publishStory(USERNAME, now.minusHours(1), "second again");
+
+        List<String> ids = new ArrayList<>();
+        for (Content content : media.getNMostRecentContent(USERNAME, 3)) {
+            ids.add(content.getId());
+        }
+        assertEquals(List.of(newest, sameTimeAsMiddle, middle), ids);
+        assertEquals(4, media.getNMostRecentContent(USERNAME, 10).size());
+        assertTrue(idsOf(media.getNMostRecentContent(USERNAME, 10)).contains(oldest));
+    }
+
+    @Test
+    public void testGetActivityLogIsNewestFirst() {
+        LocalDateTime publishedOn = LocalDateTime.of(2020, 11, 29, 13, 5, 7);
+        String post = media.publishPost(USERNAME, publishedOn, "hi");
+        String story = media.publishStory(USERNAME, publishedOn.plusSeconds(1), "hi");
+
+        assertEquals(List.of("13:05:08 29.11.20: Created a story with id " + story,
+            "13:05:07 29.11.20: Created a post with id " + post), media.getActivityLog(USERNAME));
+    }
+
+    @Test
+    public void testGetActivityLogKeepsOnlyTheRetainedActivities() {
+        int retention = 12;
+        media = new EvilSocialInator(retention);
+        media.register(USERNAME);
+        String id = media.publishPost(USERNAME, LocalDateTime.now(), "hi");
+        for (int i = 0; i < 20; ++i) {
+            media.comment(USERNAME, "comment " + i, id);
+        }
+
+        List<String> activityLog = media.getActivityLog(USERNAME);
+        assertEquals(retention, activityLog.size());
+        for (int i = 0; i < retention; ++i) {
+            String expectedEnd = ": Commented \"comment " + (19 - i) + "\" on a content with id " + id;
+            assertTrue(activityLog.get(i).endsWith(expectedEnd));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveActivityLogRetention() {
+        new EvilSocialInator(0);
+    }
+
+    @Test
+    public void testGetFeedMergesFollowedAuthorsNewestFirst() {
+        EvilSocialInator platform = createPlatformWithFollowers(3, 10);
+        LocalDateTime now = LocalDateTime.now();
+        String first = platform.publishPost(MENTIONED_USERNAME_1, now, "first");
+        String second = platform.publishStory(MENTIONED_USERNAME_2, now, "second");
+        platform.publishPost(USERNAME, now, "not followed");
+        String third = platform.publishPost(MENTIONED_USERNAME_1, now.minusHours(1), "third");
+
+        assertEquals(List.of(third, second, first), idsInOrderOf(platform.getFeed("follower0", 10)));
+        assertEquals(List.of(third, second), idsInOrderOf(platform.getFeed("follower0", 2)));
+        assertTrue(platform.getFeed(USERNAME, 10).isEmpty());
+    }
+
+    @Test
+    public void testGetFeedSkipsUnfollowedAuthorsAndExpiredContent() {
+        EvilSocialInator platform = createPlatformWithFollowers(1, 10);
+        LocalDateTime now = LocalDateTime.now();
+        String post = platform.publishPost(MENTIONED_USERNAME_1, now, "post");
+        platform.publishStory(MENTIONED_USERNAME_1, now.minusDays(2), "expired");
+        platform.publishPost(MENTIONED_USERNAME_2, now, "unfollowed");
+        platform.unfollow("follower0", MENTIONED_USERNAME_2);
+
+        assertEquals(List.of(post), idsInOrderOf(platform.getFeed("follower0", 10)));
+    }
+
+    @Test
+    public void testGetFeedPullsContentOfHighFanoutAuthors() {
+        EvilSocialInator platform = createPlatformWithFollowers(3, 2);
+        platform.follow("follower0", USERNAME);
+        LocalDateTime now = LocalDateTime.now();
+        String pushed = platform.publishPost(USERNAME, now, "pushed");
+        String pulled = platform.publishPost(MENTIONED_USERNAME_1, now, "pulled");
+        String pushedAgain = platform.publishPost(USERNAME, now, "pushed again");
+        platform.unfollow("follower1", MENTIONED_USERNAME_1);
+        String pushedAfterUnfollow = platform.publishPost(MENTIONED_USERNAME_1, now, "pushed after unfollow");
+
+        assertEquals(List.of(pushedAfterUnfollow, pushedAgain, pulled, pushed),
+            idsInOrderOf(platform.getFeed("follower0", 10)));
+        assertEquals(List.of(pushedAfterUnfollow, pulled), idsInOrderOf(platform.getFeed("follower2", 10)));
+        assertTrue(platform.getFeed("follower1", 10).isEmpty());
+    }
+
+    @Test
+    public void testGetFeedOfANewFollowerOfAHighFanoutAuthorStartsAtTheFollow() {
+        EvilSocialInator platform = createPlatformWithFollowers(3, 1);
+        LocalDateTime now = LocalDateTime.now();
+        String beforeFollow = platform.publishPost(MENTIONED_USERNAME_1, now, "before follow");
+        platform.register("newFollower");
+        platform.follow("newFollower", MENTIONED_USERNAME_1);
+        String afterFollow = platform.publishPost(MENTIONED_USERNAME_1, now, "after follow");
+
+        assertEquals(List.of(afterFollow), idsInOrderOf(platform.getFeed("newFollower", 10)));
+        assertEquals(List.of(afterFollow, beforeFollow), idsInOrderOf(platform.getFeed("follower0", 10)));
+    }
+
+    @Test
+    public void testGetFeedAfterFollowingAgainSkipsTheContentPublishedBefore() {
+        // the content of USERNAME is pulled, as it has more than one follower, and the one of MENTIONED_USERNAME_1
+        // is pushed
+        EvilSocialInator platform = createPlatformWithFollowers(1, 1);
+        platform.register("fan");
+        platform.follow("fan", USERNAME);
+        platform.follow("follower0", USERNAME);
+        LocalDateTime now = LocalDateTime.now();
+        platform.publishPost(MENTIONED_USERNAME_1, now, "pushed before unfollow");
+        platform.publishPost(USERNAME, now, "pulled before unfollow");
+        platform.unfollow("follower0", MENTIONED_USERNAME_1);
+        platform.unfollow("follower0", USERNAME);
+        platform.follow("follower0", MENTIONED_USERNAME_1);
+        platform.follow("follower0", USERNAME);
+        String pushed = platform.publishPost(MENTIONED_USERNAME_1, now, "pushed after follow");
+        String pulled = platform.publishPost(USERNAME, now, "pulled after follow");
+
+        assertEquals(List.of(pulled, pushed), idsInOrderOf(platform.getFeed("follower0", 10)));
+    }
+
+    @Test
+    public void testGetFeedKeepsOnlyTheRetainedEntries() {
+        EvilSocialInator platform = createPlatformWithFollowers(1, 10);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            ids.add(0, platform.publishPost(MENTIONED_USERNAME_1, LocalDateTime.now(), "post " + i));
+        }
+
+        assertEquals(ids.subList(0, 3), idsInOrderOf(platform.getFeed("follower0", 10)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFollowThemselves() {
+        ((EvilSocialInator) media).follow(USERNAME, USERNAME);
+    }
+
+    @Test
+    public void testGetTrendingTagsCountsOnlyTheWindow() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; ++i) {
+            media.publishPost(USERNAME, now.minusHours(2), "#old");
+        }
+        for (int i = 0; i < 3; ++i) {
+            media.publishStory(USERNAME, now, "#new #new");
+            media.publishPost(USERNAME, now.minusMinutes(30), "#recent");
+        }
+        media.publishPost(USERNAME, now, "#recent");
+
+        EvilSocialInator platform = (EvilSocialInator) media;
+        assertEquals(List.of("#new", "#recent"), platform.getTrendingTags(2, Duration.ofHours(1)));
+        assertEquals(List.of("#new", "#old", "#recent"), platform.getTrendingTags(5, Duration.ofHours(3)));
+        assertTrue(platform.getTrendingTags(0, Duration.ofHours(3)).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetTrendingTagsInTooLongWindow() {
+        ((EvilSocialInator) media).getTrendingTags(1, Duration.ofDays(2));
+    }
+
+    // followers "follower0", "follower1"... follow both mentioned users, feeds keep the last 3 entries
+    private static EvilSocialInator createPlatformWithFollowers(int numberOfFollowers, int fanOutLimit) {
+        EvilSocialInator platform = new EvilSocialInator(100, 3, fanOutLimit);
+        platform.register(USERNAME);
+        platform.register(MENTIONED_USERNAME_1);
+        platform.register(MENTIONED_USERNAME_2);
+        for (int i = 0; i < numberOfFollowers; ++i) {
+            platform.register("follower" + i);
+            platform.follow("follower" + i, MENTIONED_USERNAME_1);
+            platform.follow("follower" + i, MENTIONED_USERNAME_2);
+        }
+        return platform;
+    }
+
+    private static List<String> idsInOrderOf(Collection<Content> contents) {
+        List<String> ids = new ArrayList<>();
+        for (Content content : contents) {
+            ids.add(content.getId());
+        }
+        return ids;
+    }
+
+    private static Set<String> idsOf(Collection<Content> contents) {
+        Set<String> ids = new HashSet<>();
+        for (Content content : contents) {
+            ids.add(content.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,85 @@
+package bg.sofia.uni.fmi.mjt.socialmedia;
+
+import bg.sofia.uni.fmi.mjt.socialmedia.content.Post;
+import bg.sofia.uni.fmi.mjt.socialmedia.content.SymbolTable;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TrendingTagsTest {
+
+    private static final int DISTINCT_TAGS = 5_000;
+    private static final int TAGGED_POSTS = 50_000;
+    private static final double ERROR = 0.01;
+
+    @Test
+    public void testHeavyHittersOfASkewedStreamAreFound() {
+        LocalDateTime now = LocalDateTime.now();
+        SymbolTable symbols = new SymbolTable();
+        TrendingTags trendingTags = new TrendingTags(Duration.ofHours(1), ERROR, symbols);
+
+        // tag i is used about 1 / (i + 1) as often as tag 0
+        double[] cumulativeWeights = new double[DISTINCT_TAGS];
+        double totalWeight = 0;
+        for (int i = 0; i < DISTINCT_TAGS; ++i) {
+            totalWeight += 1.0 / (i + 1);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < TAGGED_POSTS; ++i) {
+            int tag = lowerBound(cumulativeWeights, random.nextDouble() * totalWeight);
+            trendingTags.add(new Post("gabi", now.minusMinutes(random.nextInt(60)), "#trending" + tag, symbols));
+        }
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            expected.add("#trending" + i);
+        }
+        assertEquals(expected, trendingTags.getTrending(5, Duration.ofHours(1), now));
+
+        List<String> top = trendingTags.getTrending(20, Duration.ofHours(1), now);
+        assertEquals(20, top.size());
+        for (int i = 0; i < 10; ++i) {
+            assertTrue(top.contains("#trending" + i));
+        }
+    }
+
+    @Test
+    public void testOnlyTheWindowIsCountedAfterOldSlicesAreReused() {
+        LocalDateTime now = LocalDateTime.now();
+        SymbolTable symbols = new SymbolTable();
+        TrendingTags trendingTags = new TrendingTags(Duration.ofHours(1), ERROR, symbols);
+        for (int minutesAgo = 180; minutesAgo > 60; --minutesAgo) {
+            trendingTags.add(new Post("gabi", now.minusMinutes(minutesAgo), "#old #old", symbols));
+        }
+        for (int minutesAgo = 59; minutesAgo >= 0; --minutesAgo) {
+            trendingTags.add(new Post("gabi", now.minusMinutes(minutesAgo), "#new", symbols));
+        }
+        trendingTags.add(new Post("gabi", now.minusMinutes(90), "#late #late #late", symbols));
+
+        assertEquals(List.of("#new"), trendingTags.getTrending(5, Duration.ofHours(1), now));
+        assertEquals(List.of("#new"), trendingTags.getTrending(5, Duration.ofMinutes(10), now));
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length - 1;
+        while (low < high) {
+            int middle = (low + high) / 2;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
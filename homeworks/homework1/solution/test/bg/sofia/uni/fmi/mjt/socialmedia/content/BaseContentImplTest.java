@@ -0,0 +1,91 @@
+package bg.sofia.uni.fmi.mjt.socialmedia.content;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BaseContentImplTest {
+
+    private static final String AUTHOR = "gabi";
+
+    @Test
+    public void testTagsAndMentionsAreTheWordsStartingWithHashAndAt() {
+        Content post = new Post(AUTHOR, LocalDateTime.now(), "#cat hi, @moni  #dog, a#b @ # #cat\t@desi");
+
+        assertEquals(List.of("#cat", "#dog,", "#", "#cat\t@desi"), new ArrayList<>(post.getTags()));
+        assertEquals(List.of("@moni", "@"), new ArrayList<>(post.getMentions()));
+    }
+
+    @Test
+    public void testNoTagsAndMentions() {
+        Content story = new Story(AUTHOR, LocalDateTime.now(), "");
+
+        assertTrue(story.getTags().isEmpty());
+        assertTrue(story.getMentions().isEmpty());
+    }
+
+    @Test
+    public void testTagsAreInterned() {
+        SymbolTable symbols = new SymbolTable();
+        Content first = new Post(AUTHOR, LocalDateTime.now(), "#" + "interned", symbols);
+        Content second = new Post(AUTHOR, LocalDateTime.now(), "hi " + "#inter" + "ned", symbols);
+
+        assertSame(first.getTags().iterator().next(), second.getTags().iterator().next());
+        assertEquals(1, symbols.size());
+    }
+
+    @Test
+    public void testSymbolsAreDroppedWithTheirLastContent() {
+        SymbolTable symbols = new SymbolTable();
+        BaseContentImpl first = new Post(AUTHOR, LocalDateTime.now(), "#cat @moni", symbols);
+        BaseContentImpl second = new Story(AUTHOR, LocalDateTime.now(), "#cat #dog", symbols);
+
+        first.releaseSymbols();
+        first.releaseSymbols();
+
+        assertEquals(2, symbols.size());
+
+        second.releaseSymbols();
+        Content third = new Post(AUTHOR, LocalDateTime.now(), "#bird @desi", symbols);
+
+        assertEquals(2, symbols.size());
+        assertEquals(List.of("#cat"), new ArrayList<>(first.getTags()));
+        assertEquals(List.of("@moni"), new ArrayList<>(first.getMentions()));
+        assertEquals(List.of("#cat", "#dog"), new ArrayList<>(second.getTags()));
+        assertEquals(List.of("#bird"), new ArrayList<>(third.getTags()));
+    }
+
+    @Test
+    public void testTagsAndMentionsMatchSplittingBySpaces() {
+        Random random = new Random(42);
+        char[] alphabet = {'#', '@', ' ', ' ', 'a', 'b', ',', '\t'};
+        for (int i = 0; i < 1_000; ++i) {
+            StringBuilder description = new StringBuilder();
+            int length = random.nextInt(20);
+            for (int j = 0; j < length; ++j) {
+                description.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+
+            Content post = new Post(AUTHOR, LocalDateTime.now(), description.toString());
+            assertEquals(wordsStartingWith("#", description.toString()), new ArrayList<>(post.getTags()));
+            assertEquals(wordsStartingWith("@", description.toString()), new ArrayList<>(post.getMentions()));
+        }
+    }
+
+    private static List<String> wordsStartingWith(String prefix, String description) {
+        List<String> words = new ArrayList<>();
+        for (String word : (" " + description + " ").split(" ")) {
+            if (word.startsWith(prefix)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,31 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public final class BenchmarkRunner {
+    //Runs the spell checker benchmarks and writes their results as JSON, so runs of two versions can be compared.
+    //Needs jmh-core and jmh-generator-annprocess (as annotation processor) next to src on the classpath.
+    //Usage: BenchmarkRunner [results file] [benchmark regex], e.g. BenchmarkRunner before.json WordSimilarity
+
+    private static final String DEFAULT_RESULTS_FILE = "spellchecker-benchmarks.json";
+    private static final String DEFAULT_BENCHMARKS = BenchmarkRunner.class.getPackageName() + ".*";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String resultsFile = args.length > 0 ? args[0] : DEFAULT_RESULTS_FILE;
+        String benchmarks = args.length > 1 ? args[1] : DEFAULT_BENCHMARKS;
+
+        Options options = new OptionsBuilder()
+            .include(benchmarks)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultsFile)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,103 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.benchmark;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.Metadata;
+import bg.sofia.uni.fmi.mjt.spellchecker.NaiveSpellChecker;
+import bg.sofia.uni.fmi.mjt.spellchecker.SuggestionMode;
+
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpellCheckerBenchmark {
+    //End-to-end benchmarks of NaiveSpellChecker. The suggestions cache is disabled unless a benchmark
+    //measures it, so every misspelling is ranked against the dictionary.
+
+    private static final long SEED = 42;
+    private static final int TEXT_WORDS = 2_000;
+    private static final int QUERIES = 256;
+    private static final int SUGGESTIONS_COUNT = 3;
+
+    @Param({"10000", "100000", "400000"})
+    private int dictionarySize;
+
+    @Param({"0.01", "0.1"})
+    private double typoRate;
+
+    @Param({"RANKED_SIMILARITY", "EDIT_DISTANCE"})
+    private SuggestionMode suggestionMode;
+
+    private String dictionaryText;
+    private String stopwordsText;
+    private String text;
+    private List<String> misspelledWords;
+    private NaiveSpellChecker spellChecker;
+    private NaiveSpellChecker cachingSpellChecker;
+    private int nextQuery;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticCorpus corpus = new SyntheticCorpus(SEED, dictionarySize);
+        dictionaryText = corpus.dictionaryText();
+        stopwordsText = corpus.stopwordsText();
+        text = corpus.text(TEXT_WORDS, typoRate);
+        misspelledWords = corpus.misspelledWords(QUERIES);
+        spellChecker = newSpellChecker(0);
+        cachingSpellChecker = newSpellChecker(QUERIES);
+    }
+
+    private NaiveSpellChecker newSpellChecker(int suggestionsCacheCapacity) {
+        return new NaiveSpellChecker(new StringReader(dictionaryText), new StringReader(stopwordsText),
+            suggestionsCacheCapacity, suggestionMode);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public NaiveSpellChecker construct() {
+        return newSpellChecker(0);
+    }
+
+    @Benchmark
+    public Metadata metadata() {
+        return spellChecker.metadata(new StringReader(text));
+    }
+
+    @Benchmark
+    public void analyze() {
+        spellChecker.analyze(new StringReader(text), Writer.nullWriter(), SUGGESTIONS_COUNT);
+    }
+
+    @Benchmark
+    public void analyzeWithSuggestionsCache() {
+        cachingSpellChecker.analyze(new StringReader(text), Writer.nullWriter(), SUGGESTIONS_COUNT);
+    }
+
+    @Benchmark
+    public void findClosestWords(Blackhole blackhole) {
+        String word = misspelledWords.get(nextQuery++ % QUERIES);
+        blackhole.consume(spellChecker.findClosestWords(word, SUGGESTIONS_COUNT));
+    }
+}
@@ -0,0 +1,140 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public final class SyntheticCorpus {
+    //Deterministic generator of dictionaries, stopwords and texts with typos, so the benchmarks run offline.
+    //Word lengths follow a rough English distribution and words of the text are picked with a Zipf-like skew.
+
+    private static final String ALPHABET = "etaoinshrdlcumwfgypbvkjxqz";
+    private static final int[] WORD_LENGTHS = {2, 3, 3, 4, 4, 4, 5, 5, 5, 6, 6, 6, 7, 7, 8, 8, 9, 10, 11, 13};
+    private static final String[] PUNCTUATION = {"", "", "", "", "", ",", ".", "!", "?", ";"};
+    private static final List<String> STOPWORDS = List.of("a", "an", "the", "and", "or", "of", "to", "in", "is", "it");
+    private static final double ZIPF_EXPONENT = 1.1;
+    private static final int WORDS_PER_LINE = 12;
+
+    private final Random random;
+    private final List<String> dictionary;
+    private final double[] cumulativeFrequencies;
+
+    public SyntheticCorpus(long seed, int dictionarySize) {
+        if (dictionarySize <= 0) {
+            throw new IllegalArgumentException("Argument dictionarySize must be positive int.");
+        }
+
+        this.random = new Random(seed);
+        this.dictionary = generateDictionary(dictionarySize);
+        this.cumulativeFrequencies = zipfCumulativeFrequencies(dictionarySize);
+    }
+
+    public List<String> dictionary() {
+        return dictionary;
+    }
+
+    public String dictionaryText() {
+        return String.join(System.lineSeparator(), dictionary);
+    }
+
+    public String stopwordsText() {
+        return String.join(System.lineSeparator(), STOPWORDS);
+    }
+
+    /**
+     * Returns a text of about {@code numberOfWords} words in which {@code typoRate} of the dictionary words
+     * are misspelled by a random insertion, deletion, substitution or transposition.
+     */
+    public String text(int numberOfWords, double typoRate) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= numberOfWords; ++i) {
+            String word = random.nextInt(STOPWORDS.size() * 2) == 0
+                ? STOPWORDS.get(random.nextInt(STOPWORDS.size()))
+                : nextWord();
+            if (random.nextDouble() < typoRate) {
+                word = misspell(word);
+            }
+            if (random.nextInt(WORDS_PER_LINE) == 0) {
+                word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+            }
+
+            text.append(word).append(PUNCTUATION[random.nextInt(PUNCTUATION.length)]);
+            text.append(i % WORDS_PER_LINE == 0 ? System.lineSeparator() : " ");
+        }
+        return text.toString();
+    }
+
+    /**
+     * Returns {@code count} misspelled dictionary words.
+     */
+    public List<String> misspelledWords(int count) {
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            result.add(misspell(nextWord()));
+        }
+        return result;
+    }
+
+    private String nextWord() {
+        int index = Arrays.binarySearch(cumulativeFrequencies, random.nextDouble());
+        index = index >= 0 ? index : -index - 1;
+        return dictionary.get(Math.min(index, dictionary.size() - 1));
+    }
+
+    private String misspell(String word) {
+        StringBuilder result = new StringBuilder(word);
+        int position = random.nextInt(word.length());
+        switch (random.nextInt(4)) {
+            case 0 -> result.insert(position, randomLetter());
+            case 1 -> {
+                if (result.length() > 2) {
+                    result.deleteCharAt(position);
+                } else {
+                    result.append(randomLetter());
+                }
+            }
+            case 2 -> result.setCharAt(position, randomLetter());
+            default -> {
+                int next = Math.min(position + 1, word.length() - 1);
+                result.setCharAt(position, word.charAt(next));
+                result.setCharAt(next, word.charAt(position));
+            }
+        }
+        return result.toString();
+    }
+
+    private List<String> generateDictionary(int size) {
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < size) {
+            int length = WORD_LENGTHS[random.nextInt(WORD_LENGTHS.length)];
+            StringBuilder word = new StringBuilder(length);
+            for (int i = 0; i < length; ++i) {
+                word.append(randomLetter());
+            }
+            words.add(word.toString());
+        }
+        return new ArrayList<>(words);
+    }
+
+    private char randomLetter() {
+        // skewed towards the frequent letters at the beginning of ALPHABET
+        int index = (int) (ALPHABET.length() * random.nextDouble() * random.nextDouble());
+        return ALPHABET.charAt(index);
+    }
+
+    private static double[] zipfCumulativeFrequencies(int size) {
+        double[] result = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; ++rank) {
+            sum += 1 / Math.pow(rank, ZIPF_EXPONENT);
+            result[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; ++i) {
+            result[i] /= sum;
+        }
+        return result;
+    }
+}
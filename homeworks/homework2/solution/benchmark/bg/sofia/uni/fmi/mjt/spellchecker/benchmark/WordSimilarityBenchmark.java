@@ -0,0 +1,108 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.benchmark;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.BigramVector;
+import bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.CandidateScorer;
+import bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.CosineSimilarity;
+import bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.CosineWordSimilarity;
+import bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.LevenshteinDistance;
+import bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.LevenshteinWordSimilarity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordSimilarityBenchmark {
+    //Microbenchmarks of a single word comparison, the inner loop of every suggestion,
+    //and of scoring a whole block of dictionary words with a CandidateScorer (reported per block).
+
+    private static final long SEED = 7;
+    private static final int DICTIONARY_SIZE = 1_024;
+    private static final int MAX_EDIT_DISTANCE = 2;
+
+    private List<String> dictionaryWords;
+    private List<String> misspelledWords;
+    private BigramVector[] dictionaryVectors;
+    private BigramVector[] misspelledVectors;
+    private CandidateScorer cosineScorer;
+    private CandidateScorer levenshteinScorer;
+    private int[] block;
+    private double[] scores;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticCorpus corpus = new SyntheticCorpus(SEED, DICTIONARY_SIZE);
+        dictionaryWords = corpus.dictionary();
+        misspelledWords = corpus.misspelledWords(DICTIONARY_SIZE);
+        dictionaryVectors = dictionaryWords.stream().map(BigramVector::of).toArray(BigramVector[]::new);
+        misspelledVectors = misspelledWords.stream().map(BigramVector::of).toArray(BigramVector[]::new);
+
+        String[] dictionary = dictionaryWords.toArray(new String[0]);
+        cosineScorer = new CosineWordSimilarity().newCandidateScorer(dictionary);
+        levenshteinScorer = new LevenshteinWordSimilarity().newCandidateScorer(dictionary);
+        block = new int[DICTIONARY_SIZE];
+        for (int i = 0; i < DICTIONARY_SIZE; ++i) {
+            block[i] = i;
+        }
+        scores = new double[DICTIONARY_SIZE];
+    }
+
+    private int nextPair() {
+        next = (next + 1) % DICTIONARY_SIZE;
+        return next;
+    }
+
+    @Benchmark
+    public double cosineSimilarityOfStrings() {
+        int i = nextPair();
+        return CosineSimilarity.calcCosineSimilarity(dictionaryWords.get(i), misspelledWords.get(i));
+    }
+
+    @Benchmark
+    public double cosineSimilarityOfPackedVectors() {
+        int i = nextPair();
+        return CosineSimilarity.calcCosineSimilarity(dictionaryVectors[i], misspelledVectors[i]);
+    }
+
+    @Benchmark
+    public double levenshteinDistance() {
+        int i = nextPair();
+        return LevenshteinDistance.calcLevenshteinDistance(dictionaryWords.get(i), misspelledWords.get(i));
+    }
+
+    @Benchmark
+    public int levenshteinDistanceWithCutoff() {
+        int i = nextPair();
+        return LevenshteinDistance.calcLevenshteinDistance(dictionaryWords.get(i), misspelledWords.get(i),
+            MAX_EDIT_DISTANCE);
+    }
+
+    @Benchmark
+    public double[] cosineScorerBlock() {
+        cosineScorer.score(misspelledWords.get(nextPair()), block, DICTIONARY_SIZE, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public double[] levenshteinScorerBlock() {
+        levenshteinScorer.score(misspelledWords.get(nextPair()), block, DICTIONARY_SIZE, scores);
+        return scores;
+    }
+}
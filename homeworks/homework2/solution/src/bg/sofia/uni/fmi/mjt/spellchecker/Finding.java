@@ -0,0 +1,6 @@
+package bg.sofia.uni.fmi.mjt.spellchecker;
+
+import java.util.List;
+
+public record Finding(int line, String word, List<String> suggestions) {
+}
@@ -0,0 +1,73 @@
+package bg.sofia.uni.fmi.mjt.spellchecker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+final class FindingsBuffer implements Closeable {
+    //Findings are reported after the metadata, which is known only at the end of the text.
+    //They are kept in memory up to IN_MEMORY_LIMIT chars and spilled to a temporary file after that.
+
+    private static final int IN_MEMORY_LIMIT = 1 << 20;
+    private static final String SPILL_FILE_PREFIX = "spellchecker-findings";
+
+    private final StringBuilder buffer = new StringBuilder();
+    private Path spillFile;
+    private Writer spillWriter;
+    private boolean empty = true;
+
+    void add(CharSequence finding) throws IOException {
+        if (!empty) {
+            append(System.lineSeparator());
+        }
+        append(finding);
+        empty = false;
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    void writeTo(Writer output) throws IOException {
+        if (spillWriter == null) {
+            output.append(buffer);
+            return;
+        }
+
+        spillWriter.flush();
+        try (var spilledFindings = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+            spilledFindings.transferTo(output);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (spillWriter != null) {
+            spillWriter.close();
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    private void append(CharSequence text) throws IOException {
+        if (spillWriter == null && buffer.length() + text.length() > IN_MEMORY_LIMIT) {
+            spill();
+        }
+
+        if (spillWriter == null) {
+            buffer.append(text);
+        } else {
+            spillWriter.append(text);
+        }
+    }
+
+    private void spill() throws IOException {
+        spillFile = Files.createTempFile(SPILL_FILE_PREFIX, null);
+        spillWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8);
+        spillWriter.append(buffer);
+        buffer.setLength(0);
+        buffer.trimToSize();
+    }
+}
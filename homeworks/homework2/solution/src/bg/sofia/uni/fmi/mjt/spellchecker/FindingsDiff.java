@@ -0,0 +1,16 @@
+package bg.sofia.uni.fmi.mjt.spellchecker;
+
+import java.util.List;
+
+/**
+ * The findings changed by replacing {@code removedLines} lines starting at {@code firstLine} with {@code addedLines}
+ * lines. {@code removed} are numbered as before the edit, {@code added} as after it. The findings after the edited
+ * lines are not repeated, their line numbers just move by {@link #lineShift()}.
+ */
+public record FindingsDiff(int firstLine, int removedLines, int addedLines, List<Finding> removed,
+                           List<Finding> added) {
+
+    public int lineShift() {
+        return addedLines - removedLines;
+    }
+}
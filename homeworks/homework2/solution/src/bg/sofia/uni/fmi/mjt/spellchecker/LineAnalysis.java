@@ -0,0 +1,10 @@
+package bg.sofia.uni.fmi.mjt.spellchecker;
+
+import java.util.List;
+
+// what a single line adds to the metadata and findings of a text
+record LineAnalysis(Metadata metadata, List<Misspelling> misspellings) {
+
+    record Misspelling(String word, List<String> suggestions) {
+    }
+}
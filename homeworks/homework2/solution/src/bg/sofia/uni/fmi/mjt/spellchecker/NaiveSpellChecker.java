@@ -2,37 +2,113 @@ package bg.sofia.uni.fmi.mjt.spellchecker;
 
 import java.io.IOException;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.DataOutputStream;
 import java.io.PrintWriter;
 import java.io.Reader;
-import java.io.StringReader;
 import java.io.Writer;
+import java.nio.BufferUnderflowException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedHashSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.Scanner;
-
-import java.util.function.Function;
-import java.util.stream.Collectors;
-
-import static bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.CosineSimilarity.calcCosineSimilarity;
+import java.util.PriorityQueue;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.cache.CacheStats;
+import bg.sofia.uni.fmi.mjt.spellchecker.cache.SuggestionsCache;
+import bg.sofia.uni.fmi.mjt.spellchecker.index.BigramIndex;
+import bg.sofia.uni.fmi.mjt.spellchecker.index.DeletionIndex;
+import bg.sofia.uni.fmi.mjt.spellchecker.metrics.Phase;
+import bg.sofia.uni.fmi.mjt.spellchecker.metrics.PhaseTimer;
+import bg.sofia.uni.fmi.mjt.spellchecker.metrics.SpellCheckerMetrics;
+import bg.sofia.uni.fmi.mjt.spellchecker.snapshot.SnapshotInput;
+import bg.sofia.uni.fmi.mjt.spellchecker.snapshot.SnapshotOutput;
+import bg.sofia.uni.fmi.mjt.spellchecker.text.Tokenizer;
+import bg.sofia.uni.fmi.mjt.spellchecker.text.WordBuffer;
+import bg.sofia.uni.fmi.mjt.spellchecker.text.WordSet;
+import bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.BigramVector;
+import bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.CandidateScorer;
+import bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.CosineWordSimilarity;
+import bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.WordSimilarity;
 
 public class NaiveSpellChecker implements SpellChecker {
 
     private static final String METADATA_TITLE = "= = = Metadata = = =";
     private static final String FINDINGS_TITLE = "= = = Findings = = =";
+    private static final String NO_FINDINGS_MESSAGE = "No spelling issues found.";
     private static final int TEXT_LINE_COUNTER_BEGIN_VALUE = 1;
+    private static final int DEFAULT_SUGGESTIONS_CACHE_CAPACITY = 10_000;
+    private static final char LAST_ASCII_CHAR = 127;
+    private static final int SCORE_BLOCK_SIZE = 256;
+
+    // best suggestion first; equal similarities keep dictionary ranking order
+    private static final Comparator<ScoredWord> BY_SIMILARITY = Comparator
+        .comparingDouble(ScoredWord::similarity).reversed()
+        .thenComparingInt(ScoredWord::index);
 
-    private final Set<String> dictionary = new LinkedHashSet<>();
-    private final Set<String> stopwords = new LinkedHashSet<>();
+    private static final int SNAPSHOT_MAGIC = 0x5350454C; // "SPEL"
+    private static final int SNAPSHOT_VERSION = 3;
 
+    private final WordSet dictionary;
+    private final WordSet stopwords;
+    private final SuggestionMode suggestionMode;
+    private final SuggestionsCache suggestionsCache;
+    private final SpellCheckerMetrics metrics = new SpellCheckerMetrics();
+
+    // RANKED_SIMILARITY mode: the dictionary in ranking order, scored by wordSimilarity
+    private final String[] rankingWords;
+    private final BigramVector[] rankingVectors; // only if wordSimilarity needs bigram vectors
+    private final CandidateScorer candidateScorer;
+    private final BigramIndex bigramIndex; // only if wordSimilarity needs a common bigram
+
+    // EDIT_DISTANCE mode
+    private final DeletionIndex editDistanceIndex;
 
     public NaiveSpellChecker(Reader dictionaryReader, Reader stopwordsReader) {
+        this(dictionaryReader, stopwordsReader, DEFAULT_SUGGESTIONS_CACHE_CAPACITY);
+    }
+
+    /**
+     * @param suggestionsCacheCapacity the number of misspelled words whose suggestions are memoized, 0 disables it
+     */
+    public NaiveSpellChecker(Reader dictionaryReader, Reader stopwordsReader, int suggestionsCacheCapacity) {
+        this(dictionaryReader, stopwordsReader, suggestionsCacheCapacity, SuggestionMode.RANKED_SIMILARITY);
+    }
+
+    /**
+     * @param suggestionsCacheCapacity the number of misspelled words whose suggestions are memoized, 0 disables it
+     * @param suggestionMode           how suggestions for misspelled words are found
+     */
+    public NaiveSpellChecker(Reader dictionaryReader, Reader stopwordsReader, int suggestionsCacheCapacity,
+                             SuggestionMode suggestionMode) {
+        this(dictionaryReader, stopwordsReader, suggestionsCacheCapacity, suggestionMode,
+            suggestionMode == SuggestionMode.RANKED_SIMILARITY ? new CosineWordSimilarity() : null);
+    }
+
+    /**
+     * Ranks the suggestions for misspelled words by {@code wordSimilarity}.
+     *
+     * @param suggestionsCacheCapacity the number of misspelled words whose suggestions are memoized, 0 disables it
+     * @param wordSimilarity           the similarity of dictionary words to a misspelled word
+     */
+    public NaiveSpellChecker(Reader dictionaryReader, Reader stopwordsReader, int suggestionsCacheCapacity,
+                             WordSimilarity wordSimilarity) {
+        this(dictionaryReader, stopwordsReader, suggestionsCacheCapacity, SuggestionMode.RANKED_SIMILARITY,
+            wordSimilarity);
+    }
+
+    private NaiveSpellChecker(Reader dictionaryReader, Reader stopwordsReader, int suggestionsCacheCapacity,
+                              SuggestionMode suggestionMode, WordSimilarity wordSimilarity) {
         if (dictionaryReader == null) {
             throw new IllegalArgumentException("Argument dictionaryReader must not be null.");
         }
@@ -41,8 +117,191 @@ public class NaiveSpellChecker implements SpellChecker {
             throw new IllegalArgumentException("Argument stopwordsReader must not be null.");
         }
 
+        if (suggestionsCacheCapacity < 0) {
+            throw new IllegalArgumentException("Argument suggestionsCacheCapacity must not be negative.");
+        }
+
+        if (suggestionMode == null) {
+            throw new IllegalArgumentException("Argument suggestionMode must not be null.");
+        }
+
+        if (suggestionMode == SuggestionMode.RANKED_SIMILARITY && wordSimilarity == null) {
+            throw new IllegalArgumentException("Argument wordSimilarity must not be null.");
+        }
+
+        dictionary = new WordSet();
+        stopwords = new WordSet();
         constructDictionary(dictionaryReader);
         constructStopwords(stopwordsReader);
+        this.suggestionMode = suggestionMode;
+        if (suggestionMode == SuggestionMode.RANKED_SIMILARITY) {
+            rankingWords = orderWordsForRanking(dictionary);
+            rankingVectors = wordSimilarity.needsBigramVectors() ? BigramVector.ofAll(rankingWords) : null;
+            candidateScorer = wordSimilarity.newCandidateScorer(rankingWords, rankingVectors);
+            bigramIndex = wordSimilarity.needsCommonBigram() ? new BigramIndex(rankingWords) : null;
+            editDistanceIndex = null;
+        } else {
+            rankingWords = null;
+            rankingVectors = null;
+            candidateScorer = null;
+            bigramIndex = null;
+            editDistanceIndex = new DeletionIndex(dictionary, SuggestionMode.MAX_EDIT_DISTANCE);
+        }
+        suggestionsCache = new SuggestionsCache(suggestionsCacheCapacity);
+    }
+
+    private static String[] orderWordsForRanking(Collection<String> dictionary) {
+        // Words with equal similarity have always been ranked in HashMap iteration order
+        // (findClosestWords collected the scores with Collectors.toMap), so the ranking order follows it.
+        Map<String, Boolean> hashOrder = new HashMap<>();
+        for (String word : dictionary) {
+            hashOrder.putIfAbsent(word, Boolean.TRUE);
+        }
+        return hashOrder.keySet().toArray(new String[0]);
+    }
+
+    private NaiveSpellChecker(SnapshotInput snapshot, int suggestionsCacheCapacity, WordSimilarity wordSimilarity) {
+        if (snapshot.readInt() != SNAPSHOT_MAGIC || snapshot.readInt() != SNAPSHOT_VERSION) {
+            throw new IllegalArgumentException("Not a spell checker snapshot of version " + SNAPSHOT_VERSION + ".");
+        }
+
+        suggestionMode = SuggestionMode.values()[snapshot.readInt()];
+        stopwords = new WordSet(Arrays.asList(snapshot.readStrings()));
+        String[] dictionaryWords = snapshot.readStrings();
+        dictionary = new WordSet(Arrays.asList(dictionaryWords));
+        if (suggestionMode == SuggestionMode.RANKED_SIMILARITY) {
+            int[] rankingPositions = snapshot.readIntArray();
+            rankingWords = new String[rankingPositions.length];
+            for (int i = 0; i < rankingPositions.length; ++i) {
+                rankingWords[i] = dictionaryWords[rankingPositions[i]];
+            }
+            boolean hasBigramVectors = snapshot.readInt() != 0;
+            BigramVector[] savedVectors = hasBigramVectors ? BigramVector.readPacked(snapshot) : null;
+            if (!wordSimilarity.needsBigramVectors()) {
+                rankingVectors = null;
+            } else {
+                rankingVectors = hasBigramVectors ? savedVectors : BigramVector.ofAll(rankingWords);
+            }
+            candidateScorer = wordSimilarity.newCandidateScorer(rankingWords, rankingVectors);
+            boolean hasBigramIndex = snapshot.readInt() != 0;
+            BigramIndex savedBigramIndex = hasBigramIndex ? BigramIndex.readFrom(snapshot) : null;
+            if (!wordSimilarity.needsCommonBigram()) {
+                bigramIndex = null;
+            } else {
+                bigramIndex = hasBigramIndex ? savedBigramIndex : new BigramIndex(rankingWords);
+            }
+            editDistanceIndex = null;
+        } else {
+            rankingWords = null;
+            rankingVectors = null;
+            candidateScorer = null;
+            bigramIndex = null;
+            editDistanceIndex = DeletionIndex.readFrom(snapshot, dictionaryWords);
+        }
+        suggestionsCache = new SuggestionsCache(suggestionsCacheCapacity);
+    }
+
+    /**
+     * Loads a spell checker from a snapshot written by {@link #saveSnapshot}.
+     * The file is memory-mapped and nothing is normalized or indexed again.
+     *
+     * @throws IllegalArgumentException if the file is not a snapshot of the current version
+     */
+    public static NaiveSpellChecker loadSnapshot(Path snapshotFile) {
+        return loadSnapshot(snapshotFile, DEFAULT_SUGGESTIONS_CACHE_CAPACITY);
+    }
+
+    public static NaiveSpellChecker loadSnapshot(Path snapshotFile, int suggestionsCacheCapacity) {
+        return loadSnapshot(snapshotFile, suggestionsCacheCapacity, new CosineWordSimilarity());
+    }
+
+    /**
+     * Loads a spell checker from a snapshot, ranking suggestions by {@code wordSimilarity}
+     * if the snapshot is in {@link SuggestionMode#RANKED_SIMILARITY} mode.
+     */
+    public static NaiveSpellChecker loadSnapshot(Path snapshotFile, int suggestionsCacheCapacity,
+                                                 WordSimilarity wordSimilarity) {
+        if (snapshotFile == null) {
+            throw new IllegalArgumentException("Argument snapshotFile must not be null.");
+        }
+        if (suggestionsCacheCapacity < 0) {
+            throw new IllegalArgumentException("Argument suggestionsCacheCapacity must not be negative.");
+        }
+        if (wordSimilarity == null) {
+            throw new IllegalArgumentException("Argument wordSimilarity must not be null.");
+        }
+
+        try (var channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            var snapshot = new SnapshotInput(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            return new NaiveSpellChecker(snapshot, suggestionsCacheCapacity, wordSimilarity);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed during reading snapshot due to: " + e);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Snapshot " + snapshotFile + " is truncated or corrupted.");
+        }
+    }
+
+    /**
+     * Loads a spell checker from {@code snapshotFile} if it is a valid snapshot, otherwise constructs it
+     * from the plain-text {@code dictionaryReader} and {@code stopwordsReader}.
+     */
+    public static NaiveSpellChecker loadSnapshot(Path snapshotFile, Reader dictionaryReader, Reader stopwordsReader) {
+        if (snapshotFile != null && Files.isRegularFile(snapshotFile)) {
+            try {
+                return loadSnapshot(snapshotFile);
+            } catch (RuntimeException e) {
+                // fall back to the text sources below
+            }
+        }
+        return new NaiveSpellChecker(dictionaryReader, stopwordsReader);
+    }
+
+    /**
+     * Writes the normalized dictionary and stopwords and the suggestion index to {@code snapshotFile}.
+     */
+    public void saveSnapshot(Path snapshotFile) {
+        if (snapshotFile == null) {
+            throw new IllegalArgumentException("Argument snapshotFile must not be null.");
+        }
+
+        try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(snapshotFile)))) {
+            var snapshot = new SnapshotOutput(output);
+            snapshot.writeInt(SNAPSHOT_MAGIC);
+            snapshot.writeInt(SNAPSHOT_VERSION);
+            snapshot.writeInt(suggestionMode.ordinal());
+            snapshot.writeStrings(stopwords.toArray(new String[0]));
+            String[] dictionaryWords = dictionary.toArray(new String[0]);
+            snapshot.writeStrings(dictionaryWords);
+            if (suggestionMode == SuggestionMode.RANKED_SIMILARITY) {
+                writeRankingTo(snapshot, dictionaryWords);
+            } else {
+                editDistanceIndex.writeTo(snapshot);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed during writing snapshot due to: " + e);
+        }
+    }
+
+    private void writeRankingTo(SnapshotOutput snapshot, String[] dictionaryWords) throws IOException {
+        Map<String, Integer> dictionaryPositions = new HashMap<>();
+        for (int i = 0; i < dictionaryWords.length; ++i) {
+            dictionaryPositions.put(dictionaryWords[i], i);
+        }
+        int[] rankingPositions = new int[rankingWords.length];
+        for (int i = 0; i < rankingWords.length; ++i) {
+            rankingPositions[i] = dictionaryPositions.get(rankingWords[i]);
+        }
+        snapshot.writeIntArray(rankingPositions);
+
+        snapshot.writeInt(rankingVectors != null ? 1 : 0);
+        if (rankingVectors != null) {
+            BigramVector.writePacked(rankingVectors, snapshot);
+        }
+
+        snapshot.writeInt(bigramIndex != null ? 1 : 0);
+        if (bigramIndex != null) {
+            bigramIndex.writeTo(snapshot);
+        }
     }
 
     private void constructDictionary(Reader dictionaryReader) {
@@ -90,78 +349,208 @@ public class NaiveSpellChecker implements SpellChecker {
         if (suggestionsCount < 0) {
             throw new IllegalArgumentException("Argument suggestionsCount must be positive int.");
         }
-        try (var outputStream = new PrintWriter(output)) {
-            var inputStream = new StringReader(new BufferedReader(textReader).lines()
-                .collect(Collectors.joining(System.lineSeparator())));
-
-            String text = readTextFromStringReader(inputStream);
-            outputStream.write(text + System.lineSeparator());
-            Metadata metadata;
-            try (var metadataInput = new StringReader(text)) {
-                metadata = metadata(metadataInput);
+        var metadata = new MetadataCounter(metrics.startTimer());
+        try (var outputStream = new PrintWriter(output);
+             var findings = new FindingsBuffer()) {
+            var inputStream = new BufferedReader(metadata.countCharacters(textReader));
+            var tokenizer = new Tokenizer();
+            var word = new WordBuffer();
+            int numberOfLine = TEXT_LINE_COUNTER_BEGIN_VALUE;
+            String line;
+            while ((line = inputStream.readLine()) != null) {
+                metadata.lap(Phase.READING);
+                outputStream.write(line);
+                outputStream.write(System.lineSeparator());
+                metadata.lap(Phase.WRITING);
+                metadata.characters += getNumberOfCharacters(line);
+                metadata.lap(Phase.CHARACTER_COUNTING);
+                tokenizer.reset(line);
+                while (tokenizer.next()) {
+                    if (countWord(line, tokenizer.start(), tokenizer.end(), word, metadata)) {
+                        String misspelledWord = line.substring(tokenizer.start(), tokenizer.end());
+                        findings.add(buildFinding(numberOfLine, misspelledWord, suggestionsCount));
+                        metadata.lap(Phase.SUGGESTION_RANKING);
+                    }
+                }
+                numberOfLine++;
+            }
+            metadata.lap(Phase.READING);
+            if (numberOfLine == TEXT_LINE_COUNTER_BEGIN_VALUE) { // the text is echoed even when empty
+                outputStream.write(System.lineSeparator());
             }
-            writeMetadataToStream(metadata, outputStream);
-            List<String> findings = getFindingsLines(text, suggestionsCount);
-            writeFindingsToStream(findings, outputStream);
+
+            writeReport(metadata.toMetadata(), findings, outputStream);
             outputStream.flush();
+            metadata.lap(Phase.WRITING);
         } catch (IOException e) {
             throw new RuntimeException("I/O streaming failed due to: " + e);
         } catch (Exception e) {
             throw new RuntimeException("Analyzing text failed due to: " + e);
+        } finally {
+            metadata.stopTimer();
         }
     }
 
-    private String readTextFromStringReader(StringReader inputStream) {
-        Scanner scanner = new Scanner(inputStream).useDelimiter("\\A");
-        return scanner.hasNext() ? scanner.next() : "";
-    }
-
 
     @Override
     public Metadata metadata(Reader textReader) {
         if (textReader == null) {
             throw new IllegalArgumentException("Argument textReader must not be null.");
         }
-        StringReader inputStream = (StringReader) textReader;
-        String text = readTextFromStringReader(inputStream);
-
-        return new Metadata(getNumberOfCharacters(text), getNumberOfWords(text),
-            getNumberOfMistakes(text));
+        var metadata = new MetadataCounter(metrics.startTimer());
+        try {
+            var inputStream = new BufferedReader(metadata.countCharacters(textReader));
+            var tokenizer = new Tokenizer();
+            var word = new WordBuffer();
+            String line;
+            while ((line = inputStream.readLine()) != null) {
+                metadata.lap(Phase.READING);
+                metadata.characters += getNumberOfCharacters(line);
+                metadata.lap(Phase.CHARACTER_COUNTING);
+                tokenizer.reset(line);
+                while (tokenizer.next()) {
+                    countWord(line, tokenizer.start(), tokenizer.end(), word, metadata);
+                }
+            }
+            metadata.lap(Phase.READING);
+            return metadata.toMetadata();
+        } catch (IOException e) {
+            throw new RuntimeException("I/O streaming failed due to: " + e);
+        } finally {
+            metadata.stopTimer();
+        }
     }
 
-    private int getNumberOfCharacters(String inputText) {
-        return inputText.lines()
-            .collect(Collectors.joining())
-            .replaceAll("\\s+", "")
-            .length();
+    /**
+     * Opens an editing session over the text in {@code textReader}. The session keeps the findings and metadata
+     * of every line, so edits re-check only the lines they change.
+     */
+    public SpellCheckSession openSession(Reader textReader, int suggestionsCount) {
+        if (textReader == null) {
+            throw new IllegalArgumentException("Argument textReader must not be null.");
+        }
+        if (suggestionsCount < 0) {
+            throw new IllegalArgumentException("Argument suggestionsCount must be positive int.");
+        }
+        try {
+            var inputStream = new BufferedReader(textReader);
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = inputStream.readLine()) != null) {
+                lines.add(line);
+            }
+            return new SpellCheckSession(this, lines, suggestionsCount);
+        } catch (IOException e) {
+            throw new RuntimeException("I/O streaming failed due to: " + e);
+        }
     }
 
-    private int getNumberOfWords(String inputString) {
-
-        List<String> wordsInText = Arrays.stream(inputString.lines()
-            .collect(Collectors.joining(" "))
-            .split(" "))
-            .collect(Collectors.toList());
+    LineAnalysis analyzeLine(String line, int suggestionsCount) {
+        var metadata = new MetadataCounter(null); // sessions report only the candidates scored
+        var tokenizer = new Tokenizer();
+        var word = new WordBuffer();
+        List<LineAnalysis.Misspelling> misspellings = new ArrayList<>();
+        metadata.characters += getNumberOfCharacters(line);
+        tokenizer.reset(line);
+        while (tokenizer.next()) {
+            if (countWord(line, tokenizer.start(), tokenizer.end(), word, metadata)) {
+                String misspelledWord = line.substring(tokenizer.start(), tokenizer.end());
+                misspellings.add(new LineAnalysis.Misspelling(misspelledWord,
+                    suggestionsCount > 0 ? findClosestWords(misspelledWord, suggestionsCount) : List.of()));
+            }
+        }
+        return new LineAnalysis(metadata.toMetadata(), misspellings);
+    }
 
-        return (int) wordsInText.stream()
-            .filter(w -> !isNonAlphaNumericWord(w) && !stopwords.contains(reformatToSpellCheckerWord(w)))
-            .count();
+    void writeReport(Metadata metadata, FindingsBuffer findings, PrintWriter outputStream) throws IOException {
+        writeMetadataToStream(metadata, outputStream);
+        writeFindingsToStream(findings, outputStream);
     }
 
-    private int getNumberOfMistakes(String inputString) {
-        String[] wordsInText = inputString.split(" |\r\n|\n");
+    private int getNumberOfCharacters(String line) {
+        int lineLength = line.length();
         int result = 0;
-        for (String word : wordsInText) {
-            String spellCheckerFormatWord = reformatToSpellCheckerWord(word);
-            if (!dictionary.contains(spellCheckerFormatWord)
-                && !stopwords.contains(spellCheckerFormatWord)
-                && !spellCheckerFormatWord.equals("")) { // "" in case of non-alphanumeric unprocessed word
+        for (int i = 0; i < lineLength; ++i) {
+            if (!isWhitespace(line.charAt(i))) {
                 result++;
             }
         }
         return result;
     }
 
+    private boolean isWhitespace(char c) {
+        // same set as the regex \s
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Adds the word at [{@code start}, {@code end}) of {@code line} to the words and mistakes counted
+     * in {@code metadata}. {@code word} is used as a buffer for the word in spell checker format.
+     *
+     * @return whether the word is a spelling mistake
+     */
+    private boolean countWord(String line, int start, int end, WordBuffer word, MetadataCounter metadata) {
+        toSpellCheckerWord(line, start, end, word);
+        metadata.lap(Phase.TOKENIZING);
+        boolean isStopword = stopwords.contains(word);
+        if (!isNonAlphaNumericWord(line, start, end) && !isStopword) {
+            metadata.words++;
+        }
+        boolean isMistake = word.length() > 0 && !isStopword && !dictionary.contains(word);
+        metadata.lap(Phase.DICTIONARY_LOOKUP);
+        if (isMistake) {
+            metadata.mistakes++;
+        }
+        return isMistake;
+    }
+
+    /**
+     * Writes the word at [{@code start}, {@code end}) of {@code text} in spell checker format to {@code word},
+     * as {@link #reformatToSpellCheckerWord} does, without creating Strings for ASCII words.
+     */
+    private void toSpellCheckerWord(String text, int start, int end, WordBuffer word) {
+        word.clear();
+        while (start < end && text.charAt(start) <= ' ') { // String#trim
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        boolean isNonAlphaNumeric = true;
+        int wordBegin = -1;
+        int wordLast = -1;
+        for (int i = start; i < end; ++i) {
+            char c = text.charAt(i);
+            if (c > LAST_ASCII_CHAR) { // lower case is not a per-char mapping outside ASCII
+                word.append(reformatToSpellCheckerWord(text.substring(start, end)));
+                return;
+            }
+
+            c = toLowerCaseAscii(c);
+            isNonAlphaNumeric &= !isAlphaNumericChar(c);
+            if (isSpellCheckerWordBoundary(c)) {
+                wordBegin = wordBegin < 0 ? i : wordBegin;
+                wordLast = i;
+            }
+        }
+
+        if (isNonAlphaNumeric) {
+            return;
+        }
+        if (wordBegin < 0) { // fails the same way as reformatToSpellCheckerWord
+            word.append(reformatToSpellCheckerWord(text.substring(start, end)));
+            return;
+        }
+        for (int i = wordBegin; i <= wordLast; ++i) {
+            word.append(toLowerCaseAscii(text.charAt(i)));
+        }
+    }
+
+    private char toLowerCaseAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
     private void writeMetadataToStream(Metadata metadata, PrintWriter outputStream) {
         outputStream.println(METADATA_TITLE);
         outputStream.write(metadata.characters() + " characters, "
@@ -171,18 +560,24 @@ public class NaiveSpellChecker implements SpellChecker {
 
 
     private boolean isNonAlphaNumericWord(String word) {
-        int wordLength = word.length();
-        for (int i = 0; i < wordLength; ++i) {
-            char charAtI = word.charAt(i);
-            if ((charAtI > 'a' && charAtI < 'z')
-                || (charAtI > 'A' && charAtI < 'Z')
-                || (charAtI > 0 && charAtI < 9)) {
+        return isNonAlphaNumericWord(word, 0, word.length());
+    }
+
+    private boolean isNonAlphaNumericWord(String text, int start, int end) {
+        for (int i = start; i < end; ++i) {
+            if (isAlphaNumericChar(text.charAt(i))) {
                 return false;
             }
         }
         return true;
     }
 
+    private boolean isAlphaNumericChar(char c) {
+        return (c > 'a' && c < 'z')
+            || (c > 'A' && c < 'Z')
+            || (c > 0 && c < 9);
+    }
+
     private String reformatToSpellCheckerWord(String word) {
         return removeLeadingAndTrailingNonAlphanumericCharacters(word.trim().toLowerCase());
     }
@@ -192,87 +587,37 @@ public class NaiveSpellChecker implements SpellChecker {
             return "";
         }
 
-        String resultString = removeLeadingNonAlphanumericChars(string);
-        return removeTrailingNonAlphanumericChars(resultString);
-    }
-
-    private String removeLeadingNonAlphanumericChars(String string) {
-        StringBuilder resultString = new StringBuilder(string);
-        while (true) {
-            char charAtI = resultString.charAt(0);
-            if ((charAtI >= 'a' && charAtI <= 'z')
-                || (charAtI >= '0' && charAtI <= '9')) {
-                break;
-            } else {
-                resultString.deleteCharAt(0);
-            }
+        int begin = 0;
+        while (!isSpellCheckerWordBoundary(string.charAt(begin))) {
+            begin++;
         }
-        return resultString.toString();
-    }
-
-    private String removeTrailingNonAlphanumericChars(String string) {
-        StringBuilder resultString = new StringBuilder(string);
-        int lastStringIndex = string.length() - 1;
-        while (true) {
-            char charAtI = resultString.charAt(lastStringIndex);
-            if ((charAtI >= 'a' && charAtI <= 'z')
-                || (charAtI >= '0' && charAtI <= '9')) {
-                break;
-            } else {
-                resultString.deleteCharAt(lastStringIndex--);
-            }
+        int end = string.length();
+        while (!isSpellCheckerWordBoundary(string.charAt(end - 1))) {
+            end--;
         }
-        return resultString.toString();
+        return string.substring(begin, end);
     }
 
-
-    private List<String> getFindingsLines(String text, int suggestionsCount)
-            throws IOException {
-        List<String> result = new ArrayList<>();
-        int numberOfLine = TEXT_LINE_COUNTER_BEGIN_VALUE;
-        String[] lines = text.split(System.lineSeparator());
-        for (String line : lines) {
-            String inputLineFindings = getFindingsForLine(line, numberOfLine++, suggestionsCount);
-            if (!inputLineFindings.equals("")) {
-                result.add(inputLineFindings);
-            }
-        }
-        if (result.isEmpty()) {
-            result.add("No spelling issues found.");
-        }
-        return result;
+    private boolean isSpellCheckerWordBoundary(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
     }
 
-    private String getFindingsForLine(String inputLine, int numberOfLine, int suggestionsCount) {
-        String[] wordsInLine = inputLine.split(" ");
-        StringBuilder outputLine = new StringBuilder();
-        for (String word : wordsInLine) {
-            String wordInSpellCheckerFormat = reformatToSpellCheckerWord(word);
-            if (isMisspelledWord(wordInSpellCheckerFormat)) {
-                outputLine.append(buildFindingLine(numberOfLine, word, suggestionsCount));
-            }
-        }
-        return outputLine.toString();
-    }
 
-    private boolean isMisspelledWord(String word) {
-        return !dictionary.contains(word) && !stopwords.contains(word) && !word.equals("");
+    private StringBuilder buildFinding(int numberOfLine, String word, int suggestionsCount) {
+        return formatFinding(numberOfLine, word, suggestionsCount,
+            suggestionsCount > 0 ? findClosestWords(word, suggestionsCount) : List.of());
     }
 
-    private StringBuilder buildFindingLine(int numberOfLine, String word, int suggestionsCount) {
-        StringBuilder findingLine = new StringBuilder();
-        findingLine.append("Line #").append(numberOfLine).append(", {").append(word)
+    static StringBuilder formatFinding(int numberOfLine, String word, int suggestionsCount, List<String> suggestions) {
+        StringBuilder finding = new StringBuilder();
+        finding.append("Line #").append(numberOfLine).append(", {").append(word)
             .append("}");
         if (suggestionsCount > 0) {
-            findingLine.append(" - Possible suggestions are {");
-
-            findingLine.append(String.join(", ", findClosestWords(word, suggestionsCount)));
-
-            int findingLineLength = findingLine.length();
-            findingLine.delete(findingLineLength - 2, findingLineLength); // delete last ", "
-            findingLine.append("}").append(System.lineSeparator());
+            finding.append(" - Possible suggestions are {")
+                .append(String.join(", ", suggestions))
+                .append("}");
         }
-        return findingLine;
+        return finding;
     }
 
     @Override
@@ -287,25 +632,128 @@ public class NaiveSpellChecker implements SpellChecker {
             return Collections.emptyList();
         }
 
-        Map<String, Double> dictWordsToCosSim = dictionary.stream()
-            .collect(Collectors.toMap(Function.identity(), x -> calcCosineSimilarity(x, word)));
+        List<String> closestWords = suggestionsCache.get(word, n);
+        if (closestWords == null) {
+            closestWords = List.copyOf(suggestionMode == SuggestionMode.EDIT_DISTANCE
+                ? findWordsWithinEditDistance(word, n)
+                : rankClosestWords(word, n));
+            suggestionsCache.put(word, n, closestWords);
+        }
+        return closestWords;
+    }
+
+    @Override
+    public SpellCheckerMetrics metrics() {
+        return metrics;
+    }
 
-        return dictWordsToCosSim.entrySet().stream()
-            .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder())).limit(n)
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toList());
+    public CacheStats getSuggestionsCacheStats() {
+        return suggestionsCache.stats();
     }
 
-    private void writeFindingsToStream(List<String> findings, PrintWriter outputStream) {
+    private List<String> rankClosestWords(String word, int n) {
+        // words sharing no bigram with word are not scored if the similarity ranks them all last
+        BitSet candidates = bigramIndex != null ? bigramIndex.findCandidates(BigramVector.of(word)) : null;
+        PriorityQueue<ScoredWord> closestWords = new PriorityQueue<>(n + 1, BY_SIMILARITY.reversed());
+        int[] block = new int[SCORE_BLOCK_SIZE];
+        double[] scores = new double[SCORE_BLOCK_SIZE];
+        int blockSize = 0;
+        int next = candidates != null ? candidates.nextSetBit(0) : 0;
+        while (next >= 0 && next < rankingWords.length) {
+            block[blockSize++] = next;
+            if (blockSize == SCORE_BLOCK_SIZE) {
+                scoreBlock(word, block, blockSize, scores, closestWords, n);
+                blockSize = 0;
+            }
+            next = candidates != null ? candidates.nextSetBit(next + 1) : next + 1;
+        }
+        scoreBlock(word, block, blockSize, scores, closestWords, n);
+
+        List<ScoredWord> ranking = new ArrayList<>(closestWords);
+        ranking.sort(BY_SIMILARITY);
+        List<String> result = new ArrayList<>(n);
+        for (ScoredWord scoredWord : ranking) {
+            result.add(rankingWords[scoredWord.index()]);
+        }
+
+        // the rest of the dictionary shares no bigram with word, so all of it ties with the lowest similarity
+        for (int i = 0; candidates != null && i < rankingWords.length && result.size() < n; ++i) {
+            if (!candidates.get(i)) {
+                result.add(rankingWords[i]);
+            }
+        }
+        return result;
+    }
+
+    private void scoreBlock(String word, int[] block, int blockSize, double[] scores,
+                            PriorityQueue<ScoredWord> closestWords, int n) {
+        if (blockSize == 0) {
+            return;
+        }
+
+        candidateScorer.score(word, block, blockSize, scores);
+        metrics.addCandidatesScored(blockSize);
+        for (int i = 0; i < blockSize; ++i) {
+            if (closestWords.size() < n) {
+                closestWords.add(new ScoredWord(block[i], scores[i]));
+            } else if (scores[i] > closestWords.peek().similarity()) { // ties keep the earlier word
+                closestWords.poll();
+                closestWords.add(new ScoredWord(block[i], scores[i]));
+            }
+        }
+    }
+
+    private List<String> findWordsWithinEditDistance(String word, int n) {
+        // the dictionary is normalized, so case and surrounding punctuation would only add to the distance
+        List<DeletionIndex.Match> matches = editDistanceIndex.search(reformatToSpellCheckerWord(word),
+            SuggestionMode.MAX_EDIT_DISTANCE);
+
+        List<String> result = new ArrayList<>(Math.min(n, matches.size()));
+        for (DeletionIndex.Match match : matches.subList(0, Math.min(n, matches.size()))) {
+            result.add(match.word());
+        }
+        return result;
+    }
+
+    private record ScoredWord(int index, double similarity) {
+    }
+
+    private void writeFindingsToStream(FindingsBuffer findings, PrintWriter outputStream) throws IOException {
         outputStream.println(FINDINGS_TITLE);
-        int lastIndexOfFindings = findings.size() - 1;
-        int findingsCounter = 0;
-        for (String finding : findings) {
-            findingsCounter++;
-            if (findingsCounter < lastIndexOfFindings) {
-                outputStream.write(finding);
-            } else {
-                outputStream.write(finding.stripTrailing()); //remove new line at the end of the file
+        if (findings.isEmpty()) {
+            outputStream.write(NO_FINDINGS_MESSAGE);
+        } else {
+            findings.writeTo(outputStream);
+        }
+    }
+
+    private static final class MetadataCounter {
+        private final PhaseTimer timer; // null while metrics are disabled
+        private int characters;
+        private int words;
+        private int mistakes;
+
+        private MetadataCounter(PhaseTimer timer) {
+            this.timer = timer;
+        }
+
+        private Metadata toMetadata() {
+            return new Metadata(characters, words, mistakes);
+        }
+
+        private Reader countCharacters(Reader reader) {
+            return timer != null ? timer.countCharacters(reader) : reader;
+        }
+
+        private void lap(Phase phase) {
+            if (timer != null) {
+                timer.lap(phase);
+            }
+        }
+
+        private void stopTimer() {
+            if (timer != null) {
+                timer.stop(words, mistakes);
             }
         }
     }
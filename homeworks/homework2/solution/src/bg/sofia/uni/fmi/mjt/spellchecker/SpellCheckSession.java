@@ -0,0 +1,146 @@
+package bg.sofia.uni.fmi.mjt.spellchecker;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SpellCheckSession {
+    //A text being edited, kept line by line together with each line's metadata and findings,
+    //so an edit re-checks only the lines it replaces. Not safe for concurrent edits.
+
+    private final NaiveSpellChecker spellChecker;
+    private final int suggestionsCount;
+    private final List<CheckedLine> lines = new ArrayList<>();
+
+    private int characters;
+    private int words;
+    private int mistakes;
+
+    SpellCheckSession(NaiveSpellChecker spellChecker, List<String> textLines, int suggestionsCount) {
+        this.spellChecker = spellChecker;
+        this.suggestionsCount = suggestionsCount;
+        for (String line : textLines) {
+            lines.add(check(line));
+        }
+    }
+
+    public int getSuggestionsCount() {
+        return suggestionsCount;
+    }
+
+    public int lineCount() {
+        return lines.size();
+    }
+
+    public String line(int numberOfLine) {
+        if (numberOfLine < 1 || numberOfLine > lines.size()) {
+            throw new IllegalArgumentException("Argument numberOfLine must be between 1 and " + lines.size() + ".");
+        }
+        return lines.get(numberOfLine - 1).text();
+    }
+
+    public Metadata metadata() {
+        return new Metadata(characters, words, mistakes);
+    }
+
+    public List<Finding> findings() {
+        List<Finding> result = new ArrayList<>();
+        for (int i = 0; i < lines.size(); ++i) {
+            addFindings(result, i + 1, lines.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Replaces {@code lineCount} lines starting at line {@code firstLine} (1-based) with the lines of {@code text},
+     * as {@link java.io.BufferedReader#readLine()} splits them, and re-checks only them.
+     * A {@code lineCount} of 0 inserts before {@code firstLine}, which may be one past the last line.
+     * An empty {@code text} deletes the lines.
+     *
+     * @return the findings removed and added by the edit
+     */
+    public FindingsDiff replaceLines(int firstLine, int lineCount, String text) {
+        if (firstLine < 1 || firstLine > lines.size() + 1) {
+            throw new IllegalArgumentException("Argument firstLine must be between 1 and " + (lines.size() + 1) + ".");
+        }
+        if (lineCount < 0 || firstLine - 1 + lineCount > lines.size()) {
+            throw new IllegalArgumentException("Argument lineCount must not reach past the last line.");
+        }
+        if (text == null) {
+            throw new IllegalArgumentException("Argument text must not be null.");
+        }
+
+        List<CheckedLine> replacedLines = lines.subList(firstLine - 1, firstLine - 1 + lineCount);
+        List<Finding> removed = new ArrayList<>();
+        for (int i = 0; i < replacedLines.size(); ++i) {
+            uncount(replacedLines.get(i));
+            addFindings(removed, firstLine + i, replacedLines.get(i));
+        }
+        replacedLines.clear();
+
+        List<CheckedLine> addedLines = text.lines().map(this::check).toList();
+        List<Finding> added = new ArrayList<>();
+        for (int i = 0; i < addedLines.size(); ++i) {
+            addFindings(added, firstLine + i, addedLines.get(i));
+        }
+        lines.addAll(firstLine - 1, addedLines);
+
+        return new FindingsDiff(firstLine, lineCount, addedLines.size(), removed, added);
+    }
+
+    /**
+     * Writes the current text in the format of {@link NaiveSpellChecker#analyze}, without re-checking it.
+     */
+    public void writeAnalysis(Writer output) {
+        if (output == null) {
+            throw new IllegalArgumentException("Argument output must not be null.");
+        }
+        try (var outputStream = new PrintWriter(output);
+             var findings = new FindingsBuffer()) {
+            for (int i = 0; i < lines.size(); ++i) {
+                CheckedLine line = lines.get(i);
+                outputStream.write(line.text());
+                outputStream.write(System.lineSeparator());
+                for (LineAnalysis.Misspelling misspelling : line.analysis().misspellings()) {
+                    findings.add(NaiveSpellChecker.formatFinding(i + 1, misspelling.word(),
+                        suggestionsCount, misspelling.suggestions()));
+                }
+            }
+            if (lines.isEmpty()) { // the text is echoed even when empty
+                outputStream.write(System.lineSeparator());
+            }
+
+            spellChecker.writeReport(metadata(), findings, outputStream);
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("I/O streaming failed due to: " + e);
+        }
+    }
+
+    private CheckedLine check(String text) {
+        CheckedLine line = new CheckedLine(text, spellChecker.analyzeLine(text, suggestionsCount));
+        Metadata contribution = line.analysis().metadata();
+        characters += contribution.characters();
+        words += contribution.words();
+        mistakes += contribution.mistakes();
+        return line;
+    }
+
+    private void uncount(CheckedLine line) {
+        Metadata contribution = line.analysis().metadata();
+        characters -= contribution.characters();
+        words -= contribution.words();
+        mistakes -= contribution.mistakes();
+    }
+
+    private static void addFindings(List<Finding> findings, int numberOfLine, CheckedLine line) {
+        for (LineAnalysis.Misspelling misspelling : line.analysis().misspellings()) {
+            findings.add(new Finding(numberOfLine, misspelling.word(), misspelling.suggestions()));
+        }
+    }
+
+    private record CheckedLine(String text, LineAnalysis analysis) {
+    }
+}
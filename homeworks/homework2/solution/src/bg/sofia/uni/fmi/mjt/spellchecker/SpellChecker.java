@@ -1,5 +1,7 @@
 package bg.sofia.uni.fmi.mjt.spellchecker;
 
+import bg.sofia.uni.fmi.mjt.spellchecker.metrics.SpellCheckerMetrics;
+
 import java.io.Reader;
 import java.io.Writer;
 import java.util.List;
@@ -35,4 +37,16 @@ public interface SpellChecker {
      */
     List<String> findClosestWords(String word, int n);
 
+    /**
+     * Returns the metrics of this spell checker - time per phase of {@code analyze} and {@code metadata},
+     * and counts of the words, misspellings, scored suggestion candidates and characters read.
+     * They are recorded only after {@link SpellCheckerMetrics#setEnabled(boolean)} and cost next to nothing before.
+     * Implementations not recording metrics return {@link SpellCheckerMetrics#UNSUPPORTED}.
+     *
+     * @return the metrics of this spell checker
+     */
+    default SpellCheckerMetrics metrics() {
+        return SpellCheckerMetrics.UNSUPPORTED;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package bg.sofia.uni.fmi.mjt.spellchecker;
+
+public enum SuggestionMode {
+    /**
+     * Suggestions are the dictionary words ranked highest by a
+     * {@link bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.WordSimilarity},
+     * by default the cosine similarity of their bigrams.
+     */
+    RANKED_SIMILARITY,
+
+    /**
+     * Suggestions are the dictionary words within {@link #MAX_EDIT_DISTANCE} Levenshtein distance, closest first.
+     */
+    EDIT_DISTANCE;
+
+    public static final int MAX_EDIT_DISTANCE = 2;
+}
@@ -0,0 +1,150 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.batch;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.SpellChecker;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public final class BatchSpellChecker implements AutoCloseable {
+    //Analyzes many documents concurrently with one shared SpellChecker.
+    //The SpellChecker must be safe for concurrent reads, as NaiveSpellChecker is once constructed.
+
+    private final SpellChecker spellChecker;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    public BatchSpellChecker(SpellChecker spellChecker) {
+        this(spellChecker, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchSpellChecker(SpellChecker spellChecker, int parallelism) {
+        this(spellChecker, createPool(parallelism), true);
+    }
+
+    /**
+     * Uses {@code executor} (e.g. a fork-join or a virtual-thread-per-task executor) for the analyses.
+     * The executor is not shut down by {@link #close()}.
+     */
+    public BatchSpellChecker(SpellChecker spellChecker, ExecutorService executor) {
+        this(spellChecker, executor, false);
+    }
+
+    private BatchSpellChecker(SpellChecker spellChecker, ExecutorService executor, boolean ownsExecutor) {
+        if (spellChecker == null) {
+            throw new IllegalArgumentException("Argument spellChecker must not be null.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Argument executor must not be null.");
+        }
+
+        this.spellChecker = spellChecker;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    private static ExecutorService createPool(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Argument parallelism must be positive int.");
+        }
+        return new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Analyzes every document as {@link SpellChecker#analyze} does, writing each result to the document's output.
+     * Returns after all documents are analyzed.
+     */
+    public void analyze(List<Document> documents, int suggestionsCount) {
+        if (documents == null) {
+            throw new IllegalArgumentException("Argument documents must not be null.");
+        }
+        if (suggestionsCount < 0) {
+            throw new IllegalArgumentException("Argument suggestionsCount must be positive int.");
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            if (document == null || document.textReader() == null || document.output() == null) {
+                throw new IllegalArgumentException("Documents must have non-null reader and output.");
+            }
+            tasks.add(() -> {
+                spellChecker.analyze(document.textReader(), document.output(), suggestionsCount);
+                return null;
+            });
+        }
+        runAll(tasks);
+    }
+
+    /**
+     * Analyzes every regular file in {@code textsDirectory}.
+     * The analysis of each file is written to a file with the same name in {@code outputDirectory}.
+     */
+    public void analyzeDirectory(Path textsDirectory, Path outputDirectory, int suggestionsCount) {
+        if (textsDirectory == null || outputDirectory == null) {
+            throw new IllegalArgumentException("Directory arguments must not be null.");
+        }
+        if (suggestionsCount < 0) {
+            throw new IllegalArgumentException("Argument suggestionsCount must be positive int.");
+        }
+
+        List<Path> texts;
+        try (Stream<Path> files = Files.list(textsDirectory)) {
+            texts = files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            Files.createDirectories(outputDirectory);
+        } catch (IOException e) {
+            throw new RuntimeException("Listing documents failed due to: " + e);
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>(texts.size());
+        for (Path text : texts) {
+            Path output = outputDirectory.resolve(text.getFileName());
+            tasks.add(() -> {
+                try (Reader textReader = Files.newBufferedReader(text);
+                     Writer outputWriter = Files.newBufferedWriter(output)) {
+                    spellChecker.analyze(textReader, outputWriter, suggestionsCount);
+                }
+                return null;
+            });
+        }
+        runAll(tasks);
+    }
+
+    private void runAll(List<Callable<Void>> tasks) {
+        List<Future<Void>> results;
+        try {
+            results = executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Batch analysis was interrupted.");
+        }
+
+        for (Future<Void> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Analyzing document failed due to: " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Batch analysis was interrupted.");
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
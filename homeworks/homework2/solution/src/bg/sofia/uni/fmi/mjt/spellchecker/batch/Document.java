@@ -0,0 +1,7 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.batch;
+
+import java.io.Reader;
+import java.io.Writer;
+
+public record Document(Reader textReader, Writer output) {
+}
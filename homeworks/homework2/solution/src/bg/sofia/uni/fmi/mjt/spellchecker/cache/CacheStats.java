@@ -0,0 +1,4 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.cache;
+
+public record CacheStats(long hits, long misses, long evictions, int size) {
+}
@@ -0,0 +1,78 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.cache;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class SuggestionsCache {
+    //Bounded LRU cache word -> closest words - used by NaiveSpellChecker#findClosestWords.
+    //Only the longest computed list is kept per word: the n closest words are a prefix of the m closest for m > n.
+
+    private final int capacity;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SuggestionsCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Argument capacity must not be negative.");
+        }
+
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > SuggestionsCache.this.capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached {@code n} closest words to {@code word} or null if they are not cached.
+     */
+    public List<String> get(String word, int n) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(word);
+        }
+
+        if (entry == null || entry.n() < n) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.closestWords().size() > n ? entry.closestWords().subList(0, n) : entry.closestWords();
+    }
+
+    public void put(String word, int n, List<String> closestWords) {
+        if (capacity == 0) {
+            return;
+        }
+
+        Entry entry = new Entry(n, List.copyOf(closestWords));
+        synchronized (entries) {
+            Entry cached = entries.get(word);
+            if (cached == null || cached.n() < n) {
+                entries.put(word, entry);
+            }
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private record Entry(int n, List<String> closestWords) {
+    }
+}
@@ -0,0 +1,110 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.index;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.snapshot.SnapshotInput;
+import bg.sofia.uni.fmi.mjt.spellchecker.snapshot.SnapshotOutput;
+import bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.BigramVector;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class BigramIndex {
+    //Inverted index bigram -> dictionary words - used by NaiveSpellChecker#findClosestWords
+    //to score only the words sharing a bigram with the misspelled word
+
+    private final int size;
+
+    // sorted distinct bigram codes;
+    // the indexes of the words containing bigrams[i] are postings[offsets[i]..offsets[i + 1])
+    private final int[] bigrams;
+    private final int[] offsets;
+    private final int[] postings;
+
+    /**
+     * Indexes {@code words}, which are then referred to by their positions in the array.
+     */
+    public BigramIndex(String[] words) {
+        if (words == null) {
+            throw new IllegalArgumentException("Argument words must not be null.");
+        }
+
+        size = words.length;
+        Map<Integer, List<Integer>> bigramToWords = groupWordsByBigram(words);
+        bigrams = bigramToWords.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        offsets = new int[bigrams.length + 1];
+        for (int i = 0; i < bigrams.length; ++i) {
+            offsets[i + 1] = offsets[i] + bigramToWords.get(bigrams[i]).size();
+        }
+        postings = new int[offsets[bigrams.length]];
+        for (int i = 0; i < bigrams.length; ++i) {
+            int position = offsets[i];
+            for (int wordIndex : bigramToWords.get(bigrams[i])) {
+                postings[position++] = wordIndex;
+            }
+        }
+    }
+
+    private BigramIndex(int size, int[] bigrams, int[] offsets, int[] postings) {
+        this.size = size;
+        this.bigrams = bigrams;
+        this.offsets = offsets;
+        this.postings = postings;
+    }
+
+    /**
+     * Writes the index so that {@link #readFrom} can restore it without recomputing anything.
+     * The words are not written.
+     */
+    public void writeTo(SnapshotOutput output) throws IOException {
+        output.writeInt(size);
+        output.writeIntArray(bigrams);
+        output.writeIntArray(offsets);
+        output.writeIntArray(postings);
+    }
+
+    public static BigramIndex readFrom(SnapshotInput input) {
+        int size = input.readInt();
+        int[] bigrams = input.readIntArray();
+        int[] offsets = input.readIntArray();
+        int[] postings = input.readIntArray();
+        return new BigramIndex(size, bigrams, offsets, postings);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the indexes of all words sharing at least one bigram with {@code word}.
+     * Words sharing no bigram with {@code word} have zero cosine similarity with it.
+     */
+    public BitSet findCandidates(BigramVector word) {
+        BitSet candidates = new BitSet(size);
+        int wordSize = word.size();
+        for (int i = 0; i < wordSize; ++i) {
+            int position = Arrays.binarySearch(bigrams, word.bigramAt(i));
+            if (position >= 0) {
+                for (int j = offsets[position]; j < offsets[position + 1]; ++j) {
+                    candidates.set(postings[j]);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static Map<Integer, List<Integer>> groupWordsByBigram(String[] words) {
+        Map<Integer, List<Integer>> bigramToWords = new HashMap<>();
+        for (int wordIndex = 0; wordIndex < words.length; ++wordIndex) {
+            BigramVector vector = BigramVector.of(words[wordIndex]);
+            int vectorSize = vector.size();
+            for (int i = 0; i < vectorSize; ++i) { // bigrams in a vector are distinct
+                bigramToWords.computeIfAbsent(vector.bigramAt(i), k -> new ArrayList<>()).add(wordIndex);
+            }
+        }
+        return bigramToWords;
+    }
+}
@@ -0,0 +1,244 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.index;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.snapshot.SnapshotInput;
+import bg.sofia.uni.fmi.mjt.spellchecker.snapshot.SnapshotOutput;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.LevenshteinDistance.calcLevenshteinDistance;
+
+public final class DeletionIndex {
+    //Symmetric deletion index (SymSpell) - used by NaiveSpellChecker#findClosestWords in edit distance mode.
+    //If two words are within Levenshtein distance k, deleting at most k chars from each of them gives a common
+    //string. Every dictionary word is indexed under the hashes of all its deletion variants, so the candidates
+    //for a query are found through the hashes of its own variants and only they are checked with
+    //LevenshteinDistance. A hash collision can only add a candidate, never lose one.
+
+    private static final Comparator<Match> BY_DISTANCE = Comparator
+        .comparingInt(Match::distance)
+        .thenComparingInt(Match::index);
+    private static final int INDEX_BITS = 32;
+    private static final long INDEX_MASK = 0xFFFFFFFFL;
+    private static final int HASH_MULTIPLIER = 31;
+
+    private final String[] words;
+    private final int maxDistance;
+
+    // sorted distinct variant hashes; the words having variant keys[i] are postings[offsets[i]..offsets[i + 1])
+    private final int[] keys;
+    private final int[] offsets;
+    private final int[] postings;
+
+    public DeletionIndex(Collection<String> dictionary, int maxDistance) {
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Argument dictionary must not be null.");
+        }
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Argument maxDistance must not be negative.");
+        }
+
+        this.words = dictionary.toArray(new String[0]);
+        this.maxDistance = maxDistance;
+
+        long[] variantToWord = collectVariants(words, maxDistance);
+        int distinctKeys = 0;
+        for (int i = 0; i < variantToWord.length; ++i) {
+            if (i == 0 || hashOf(variantToWord[i]) != hashOf(variantToWord[i - 1])) {
+                distinctKeys++;
+            }
+        }
+
+        keys = new int[distinctKeys];
+        offsets = new int[distinctKeys + 1];
+        postings = new int[variantToWord.length];
+        int key = -1;
+        for (int i = 0; i < variantToWord.length; ++i) {
+            if (i == 0 || hashOf(variantToWord[i]) != hashOf(variantToWord[i - 1])) {
+                keys[++key] = hashOf(variantToWord[i]);
+                offsets[key] = i;
+            }
+            postings[i] = wordOf(variantToWord[i]);
+        }
+        offsets[distinctKeys] = variantToWord.length;
+    }
+
+    private DeletionIndex(String[] words, int maxDistance, int[] keys, int[] offsets, int[] postings) {
+        this.words = words;
+        this.maxDistance = maxDistance;
+        this.keys = keys;
+        this.offsets = offsets;
+        this.postings = postings;
+    }
+
+    /**
+     * Writes the index so that {@link #readFrom} can restore it. The dictionary itself is not written,
+     * the reader must pass it in the same order.
+     */
+    public void writeTo(SnapshotOutput output) throws IOException {
+        output.writeInt(maxDistance);
+        output.writeIntArray(keys);
+        output.writeIntArray(offsets);
+        output.writeIntArray(postings);
+    }
+
+    public static DeletionIndex readFrom(SnapshotInput input, String[] dictionaryWords) {
+        int maxDistance = input.readInt();
+        int[] keys = input.readIntArray();
+        int[] offsets = input.readIntArray();
+        int[] postings = input.readIntArray();
+        return new DeletionIndex(dictionaryWords, maxDistance, keys, offsets, postings);
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    public int maxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Returns the dictionary words at Levenshtein distance at most {@code distance} from {@code word},
+     * closest first. Words at equal distance keep their dictionary order.
+     */
+    public List<Match> search(String word, int distance) {
+        if (word == null) {
+            throw new IllegalArgumentException("Argument word must not be null.");
+        }
+        if (distance < 0 || distance > maxDistance) {
+            throw new IllegalArgumentException("Argument distance must be between 0 and " + maxDistance + ".");
+        }
+
+        IntList candidates = new IntList();
+        forEachVariantHash(word, distance, hash -> {
+            int key = Arrays.binarySearch(keys, hash);
+            if (key >= 0) {
+                for (int i = offsets[key]; i < offsets[key + 1]; ++i) {
+                    candidates.add(postings[i]);
+                }
+            }
+        });
+
+        int[] wordIndexes = candidates.toSortedArray();
+        List<Match> result = new ArrayList<>();
+        for (int i = 0; i < wordIndexes.length; ++i) {
+            if (i > 0 && wordIndexes[i] == wordIndexes[i - 1]) {
+                continue;
+            }
+            String candidate = words[wordIndexes[i]];
+            int candidateDistance = calcLevenshteinDistance(word, candidate, distance);
+            if (candidateDistance <= distance) {
+                result.add(new Match(candidate, wordIndexes[i], candidateDistance));
+            }
+        }
+
+        result.sort(BY_DISTANCE);
+        return result;
+    }
+
+    private static long[] collectVariants(String[] words, int maxDistance) {
+        LongList variantToWord = new LongList();
+        for (int i = 0; i < words.length; ++i) {
+            long wordIndex = i;
+            forEachVariantHash(words[i], maxDistance,
+                hash -> variantToWord.add((long) hash << INDEX_BITS | wordIndex));
+        }
+
+        long[] result = variantToWord.toSortedArray();
+        int distinct = 0;
+        for (int i = 0; i < result.length; ++i) {
+            if (i == 0 || result[i] != result[i - 1]) { // variants repeat in words like "aab"
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    private static int hashOf(long variantToWord) {
+        return (int) (variantToWord >> INDEX_BITS);
+    }
+
+    private static int wordOf(long variantToWord) {
+        return (int) (variantToWord & INDEX_MASK);
+    }
+
+    private static void forEachVariantHash(String word, int maxDeletions, IntConsumer consumer) {
+        forEachVariantHash(word, 0, maxDeletions, new boolean[word.length()], consumer);
+    }
+
+    private static void forEachVariantHash(String word, int from, int deletionsLeft, boolean[] deleted,
+                                           IntConsumer consumer) {
+        consumer.accept(hashWithoutDeleted(word, deleted));
+        if (deletionsLeft == 0) {
+            return;
+        }
+
+        int wordLength = word.length();
+        for (int i = from; i < wordLength; ++i) {
+            deleted[i] = true;
+            forEachVariantHash(word, i + 1, deletionsLeft - 1, deleted, consumer);
+            deleted[i] = false;
+        }
+    }
+
+    private static int hashWithoutDeleted(String word, boolean[] deleted) {
+        // String#hashCode of the variant, computed without building it
+        int hash = 0;
+        int wordLength = word.length();
+        for (int i = 0; i < wordLength; ++i) {
+            if (!deleted[i]) {
+                hash = HASH_MULTIPLIER * hash + word.charAt(i);
+            }
+        }
+        return hash;
+    }
+
+    public record Match(String word, int index, int distance) {
+    }
+
+    private static final class IntList {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private int[] elements = new int[INITIAL_CAPACITY];
+        private int size;
+
+        private void add(int element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = element;
+        }
+
+        private int[] toSortedArray() {
+            int[] result = Arrays.copyOf(elements, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    private static final class LongList {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private long[] elements = new long[INITIAL_CAPACITY];
+        private int size;
+
+        private void add(long element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = element;
+        }
+
+        private long[] toSortedArray() {
+            long[] result = Arrays.copyOf(elements, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.metrics;
+
+import java.util.Map;
+
+public record MetricsSnapshot(Map<Phase, Long> phaseNanos, long words, long misspellings, long candidatesScored,
+                              long charactersRead) {
+
+    public long nanosOf(Phase phase) {
+        return phaseNanos.get(phase);
+    }
+}
@@ -0,0 +1,10 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.metrics;
+
+public enum Phase {
+    READING,             // reading lines from the text reader
+    CHARACTER_COUNTING,  // counting the characters of the metadata
+    TOKENIZING,          // splitting lines into words and normalizing them
+    DICTIONARY_LOOKUP,   // looking the words up in the stopwords and the dictionary
+    SUGGESTION_RANKING,  // finding suggestions for the misspelled words
+    WRITING              // echoing the text and writing metadata and findings
+}
@@ -0,0 +1,58 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.metrics;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+public final class PhaseTimer {
+    //Times the phases of one spell checker call. Every lap ends the running phase and starts the next one.
+    //Not safe for concurrent use - each call has its own timer.
+
+    private final SpellCheckerMetrics metrics;
+    private final long[] nanos = new long[Phase.values().length];
+    private long lapStart;
+    private long charactersRead;
+
+    PhaseTimer(SpellCheckerMetrics metrics) {
+        this.metrics = metrics;
+        this.lapStart = System.nanoTime();
+    }
+
+    /**
+     * Attributes the time since the previous lap to {@code phase}.
+     */
+    public void lap(Phase phase) {
+        long now = System.nanoTime();
+        nanos[phase.ordinal()] += now - lapStart;
+        lapStart = now;
+    }
+
+    /**
+     * Returns {@code reader} counting the characters read through it.
+     */
+    public Reader countCharacters(Reader reader) {
+        return new FilterReader(reader) {
+            @Override
+            public int read() throws IOException {
+                int c = super.read();
+                if (c >= 0) {
+                    charactersRead++;
+                }
+                return c;
+            }
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int count = super.read(buffer, offset, length);
+                if (count > 0) {
+                    charactersRead += count;
+                }
+                return count;
+            }
+        };
+    }
+
+    public void stop(long words, long misspellings) {
+        metrics.add(nanos, words, misspellings, charactersRead);
+    }
+}
@@ -0,0 +1,91 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class SpellCheckerMetrics {
+    //Time per phase and counts of the work done by a spell checker, recorded only while enabled.
+    //Disabled, a call costs one volatile read and every phase change one null check.
+    //Enabled, each call times its phases locally and adds them up here once it ends.
+
+    private static final Phase[] PHASES = Phase.values();
+
+    /**
+     * Metrics of a spell checker that records none, they can not be enabled.
+     */
+    public static final SpellCheckerMetrics UNSUPPORTED = new SpellCheckerMetrics(false);
+
+    private final LongAdder[] phaseNanos = new LongAdder[PHASES.length];
+    private final LongAdder words = new LongAdder();
+    private final LongAdder misspellings = new LongAdder();
+    private final LongAdder candidatesScored = new LongAdder();
+    private final LongAdder charactersRead = new LongAdder();
+    private final boolean supported;
+    private volatile boolean enabled;
+
+    public SpellCheckerMetrics() {
+        this(true);
+    }
+
+    private SpellCheckerMetrics(boolean supported) {
+        this.supported = supported;
+        for (int i = 0; i < PHASES.length; ++i) {
+            phaseNanos[i] = new LongAdder();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (enabled && !supported) {
+            throw new UnsupportedOperationException("This spell checker does not record metrics.");
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns a timer for one call of the spell checker, or null if the metrics are disabled.
+     * The timer must be stopped when the call ends.
+     */
+    public PhaseTimer startTimer() {
+        return enabled ? new PhaseTimer(this) : null;
+    }
+
+    public void addCandidatesScored(long count) {
+        if (enabled) {
+            candidatesScored.add(count);
+        }
+    }
+
+    void add(long[] nanos, long callWords, long callMisspellings, long callCharactersRead) {
+        for (int i = 0; i < PHASES.length; ++i) {
+            phaseNanos[i].add(nanos[i]);
+        }
+        words.add(callWords);
+        misspellings.add(callMisspellings);
+        charactersRead.add(callCharactersRead);
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<Phase, Long> nanos = new EnumMap<>(Phase.class);
+        for (Phase phase : PHASES) {
+            nanos.put(phase, phaseNanos[phase.ordinal()].sum());
+        }
+        return new MetricsSnapshot(Collections.unmodifiableMap(nanos), words.sum(), misspellings.sum(),
+            candidatesScored.sum(), charactersRead.sum());
+    }
+
+    public void reset() {
+        for (LongAdder nanos : phaseNanos) {
+            nanos.reset();
+        }
+        words.reset();
+        misspellings.reset();
+        candidatesScored.reset();
+        charactersRead.reset();
+    }
+}
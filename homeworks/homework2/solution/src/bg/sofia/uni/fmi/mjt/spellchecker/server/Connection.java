@@ -0,0 +1,146 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+final class Connection {
+    //State of one client connection. Only the selector thread touches it, the workers just complete the futures.
+
+    private static final int INITIAL_INPUT_CAPACITY = 1024;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+
+    // bytes [lineStart, limit) are unconsumed input, [lineStart, scanned) of them are known to contain no '\n'
+    private byte[] input = new byte[INITIAL_INPUT_CAPACITY];
+    private int lineStart;
+    private int scanned;
+    private int limit;
+
+    // responses in request order, some possibly still being computed
+    private final Deque<CompletableFuture<String>> pendingResponses = new ArrayDeque<>();
+    private final Deque<ByteBuffer> output = new ArrayDeque<>();
+
+    // the client shut down its output, the connection is closed once the responses to its requests are written
+    private boolean inputEnded;
+
+    Connection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    SocketChannel channel() {
+        return channel;
+    }
+
+    boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    void append(ByteBuffer buffer) {
+        int count = buffer.remaining();
+        if (limit + count > input.length) {
+            int unconsumed = limit - lineStart;
+            byte[] target = unconsumed + count > input.length
+                ? new byte[Math.max(input.length * 2, unconsumed + count)]
+                : input;
+            System.arraycopy(input, lineStart, target, 0, unconsumed);
+            input = target;
+            scanned -= lineStart;
+            limit = unconsumed;
+            lineStart = 0;
+        }
+        buffer.get(input, limit, count);
+        limit += count;
+    }
+
+    /**
+     * Returns the next complete line of input without its line separator, or null if no line is complete yet.
+     */
+    String nextLine() {
+        for (; scanned < limit; ++scanned) {
+            if (input[scanned] == '\n') {
+                int end = scanned > lineStart && input[scanned - 1] == '\r' ? scanned - 1 : scanned;
+                String line = new String(input, lineStart, end - lineStart, StandardCharsets.UTF_8);
+                lineStart = ++scanned;
+                return line;
+            }
+        }
+        return null;
+    }
+
+    boolean isInputEnded() {
+        return inputEnded;
+    }
+
+    /**
+     * Stops reading. The complete lines already read are still served, an incomplete last line is not a request.
+     */
+    void endInput() {
+        inputEnded = true;
+        setReading(false);
+    }
+
+    int bufferedBytes() {
+        return limit - lineStart;
+    }
+
+    /**
+     * Returns the number of requests whose responses are not fully written yet.
+     */
+    int requestsInFlight() {
+        return pendingResponses.size() + output.size();
+    }
+
+    void addPendingResponse(CompletableFuture<String> response) {
+        pendingResponses.addLast(response);
+    }
+
+    /**
+     * Moves the computed responses at the head of the queue to the output, keeping the request order.
+     */
+    void collectCompletedResponses() {
+        while (!pendingResponses.isEmpty() && pendingResponses.peekFirst().isDone()) {
+            String response = pendingResponses.pollFirst()
+                .exceptionally(e -> LineProtocol.error(e.getMessage()))
+                .join();
+            output.addLast(ByteBuffer.wrap((response + '\n').getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * Writes as much output as the socket accepts and waits for OP_WRITE only while some is left.
+     */
+    void flush() throws IOException {
+        while (!output.isEmpty()) {
+            ByteBuffer head = output.peekFirst();
+            channel.write(head);
+            if (head.hasRemaining()) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                return;
+            }
+            output.pollFirst();
+        }
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+    }
+
+    void setReading(boolean reading) {
+        int interestOps = key.interestOps();
+        key.interestOps(reading ? interestOps | SelectionKey.OP_READ : interestOps & ~SelectionKey.OP_READ);
+    }
+
+    void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // the connection is dropped anyway
+        }
+    }
+}
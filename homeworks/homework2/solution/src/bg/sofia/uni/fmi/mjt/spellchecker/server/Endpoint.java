@@ -0,0 +1,27 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.server;
+
+public enum Endpoint {
+    ANALYZE("analyze"),          // analyze <suggestionsCount> <text>
+    METADATA("metadata"),        // metadata <text>
+    CLOSEST_WORDS("closest"),    // closest <word> <n>
+    STATS("stats");              // stats
+
+    private final String command;
+
+    Endpoint(String command) {
+        this.command = command;
+    }
+
+    public String command() {
+        return command;
+    }
+
+    public static Endpoint fromCommand(String command) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.command.equals(command)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+}
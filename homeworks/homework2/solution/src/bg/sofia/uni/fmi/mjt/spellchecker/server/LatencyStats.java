@@ -0,0 +1,5 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.server;
+
+public record LatencyStats(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos,
+                           long maxNanos) {
+}
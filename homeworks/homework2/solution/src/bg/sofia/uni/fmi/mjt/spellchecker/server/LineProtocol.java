@@ -0,0 +1,70 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.server;
+
+public final class LineProtocol {
+    //Every request is one line "<endpoint> <arguments>" and is answered, in request order, by one line
+    //"OK <payload>" or "ERROR <message>". Line breaks and backslashes inside texts are escaped as \n, \r and \\,
+    //so a client can pipeline requests without waiting for the responses.
+
+    public static final String OK = "OK";
+    public static final String ERROR = "ERROR";
+    public static final char SEPARATOR = ' ';
+
+    private static final char ESCAPE = '\\';
+
+    private LineProtocol() {
+    }
+
+    public static String escape(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Argument text must not be null.");
+        }
+
+        StringBuilder result = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\n' -> result.append(ESCAPE).append('n');
+                case '\r' -> result.append(ESCAPE).append('r');
+                case ESCAPE -> result.append(ESCAPE).append(ESCAPE);
+                default -> result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    public static String unescape(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Argument text must not be null.");
+        }
+        if (text.indexOf(ESCAPE) < 0) {
+            return text;
+        }
+
+        StringBuilder result = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            if (c != ESCAPE) {
+                result.append(c);
+                continue;
+            }
+            if (++i == text.length()) {
+                throw new IllegalArgumentException("Text must not end with an unpaired \\.");
+            }
+            switch (text.charAt(i)) {
+                case 'n' -> result.append('\n');
+                case 'r' -> result.append('\r');
+                case ESCAPE -> result.append(ESCAPE);
+                default -> throw new IllegalArgumentException("Unknown escape sequence \\" + text.charAt(i) + ".");
+            }
+        }
+        return result.toString();
+    }
+
+    public static String ok(String payload) {
+        return OK + SEPARATOR + escape(payload);
+    }
+
+    public static String error(String message) {
+        return ERROR + SEPARATOR + escape(message == null ? "" : message);
+    }
+}
@@ -0,0 +1,122 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.server;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.Metadata;
+import bg.sofia.uni.fmi.mjt.spellchecker.SpellChecker;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+final class RequestHandler {
+    //Executes one request line against the shared SpellChecker and records its latency per endpoint.
+
+    private static final String NEXT_ENDPOINT_SEPARATOR = "; ";
+
+    private final SpellChecker spellChecker;
+    private final Map<Endpoint, LatencyHistogram> latencies = new EnumMap<>(Endpoint.class);
+
+    RequestHandler(SpellChecker spellChecker) {
+        this.spellChecker = spellChecker;
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new LatencyHistogram()); // never modified afterwards, so safe to share
+        }
+    }
+
+    LatencyHistogram latencyOf(Endpoint endpoint) {
+        return latencies.get(endpoint);
+    }
+
+    /**
+     * Returns the response line for {@code requestLine}, without line separator. Never throws, failures are
+     * reported as ERROR responses. The latency is measured from {@code receivedNanos}, so it includes queueing.
+     */
+    String handle(String requestLine, long receivedNanos) {
+        int separator = requestLine.indexOf(LineProtocol.SEPARATOR);
+        String command = separator < 0 ? requestLine : requestLine.substring(0, separator);
+        String arguments = separator < 0 ? "" : requestLine.substring(separator + 1);
+
+        Endpoint endpoint = Endpoint.fromCommand(command);
+        if (endpoint == null) {
+            return LineProtocol.error("Unknown command " + command + ".");
+        }
+
+        String response;
+        try {
+            response = LineProtocol.ok(execute(endpoint, arguments));
+        } catch (RuntimeException e) {
+            response = LineProtocol.error(e.getMessage());
+        }
+        latencies.get(endpoint).record(System.nanoTime() - receivedNanos);
+        return response;
+    }
+
+    private String execute(Endpoint endpoint, String arguments) {
+        return switch (endpoint) {
+            case ANALYZE -> analyze(arguments);
+            case METADATA -> metadata(arguments);
+            case CLOSEST_WORDS -> closestWords(arguments);
+            case STATS -> stats();
+        };
+    }
+
+    private String analyze(String arguments) {
+        String[] tokens = arguments.split(String.valueOf(LineProtocol.SEPARATOR), 2);
+        int suggestionsCount = parseInt(tokens[0], "suggestionsCount");
+        String text = tokens.length > 1 ? LineProtocol.unescape(tokens[1]) : "";
+
+        StringWriter output = new StringWriter();
+        spellChecker.analyze(new StringReader(text), output, suggestionsCount);
+        return output.toString();
+    }
+
+    private String metadata(String arguments) {
+        Metadata metadata = spellChecker.metadata(new StringReader(LineProtocol.unescape(arguments)));
+        return metadata.characters() + " " + metadata.words() + " " + metadata.mistakes();
+    }
+
+    private String closestWords(String arguments) {
+        String[] tokens = arguments.split(String.valueOf(LineProtocol.SEPARATOR));
+        if (tokens.length != 2) {
+            throw new IllegalArgumentException("Expected arguments <word> <n>.");
+        }
+
+        List<String> closestWords = spellChecker.findClosestWords(LineProtocol.unescape(tokens[0]),
+            parseInt(tokens[1], "n"));
+        return String.join(" ", closestWords);
+    }
+
+    private String stats() {
+        StringBuilder result = new StringBuilder();
+        for (Endpoint endpoint : Endpoint.values()) {
+            LatencyStats stats = latencies.get(endpoint).stats();
+            if (!result.isEmpty()) {
+                result.append(NEXT_ENDPOINT_SEPARATOR);
+            }
+            result.append(endpoint.command())
+                .append(" count=").append(stats.count())
+                .append(" mean=").append(toMicros(stats.meanNanos()))
+                .append(" p50=").append(toMicros(stats.p50Nanos()))
+                .append(" p90=").append(toMicros(stats.p90Nanos()))
+                .append(" p99=").append(toMicros(stats.p99Nanos()))
+                .append(" p999=").append(toMicros(stats.p999Nanos()))
+                .append(" max=").append(toMicros(stats.maxNanos()))
+                .append("us");
+        }
+        return result.toString();
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static int parseInt(String token, String argumentName) {
+        try {
+            return Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Argument " + argumentName + " must be an int.");
+        }
+    }
+}
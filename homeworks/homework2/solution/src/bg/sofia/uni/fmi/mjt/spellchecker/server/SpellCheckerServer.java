@@ -0,0 +1,302 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.server;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.NaiveSpellChecker;
+import bg.sofia.uni.fmi.mjt.spellchecker.SpellChecker;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+public final class SpellCheckerServer implements AutoCloseable {
+    //Serves one shared SpellChecker over the line protocol described in LineProtocol.
+    //A single selector thread accepts clients, splits their input into requests and writes the responses,
+    //the requests themselves run on a worker pool. Requests of one connection may run in parallel,
+    //their responses are still written in request order. A client may end a batch of requests by shutting down
+    //its output - the connection is closed after the responses to all of them are written.
+
+    private static final String SERVER_HOST = "localhost";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_REQUEST_BYTES = 16 * 1024 * 1024;
+    private static final int MAX_REQUESTS_IN_FLIGHT = 256; // per connection, reading pauses above it
+    private static final int MAX_PORT = 65535;
+
+    private final RequestHandler requestHandler;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int requestedPort;
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private final Queue<Connection> connectionsWithResponses = new ConcurrentLinkedQueue<>();
+
+    private Selector selector;
+    private ServerSocketChannel serverSocketChannel;
+    private Thread selectorThread;
+    private volatile boolean isRunning;
+
+    public SpellCheckerServer(SpellChecker spellChecker, int port) {
+        this(spellChecker, port, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SpellCheckerServer(SpellChecker spellChecker, int port, int workerThreads) {
+        this(spellChecker, port, createPool(workerThreads), true);
+    }
+
+    /**
+     * Runs the requests on {@code executor}. The executor is not shut down by {@link #close()}.
+     */
+    public SpellCheckerServer(SpellChecker spellChecker, int port, ExecutorService executor) {
+        this(spellChecker, port, executor, false);
+    }
+
+    private SpellCheckerServer(SpellChecker spellChecker, int port, ExecutorService executor, boolean ownsExecutor) {
+        if (spellChecker == null) {
+            throw new IllegalArgumentException("Argument spellChecker must not be null.");
+        }
+        if (port < 0 || port > MAX_PORT) {
+            throw new IllegalArgumentException("Argument port must be between 0 and " + MAX_PORT + ".");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Argument executor must not be null.");
+        }
+
+        this.requestHandler = new RequestHandler(spellChecker);
+        this.requestedPort = port;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    private static ExecutorService createPool(int workerThreads) {
+        if (workerThreads <= 0) {
+            throw new IllegalArgumentException("Argument workerThreads must be positive int.");
+        }
+        return Executors.newFixedThreadPool(workerThreads);
+    }
+
+    /**
+     * Usage: SpellCheckerServer port dictionaryFile stopwordsFile.
+     * The dictionary is loaded once and shared by all clients.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.out.println("Usage: SpellCheckerServer <port> <dictionary file> <stopwords file>");
+            return;
+        }
+
+        SpellChecker spellChecker;
+        try (Reader dictionaryReader = Files.newBufferedReader(Path.of(args[1]));
+             Reader stopwordsReader = Files.newBufferedReader(Path.of(args[2]))) {
+            spellChecker = new NaiveSpellChecker(dictionaryReader, stopwordsReader);
+        }
+
+        SpellCheckerServer server = new SpellCheckerServer(spellChecker, Integer.parseInt(args[0]));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+        System.out.println("Spell checker server listening on port " + server.getPort());
+    }
+
+    public synchronized void start() {
+        if (isRunning) {
+            throw new IllegalStateException("Server is already running.");
+        }
+
+        try {
+            selector = Selector.open();
+            serverSocketChannel = ServerSocketChannel.open();
+            serverSocketChannel.bind(new InetSocketAddress(SERVER_HOST, requestedPort));
+            serverSocketChannel.configureBlocking(false);
+            serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new RuntimeException("Starting spell checker server failed due to: " + e);
+        }
+
+        isRunning = true;
+        selectorThread = new Thread(this::run, "spell-checker-server-selector");
+        selectorThread.start();
+    }
+
+    /**
+     * Returns the port the server listens on, which is chosen by the system if the server was created with port 0.
+     */
+    public int getPort() {
+        if (serverSocketChannel == null) {
+            throw new IllegalStateException("Server is not started.");
+        }
+        return serverSocketChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Returns the latency distribution of the requests to {@code endpoint} so far, from reading a request
+     * to having its response ready, including the time waiting for a worker.
+     */
+    public LatencyStats getLatencyStats(Endpoint endpoint) {
+        if (endpoint == null) {
+            throw new IllegalArgumentException("Argument endpoint must not be null.");
+        }
+        return requestHandler.latencyOf(endpoint).stats();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (isRunning) {
+            isRunning = false;
+            selector.wakeup();
+            try {
+                selectorThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void run() {
+        try {
+            while (isRunning) {
+                selector.select();
+                writeCompletedResponses();
+
+                Iterator<SelectionKey> keyIterator = selector.selectedKeys().iterator();
+                while (keyIterator.hasNext()) {
+                    SelectionKey key = keyIterator.next();
+                    keyIterator.remove();
+                    operate(key);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Spell checker server stopped due to: " + e);
+        } finally {
+            closeChannels();
+        }
+    }
+
+    private void operate(SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (connection.isOpen() && key.isWritable()) {
+                connection.flush();
+                dispatchRequests(connection); // requests held back by the in-flight limit
+            }
+        } catch (IOException e) {
+            connection.close(); // the client went away, the others are served on
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverSocketChannel.accept();
+        if (channel == null) {
+            return;
+        }
+
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        Connection connection = new Connection(channel, key);
+        key.attach(connection);
+    }
+
+    private void read(Connection connection) throws IOException {
+        readBuffer.clear();
+        if (connection.channel().read(readBuffer) < 0) {
+            connection.endInput();
+            dispatchRequests(connection);
+            return;
+        }
+
+        readBuffer.flip();
+        connection.append(readBuffer);
+        dispatchRequests(connection);
+    }
+
+    private void dispatchRequests(Connection connection) {
+        while (connection.requestsInFlight() < MAX_REQUESTS_IN_FLIGHT) {
+            String requestLine = connection.nextLine();
+            if (requestLine == null) {
+                break;
+            }
+            long receivedNanos = System.nanoTime();
+            CompletableFuture<String> response;
+            try {
+                response = CompletableFuture.supplyAsync(
+                    () -> requestHandler.handle(requestLine, receivedNanos), executor);
+            } catch (RejectedExecutionException e) {
+                response = CompletableFuture.completedFuture(LineProtocol.error("Server is shutting down."));
+            }
+            connection.addPendingResponse(response);
+            response.whenComplete((line, e) -> {
+                connectionsWithResponses.add(connection);
+                selector.wakeup();
+            });
+        }
+
+        boolean canTakeMore = connection.requestsInFlight() < MAX_REQUESTS_IN_FLIGHT;
+        if (canTakeMore && connection.bufferedBytes() > MAX_REQUEST_BYTES) {
+            connection.close(); // a request line this long is not a request of this protocol
+            return;
+        }
+        if (connection.isInputEnded()) {
+            if (connection.requestsInFlight() == 0) {
+                connection.close(); // every request is answered, the held back ones included
+            }
+            return;
+        }
+        connection.setReading(canTakeMore);
+    }
+
+    private void writeCompletedResponses() {
+        Connection connection;
+        while ((connection = connectionsWithResponses.poll()) != null) {
+            if (!connection.isOpen()) {
+                continue;
+            }
+
+            connection.collectCompletedResponses();
+            try {
+                connection.flush();
+            } catch (IOException e) {
+                connection.close();
+                continue;
+            }
+            dispatchRequests(connection); // requests held back by the in-flight limit
+        }
+    }
+
+    private void closeChannels() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection connection) {
+                connection.close();
+            }
+        }
+        try {
+            serverSocketChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Closing spell checker server failed due to: " + e);
+        }
+    }
+}
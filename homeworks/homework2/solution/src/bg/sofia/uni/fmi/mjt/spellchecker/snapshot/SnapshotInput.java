@@ -0,0 +1,71 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.snapshot;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+public final class SnapshotInput {
+    //Reads the sections written by SnapshotOutput from a (memory-mapped) buffer with bulk gets.
+
+    private static final int INT_BYTES = Integer.BYTES;
+    private static final int DOUBLE_BYTES = Double.BYTES;
+    private static final int CHAR_BYTES = Character.BYTES;
+
+    private final ByteBuffer buffer;
+
+    public SnapshotInput(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Argument buffer must not be null.");
+        }
+
+        this.buffer = buffer;
+    }
+
+    public int readInt() {
+        return buffer.getInt();
+    }
+
+    public int[] readIntArray() {
+        int[] values = new int[readLength(INT_BYTES)];
+        buffer.asIntBuffer().get(values);
+        skip(values.length * INT_BYTES);
+        return values;
+    }
+
+    public double[] readDoubleArray() {
+        double[] values = new double[readLength(DOUBLE_BYTES)];
+        buffer.asDoubleBuffer().get(values);
+        skip(values.length * DOUBLE_BYTES);
+        return values;
+    }
+
+    public String[] readStrings() {
+        int[] ends = readIntArray();
+        char[] chars = readChars();
+        String[] values = new String[ends.length];
+        int begin = 0;
+        for (int i = 0; i < ends.length; ++i) {
+            values[i] = new String(chars, begin, ends[i] - begin);
+            begin = ends[i];
+        }
+        return values;
+    }
+
+    private char[] readChars() {
+        char[] chars = new char[readLength(CHAR_BYTES)];
+        buffer.asCharBuffer().get(chars);
+        skip(chars.length * CHAR_BYTES);
+        return chars;
+    }
+
+    private int readLength(int elementBytes) {
+        int length = buffer.getInt();
+        if (length < 0 || (long) length * elementBytes > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return length;
+    }
+
+    private void skip(int bytes) {
+        buffer.position(buffer.position() + bytes);
+    }
+}
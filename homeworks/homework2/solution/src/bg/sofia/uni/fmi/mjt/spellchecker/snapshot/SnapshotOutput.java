@@ -0,0 +1,53 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.snapshot;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public final class SnapshotOutput {
+    //Writes the sections of a NaiveSpellChecker snapshot - read back by SnapshotInput.
+    //Arrays and strings are length-prefixed, strings are written as UTF-16 chars.
+    //An array of strings is written as their end offsets followed by all their chars, so it is read in bulk.
+
+    private final DataOutputStream output;
+
+    public SnapshotOutput(DataOutputStream output) {
+        if (output == null) {
+            throw new IllegalArgumentException("Argument output must not be null.");
+        }
+
+        this.output = output;
+    }
+
+    public void writeInt(int value) throws IOException {
+        output.writeInt(value);
+    }
+
+    public void writeIntArray(int[] values) throws IOException {
+        output.writeInt(values.length);
+        for (int value : values) {
+            output.writeInt(value);
+        }
+    }
+
+    public void writeDoubleArray(double[] values) throws IOException {
+        output.writeInt(values.length);
+        for (double value : values) {
+            output.writeDouble(value);
+        }
+    }
+
+    public void writeStrings(String[] values) throws IOException {
+        int[] ends = new int[values.length];
+        int end = 0;
+        for (int i = 0; i < values.length; ++i) {
+            end += values[i].length();
+            ends[i] = end;
+        }
+        writeIntArray(ends);
+
+        output.writeInt(end);
+        for (String value : values) {
+            output.writeChars(value);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.text;
+
+public final class Tokenizer {
+    //Splits a CharSequence into the words between single spaces, as String#split(" ") does,
+    //but yields their offsets instead of substrings. Empty words between adjacent spaces are skipped.
+    //One instance can be reused for many texts, it is not thread-safe.
+
+    private static final char SEPARATOR = ' ';
+
+    private CharSequence text = "";
+    private int position;
+    private int start;
+    private int end;
+
+    public Tokenizer reset(CharSequence text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Argument text must not be null.");
+        }
+
+        this.text = text;
+        this.position = 0;
+        this.start = 0;
+        this.end = 0;
+        return this;
+    }
+
+    /**
+     * Advances to the next word.
+     *
+     * @return false if there are no more words in the text
+     */
+    public boolean next() {
+        int textLength = text.length();
+        while (position < textLength && text.charAt(position) == SEPARATOR) {
+            position++;
+        }
+        if (position == textLength) {
+            return false;
+        }
+
+        start = position;
+        while (position < textLength && text.charAt(position) != SEPARATOR) {
+            position++;
+        }
+        end = position;
+        return true;
+    }
+
+    /**
+     * @return the index of the first char of the current word in the text
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * @return the index after the last char of the current word in the text
+     */
+    public int end() {
+        return end;
+    }
+}
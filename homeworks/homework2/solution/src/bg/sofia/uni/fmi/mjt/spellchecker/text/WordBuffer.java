@@ -0,0 +1,56 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.text;
+
+import java.util.Arrays;
+
+public final class WordBuffer implements CharSequence {
+    //Reusable char buffer holding one word - lets words be looked up in a WordSet without creating Strings.
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private char[] chars = new char[INITIAL_CAPACITY];
+    private int length;
+
+    public WordBuffer clear() {
+        length = 0;
+        return this;
+    }
+
+    public WordBuffer append(char c) {
+        if (length == chars.length) {
+            chars = Arrays.copyOf(chars, length * 2);
+        }
+        chars[length++] = c;
+        return this;
+    }
+
+    public WordBuffer append(CharSequence text) {
+        int textLength = text.length();
+        for (int i = 0; i < textLength; ++i) {
+            append(text.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,108 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.text;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public final class WordSet extends AbstractSet<String> {
+    //Open addressing hash set of words which can be queried with any CharSequence (e.g. a WordBuffer).
+    //Hashes are String#hashCode values, so String keys use their cached hash. Iterates in insertion order.
+
+    private static final int INITIAL_TABLE_SIZE = 16;
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int HASH_SPREAD_SHIFT = 16;
+
+    private final List<String> words = new ArrayList<>();
+    private String[] table = new String[INITIAL_TABLE_SIZE];
+
+    public WordSet() {
+    }
+
+    public WordSet(Collection<String> words) {
+        this();
+        addAll(words);
+    }
+
+    @Override
+    public boolean add(String word) {
+        if (word == null) {
+            throw new IllegalArgumentException("Argument word must not be null.");
+        }
+        if (contains(word)) {
+            return false;
+        }
+
+        if ((words.size() + 1) * 2 > table.length) {
+            resize(table.length * 2);
+        }
+        insert(table, word);
+        words.add(word);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof CharSequence word && contains(word);
+    }
+
+    public boolean contains(CharSequence word) {
+        int mask = table.length - 1;
+        for (int i = indexFor(hash(word), mask); table[i] != null; i = (i + 1) & mask) {
+            if (contentEquals(table[i], word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return Collections.unmodifiableList(words).iterator();
+    }
+
+    @Override
+    public int size() {
+        return words.size();
+    }
+
+    private void resize(int tableSize) {
+        String[] newTable = new String[tableSize];
+        for (String word : words) {
+            insert(newTable, word);
+        }
+        table = newTable;
+    }
+
+    private static void insert(String[] table, String word) {
+        int mask = table.length - 1;
+        int i = indexFor(word.hashCode(), mask);
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+        table[i] = word;
+    }
+
+    private static int indexFor(int hash, int mask) {
+        return (hash ^ (hash >>> HASH_SPREAD_SHIFT)) & mask;
+    }
+
+    private static int hash(CharSequence word) {
+        if (word instanceof String) {
+            return word.hashCode();
+        }
+
+        int hash = 0;
+        int wordLength = word.length();
+        for (int i = 0; i < wordLength; ++i) {
+            hash = HASH_MULTIPLIER * hash + word.charAt(i);
+        }
+        return hash;
+    }
+
+    private static boolean contentEquals(String stored, CharSequence word) {
+        return stored.length() == word.length() && stored.contentEquals(word);
+    }
+}
@@ -0,0 +1,161 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.snapshot.SnapshotInput;
+import bg.sofia.uni.fmi.mjt.spellchecker.snapshot.SnapshotOutput;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public final class BigramVector {
+    //Packed vector of bigrams - each bigram is encoded as (first char << 16 | second char),
+    //codes are sorted ascending and distinct, counts are parallel to them.
+    //The vector is the [from, to) slice of its arrays, so vectors restored from a snapshot can share them.
+
+    private static final int CHAR_BITS = 16;
+
+    final int[] bigrams;
+    final int[] counts;
+    final int from;
+    final int to;
+    private final double length;
+
+    private BigramVector(int[] bigrams, int[] counts, int from, int to, double length) {
+        this.bigrams = bigrams;
+        this.counts = counts;
+        this.from = from;
+        this.to = to;
+        this.length = length;
+    }
+
+    /**
+     * Restores a vector from the [{@code from}, {@code to}) slice of packed arrays, e.g. read from a snapshot.
+     * The arrays are not copied.
+     */
+    public static BigramVector ofPacked(int[] bigrams, int[] counts, int from, int to, double length) {
+        if (bigrams == null || counts == null || bigrams.length != counts.length) {
+            throw new IllegalArgumentException("Arguments bigrams and counts must be non-null and of equal length.");
+        }
+        if (from < 0 || from > to || to > bigrams.length) {
+            throw new IllegalArgumentException("Arguments from and to must be a range in the arrays.");
+        }
+        return new BigramVector(bigrams, counts, from, to, length);
+    }
+
+    public static BigramVector of(String word) {
+        if (word == null) {
+            throw new IllegalArgumentException("Argument word must not be null.");
+        }
+
+        int numberOfBigrams = Math.max(word.length() - 1, 0);
+        int[] codes = new int[numberOfBigrams];
+        for (int i = 0; i < numberOfBigrams; ++i) {
+            codes[i] = encode(word.charAt(i), word.charAt(i + 1));
+        }
+        Arrays.sort(codes);
+
+        int distinct = 0;
+        int[] counts = new int[numberOfBigrams];
+        for (int i = 0; i < numberOfBigrams; ++i) {
+            if (distinct > 0 && codes[distinct - 1] == codes[i]) {
+                counts[distinct - 1]++;
+            } else {
+                codes[distinct] = codes[i];
+                counts[distinct++] = 1;
+            }
+        }
+        counts = Arrays.copyOf(counts, distinct);
+        return new BigramVector(Arrays.copyOf(codes, distinct), counts, 0, distinct, calcLength(counts));
+    }
+
+    /**
+     * Returns the vectors of {@code words} as slices of three shared arrays, in the order of the words.
+     */
+    public static BigramVector[] ofAll(String[] words) {
+        if (words == null) {
+            throw new IllegalArgumentException("Argument words must not be null.");
+        }
+
+        BigramVector[] vectors = new BigramVector[words.length];
+        int[] offsets = new int[words.length + 1];
+        for (int i = 0; i < words.length; ++i) {
+            vectors[i] = of(words[i]);
+            offsets[i + 1] = offsets[i] + vectors[i].size();
+        }
+
+        int[] bigrams = new int[offsets[words.length]];
+        int[] counts = new int[bigrams.length];
+        for (int i = 0; i < vectors.length; ++i) {
+            System.arraycopy(vectors[i].bigrams, 0, bigrams, offsets[i], vectors[i].size());
+            System.arraycopy(vectors[i].counts, 0, counts, offsets[i], vectors[i].size());
+            vectors[i] = new BigramVector(bigrams, counts, offsets[i], offsets[i + 1], vectors[i].length);
+        }
+        return vectors;
+    }
+
+    /**
+     * Writes {@code vectors} packed, so that {@link #readPacked} restores them without recomputing anything.
+     */
+    public static void writePacked(BigramVector[] vectors, SnapshotOutput output) throws IOException {
+        int[] offsets = new int[vectors.length + 1];
+        for (int i = 0; i < vectors.length; ++i) {
+            offsets[i + 1] = offsets[i] + vectors[i].size();
+        }
+        int[] bigrams = new int[offsets[vectors.length]];
+        int[] counts = new int[bigrams.length];
+        double[] lengths = new double[vectors.length];
+        for (int i = 0; i < vectors.length; ++i) {
+            System.arraycopy(vectors[i].bigrams, vectors[i].from, bigrams, offsets[i], vectors[i].size());
+            System.arraycopy(vectors[i].counts, vectors[i].from, counts, offsets[i], vectors[i].size());
+            lengths[i] = vectors[i].length;
+        }
+
+        output.writeIntArray(offsets);
+        output.writeIntArray(bigrams);
+        output.writeIntArray(counts);
+        output.writeDoubleArray(lengths);
+    }
+
+    public static BigramVector[] readPacked(SnapshotInput input) {
+        int[] offsets = input.readIntArray();
+        int[] bigrams = input.readIntArray();
+        int[] counts = input.readIntArray();
+        double[] lengths = input.readDoubleArray();
+        if (offsets.length != lengths.length + 1) {
+            throw new IllegalArgumentException("Packed vectors must have an offset per vector and an end offset.");
+        }
+
+        BigramVector[] vectors = new BigramVector[lengths.length];
+        for (int i = 0; i < vectors.length; ++i) {
+            vectors[i] = ofPacked(bigrams, counts, offsets[i], offsets[i + 1], lengths[i]);
+        }
+        return vectors;
+    }
+
+    public static int encode(char first, char second) {
+        return first << CHAR_BITS | second;
+    }
+
+    public int size() {
+        return to - from;
+    }
+
+    public int bigramAt(int index) {
+        return bigrams[from + index];
+    }
+
+    public int countAt(int index) {
+        return counts[from + index];
+    }
+
+    public double length() {
+        return length;
+    }
+
+    private static double calcLength(int[] counts) {
+        double sumOfSquares = 0;
+        for (int count : counts) {
+            sumOfSquares += count * count;
+        }
+        return Math.sqrt(sumOfSquares);
+    }
+}
@@ -0,0 +1,11 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods;
+
+@FunctionalInterface
+public interface CandidateScorer {
+
+    /**
+     * Writes to {@code scores[i]} the similarity of the dictionary word at index {@code candidates[i]} to {@code word},
+     * for every i below {@code count}.
+     */
+    void score(String word, int[] candidates, int count, double[] scores);
+}
@@ -1,9 +1,5 @@
 package bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods;
 
-import java.util.LinkedHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
-
 public final class CosineSimilarity {
     //Cosine Similarity - called in NaiveSpellChecker#findClosestWord
 
@@ -11,44 +7,32 @@ public final class CosineSimilarity {
     }
 
     public static double calcCosineSimilarity(String word1, String word2) {
-        LinkedHashMap<String, Integer> word1VectorOfBigrams = getWordBigramsVector(word1);
-        double word1VectorOfBigramsLength = calcVectorOfBigramsLength(word1VectorOfBigrams);
-
-        LinkedHashMap<String, Integer> word2VectorOfBigrams = getWordBigramsVector(word2);
-        double word2VectorOfBigramsLength = calcVectorOfBigramsLength(word2VectorOfBigrams);
-
-        return multiplyTwoVectorsOfBigrams(word1VectorOfBigrams, word2VectorOfBigrams)
-            / (word1VectorOfBigramsLength * word2VectorOfBigramsLength);
+        return calcCosineSimilarity(BigramVector.of(word1), BigramVector.of(word2));
     }
 
-    private static int multiplyTwoVectorsOfBigrams(LinkedHashMap<String, Integer> v1,
-                                                   LinkedHashMap<String, Integer> v2) {
-        AtomicInteger result = new AtomicInteger();
-        v1.forEach((k, v) -> {
-            if (v2.containsKey(k)) {
-                result.addAndGet(v2.get(k));
-            }
-        });
-        return result.get();
-    }
-
-    private static double calcVectorOfBigramsLength(LinkedHashMap<String, Integer> vectorOfBigrams) {
-        AtomicReference<Double> result = new AtomicReference<>((double) 0);
-        vectorOfBigrams.forEach((v, k) -> result.updateAndGet(v1 -> v1 + k * k));
-        return Math.sqrt(result.get());
+    public static double calcCosineSimilarity(BigramVector word1VectorOfBigrams, BigramVector word2VectorOfBigrams) {
+        return multiplyTwoVectorsOfBigrams(word1VectorOfBigrams, word2VectorOfBigrams)
+            / (word1VectorOfBigrams.length() * word2VectorOfBigrams.length());
     }
 
-    private static LinkedHashMap<String, Integer> getWordBigramsVector(String word) {
-        LinkedHashMap<String, Integer> bigramsToCountMap = new LinkedHashMap<>();
-        int lastBigramEndIndex = word.length() - 1;
-        for (int i = 0; i < lastBigramEndIndex; ++i) {
-            String bigram = word.substring(i, i + 2);
-            if (bigramsToCountMap.containsKey(bigram)) {
-                bigramsToCountMap.put(bigram, bigramsToCountMap.get(bigram) + 1);
+    private static int multiplyTwoVectorsOfBigrams(BigramVector v1, BigramVector v2) {
+        //merge of the two sorted bigram arrays, counting v2's occurrences of every shared bigram
+        int[] v1Bigrams = v1.bigrams;
+        int[] v2Bigrams = v2.bigrams;
+        int[] v2Counts = v2.counts;
+        int i = v1.from;
+        int j = v2.from;
+        int result = 0;
+        while (i < v1.to && j < v2.to) {
+            if (v1Bigrams[i] < v2Bigrams[j]) {
+                ++i;
+            } else if (v1Bigrams[i] > v2Bigrams[j]) {
+                ++j;
             } else {
-                bigramsToCountMap.put(bigram, 1);
+                result += v2Counts[j++];
+                ++i;
             }
         }
-        return bigramsToCountMap;
+        return result;
     }
 }
@@ -0,0 +1,74 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods;
+
+import java.util.Arrays;
+
+public final class CosineWordSimilarity implements WordSimilarity {
+    //Cosine similarity of the bigram vectors - the default ranking of NaiveSpellChecker.
+    //The candidate scorer keeps the vectors of the whole dictionary as slices of three shared arrays.
+
+    @Override
+    public double calcSimilarity(String word, String dictionaryWord) {
+        return CosineSimilarity.calcCosineSimilarity(dictionaryWord, word);
+    }
+
+    @Override
+    public CandidateScorer newCandidateScorer(String[] dictionaryWords) {
+        return newCandidateScorer(dictionaryWords, BigramVector.ofAll(dictionaryWords));
+    }
+
+    @Override
+    public CandidateScorer newCandidateScorer(String[] dictionaryWords, BigramVector[] dictionaryVectors) {
+        if (dictionaryVectors == null || dictionaryVectors.length != dictionaryWords.length) {
+            throw new IllegalArgumentException("Argument dictionaryVectors must have a vector per dictionary word.");
+        }
+        return new PackedVectorsScorer(dictionaryVectors);
+    }
+
+    @Override
+    public boolean needsBigramVectors() {
+        return true;
+    }
+
+    @Override
+    public boolean needsCommonBigram() {
+        return true;
+    }
+
+    private static final class PackedVectorsScorer implements CandidateScorer {
+        private final BigramVector[] vectors;
+
+        private PackedVectorsScorer(BigramVector[] vectors) {
+            this.vectors = vectors;
+        }
+
+        @Override
+        public void score(String word, int[] candidates, int count, double[] scores) {
+            BigramVector wordVector = BigramVector.of(word);
+            int[] wordBigrams = Arrays.copyOfRange(wordVector.bigrams, wordVector.from, wordVector.to);
+            int[] wordCounts = Arrays.copyOfRange(wordVector.counts, wordVector.from, wordVector.to);
+            double wordLength = wordVector.length();
+
+            for (int c = 0; c < count; ++c) {
+                BigramVector candidate = vectors[candidates[c]];
+                // merge of the two sorted bigram arrays, counting the word's occurrences of every shared bigram,
+                // as CosineSimilarity does with the dictionary word as first vector
+                int[] bigrams = candidate.bigrams;
+                int i = candidate.from;
+                int to = candidate.to;
+                int j = 0;
+                int product = 0;
+                while (i < to && j < wordBigrams.length) {
+                    if (bigrams[i] < wordBigrams[j]) {
+                        ++i;
+                    } else if (bigrams[i] > wordBigrams[j]) {
+                        ++j;
+                    } else {
+                        product += wordCounts[j++];
+                        ++i;
+                    }
+                }
+                scores[c] = product / (candidate.length() * wordLength);
+            }
+        }
+    }
+}
@@ -1,33 +1,52 @@
 package bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods;
 
 public final class LevenshteinDistance {
-    //Levenshtein Distance - can be called in NaiveSpellChecker#findClosestWord
-    //This software does not contain tests for Levenshtein Distance.
+    //Levenshtein Distance - called in DeletionIndex, used by NaiveSpellChecker#findClosestWord in edit distance mode
 
     private LevenshteinDistance() {
     }
 
     public static double calcLevenshteinDistance(String word1, String word2) {
-        //dynamic programming method
-        double[][] matrix = new double[word1.length() + 1][word2.length() + 1];
+        return calcLevenshteinDistance(word1, word2, Math.max(word1.length(), word2.length()));
+    }
 
+    /**
+     * Returns the Levenshtein distance between {@code word1} and {@code word2}
+     * or {@code maxDistance + 1} if it is greater than {@code maxDistance}.
+     */
+    public static int calcLevenshteinDistance(CharSequence word1, CharSequence word2, int maxDistance) {
         int word1Length = word1.length();
         int word2Length = word2.length();
-        for (int i = 0; i <= word1Length; ++i) {
-            for (int j = 0; j <= word2Length; ++j) {
-                if (i == 0) {
-                    matrix[i][j] = j;
-                } else if (j == 0) {
-                    matrix[i][j] = i;
-                } else {
-                    matrix[i][j] = Math.min(Math.min(matrix[i - 1][j] + 1, matrix[i][j - 1] + 1),
-                        matrix[i - 1][j - 1]
-                            + levenshteinDistanceCostOfSubstitution(word1.charAt(i - 1), word2.charAt(j - 1)));
-                }
+        if (Math.abs(word1Length - word2Length) > maxDistance) {
+            return maxDistance + 1;
+        }
+
+        //dynamic programming method, keeping only the previous and the current row of the matrix
+        int[] previousRow = new int[word2Length + 1];
+        int[] currentRow = new int[word2Length + 1];
+        for (int j = 0; j <= word2Length; ++j) {
+            previousRow[j] = j;
+        }
+
+        for (int i = 1; i <= word1Length; ++i) {
+            currentRow[0] = i;
+            int rowMinimum = currentRow[0];
+            char word1Char = word1.charAt(i - 1);
+            for (int j = 1; j <= word2Length; ++j) {
+                currentRow[j] = Math.min(Math.min(previousRow[j] + 1, currentRow[j - 1] + 1),
+                    previousRow[j - 1] + levenshteinDistanceCostOfSubstitution(word1Char, word2.charAt(j - 1)));
+                rowMinimum = Math.min(rowMinimum, currentRow[j]);
+            }
+            if (rowMinimum > maxDistance) { // the distance never decreases in the following rows
+                return maxDistance + 1;
             }
+
+            int[] swap = previousRow;
+            previousRow = currentRow;
+            currentRow = swap;
         }
 
-        return matrix[word1Length][word2Length];
+        return Math.min(previousRow[word2Length], maxDistance + 1);
     }
 
     private static int levenshteinDistanceCostOfSubstitution(char a, char b) {
@@ -0,0 +1,106 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods;
+
+public final class LevenshteinWordSimilarity implements WordSimilarity {
+    //Negated Levenshtein distance - the fewer edits a dictionary word needs, the higher it ranks.
+    //Unlike SuggestionMode.EDIT_DISTANCE the distance is not bounded, so every dictionary word is scored.
+    //The candidate scorer uses the bit-parallel algorithm of Myers (in the form of Hyyro) for words up to 64 chars:
+    //a column of the distance matrix is kept as bit vectors of +1/-1 steps and advanced by a few long operations
+    //per char of the dictionary word, instead of a loop over the whole column.
+
+    private static final int MAX_BIT_PARALLEL_LENGTH = Long.SIZE;
+    private static final int ASCII_CHARS = 128;
+
+    @Override
+    public double calcSimilarity(String word, String dictionaryWord) {
+        return -LevenshteinDistance.calcLevenshteinDistance(word, dictionaryWord);
+    }
+
+    @Override
+    public CandidateScorer newCandidateScorer(String[] dictionaryWords) {
+        return (word, candidates, count, scores) -> {
+            if (word.isEmpty() || word.length() > MAX_BIT_PARALLEL_LENGTH) {
+                for (int i = 0; i < count; ++i) {
+                    scores[i] = calcSimilarity(word, dictionaryWords[candidates[i]]);
+                }
+                return;
+            }
+
+            PatternMasks masks = new PatternMasks(word);
+            for (int i = 0; i < count; ++i) {
+                scores[i] = -calcDistance(masks, word.length(), dictionaryWords[candidates[i]]);
+            }
+        };
+    }
+
+    private static int calcDistance(PatternMasks masks, int wordLength, String dictionaryWord) {
+        long lastBit = 1L << (wordLength - 1);
+        long positiveVertical = -1L; // column 0 of the matrix is 0, 1, ..., wordLength - all steps are +1
+        long negativeVertical = 0;
+        int distance = wordLength;
+
+        int dictionaryWordLength = dictionaryWord.length();
+        for (int j = 0; j < dictionaryWordLength; ++j) {
+            long equal = masks.of(dictionaryWord.charAt(j));
+            long diagonalZero = (((equal & positiveVertical) + positiveVertical) ^ positiveVertical) | equal;
+            long verticalX = equal | negativeVertical;
+            long positiveHorizontal = negativeVertical | ~(diagonalZero | positiveVertical);
+            long negativeHorizontal = positiveVertical & diagonalZero;
+
+            if ((positiveHorizontal & lastBit) != 0) {
+                distance++;
+            } else if ((negativeHorizontal & lastBit) != 0) {
+                distance--;
+            }
+
+            positiveHorizontal = positiveHorizontal << 1 | 1; // row 0 of the matrix grows by 1 with every char
+            negativeHorizontal = negativeHorizontal << 1;
+            positiveVertical = negativeHorizontal | ~(verticalX | positiveHorizontal);
+            negativeVertical = positiveHorizontal & verticalX;
+        }
+        return distance;
+    }
+
+    private static final class PatternMasks {
+        // bit i of the mask of a char is set if the char is at position i of the word
+        private final long[] asciiMasks = new long[ASCII_CHARS];
+        private final char[] otherChars;
+        private final long[] otherMasks;
+        private int otherCount;
+
+        private PatternMasks(String word) {
+            otherChars = new char[word.length()];
+            otherMasks = new long[word.length()];
+            for (int i = 0; i < word.length(); ++i) {
+                char c = word.charAt(i);
+                if (c < ASCII_CHARS) {
+                    asciiMasks[c] |= 1L << i;
+                    continue;
+                }
+
+                int position = indexOfOther(c);
+                if (position < 0) {
+                    position = otherCount++;
+                    otherChars[position] = c;
+                }
+                otherMasks[position] |= 1L << i;
+            }
+        }
+
+        private long of(char c) {
+            if (c < ASCII_CHARS) {
+                return asciiMasks[c];
+            }
+            int position = indexOfOther(c);
+            return position < 0 ? 0 : otherMasks[position];
+        }
+
+        private int indexOfOther(char c) {
+            for (int i = 0; i < otherCount; ++i) {
+                if (otherChars[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods;
+
+public interface WordSimilarity {
+    //Strategy NaiveSpellChecker ranks its suggestions by - the more similar a dictionary word, the higher it ranks.
+
+    /**
+     * Returns the similarity of {@code dictionaryWord} to the misspelled {@code word}, higher is more similar.
+     */
+    double calcSimilarity(String word, String dictionaryWord);
+
+    /**
+     * Returns a scorer of candidate blocks from {@code dictionaryWords}, which may precompute anything per word.
+     * The scorer must give the same scores as {@link #calcSimilarity} and be safe for concurrent use.
+     */
+    default CandidateScorer newCandidateScorer(String[] dictionaryWords) {
+        return (word, candidates, count, scores) -> {
+            for (int i = 0; i < count; ++i) {
+                scores[i] = calcSimilarity(word, dictionaryWords[candidates[i]]);
+            }
+        };
+    }
+
+    /**
+     * Returns a scorer of candidate blocks from {@code dictionaryWords} given their bigram vectors,
+     * which are null unless {@link #needsBigramVectors}. Ignores the vectors by default.
+     */
+    default CandidateScorer newCandidateScorer(String[] dictionaryWords, BigramVector[] dictionaryVectors) {
+        return newCandidateScorer(dictionaryWords);
+    }
+
+    /**
+     * Whether the scorer is built from the bigram vectors of the dictionary words - if so they are kept
+     * in snapshots and not computed again on load.
+     */
+    default boolean needsBigramVectors() {
+        return false;
+    }
+
+    /**
+     * Whether words sharing no bigram with the misspelled word are less similar than any word sharing one,
+     * and all equally. If so only the words sharing a bigram are scored.
+     */
+    default boolean needsCommonBigram() {
+        return false;
+    }
+}
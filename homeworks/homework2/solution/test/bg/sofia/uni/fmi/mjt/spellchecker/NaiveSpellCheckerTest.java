@@ -1,18 +1,25 @@
 package bg.sofia.uni.fmi.mjt.spellchecker;
 
+import java.io.BufferedReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods.LevenshteinWordSimilarity;
+
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static org.junit.Assert.assertEquals;
 
@@ -42,6 +49,9 @@ public class NaiveSpellCheckerTest {
     private static Reader stopwordsReader;
     private static NaiveSpellChecker naiveSpellChecker;
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @BeforeClass
     public static void setup() {
         dictionaryReader = new StringReader(TEST_DICTIONARY);
@@ -75,7 +85,7 @@ public class NaiveSpellCheckerTest {
 
         // 4. analyze()
         Reader dogTextReader = new StringReader("hello, i am a dog!");
-        Writer output = new FileWriter("output.txt");
+        Writer output = new FileWriter(folder.newFile("output.txt"));
         spellChecker.analyze(dogTextReader, output, 2);
         dictionaryReader.close();
         stopwordsReader.close();
@@ -123,6 +133,21 @@ public class NaiveSpellCheckerTest {
         assertEquals(assertMessage, expected, actual);
     }
 
+    @Test
+    public void testMetadataWithBufferedReader() {
+        String assertMessage = "Metadata of a non-StringReader does not return expected value.";
+        Metadata actual = null;
+
+        String inputText = "dictword1$%, dictword2 mistake1 mistake2!" + NL + "d  stopword1, !@#$ mistake3...";
+        try (Reader r = new BufferedReader(new StringReader(inputText))) {
+            actual = naiveSpellChecker.metadata(r);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        Metadata expected = new Metadata(64, 6, 4);
+        assertEquals(assertMessage, expected, actual);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testMetadataWithNullArgument() {
         naiveSpellChecker.metadata(null);
@@ -219,6 +244,32 @@ public class NaiveSpellCheckerTest {
         assertEquals(assertMessage, expected, actual);
     }
 
+    @Test
+    public void testAnalyzeWithFindingsOnSeveralLines() {
+        String assertMessage = "Analyze with findings on several lines does not return expected value.";
+        String actual = null;
+        String inputText = "dictword12 mistake" + NL + NL + "stopword1 dictword22";
+        try (Reader r = new StringReader(inputText);
+             Writer w = new StringWriter()) {
+            naiveSpellChecker.analyze(r, w, 0);
+            actual = w.toString();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        String expected =
+            "dictword12 mistake"
+                + NL
+                + NL + "stopword1 dictword22"
+                + NL + METADATA_TITLE
+                + NL + "36 characters, 3 words, 3 spelling issue(s) found"
+                + NL + FINDINGS_TITLE
+                + NL + "Line #1, {dictword12}"
+                + NL + "Line #1, {mistake}"
+                + NL + "Line #3, {dictword22}";
+
+        assertEquals(assertMessage, expected, actual);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testAnalyzeWithNullReaderArgument() {
         naiveSpellChecker.analyze(null, new StringWriter(), 10);
@@ -244,6 +295,81 @@ public class NaiveSpellCheckerTest {
         assertEquals(assertMessage, expected, actual);
     }
 
+    @Test
+    public void testFindClosestWordsWithNoSharedBigramsReturnsWholeDictionary() {
+        String assertMessage = "findClosestWords did not fill suggestions up to dictionary size.";
+        List<String> actual = naiveSpellChecker.findClosestWords("zzz", 10);
+        assertEquals(assertMessage, 6, actual.size());
+    }
+
+    @Test
+    public void testFindClosestWordsInEditDistanceMode() {
+        NaiveSpellChecker spellChecker = new NaiveSpellChecker(new StringReader(TEST_DICTIONARY),
+            new StringReader(TEST_STOPWORDS), 0, SuggestionMode.EDIT_DISTANCE);
+        List<String> actual = spellChecker.findClosestWords("Dictword7,", 3);
+
+        assertEquals("findClosestWords in edit distance mode did not return correct list.",
+            List.of("dictword1", "dictword2", "dictword3"), actual);
+    }
+
+    @Test
+    public void testFindClosestWordsWithLevenshteinSimilarity() {
+        NaiveSpellChecker spellChecker = new NaiveSpellChecker(new StringReader("cat" + NL + "cart" + NL + "house"),
+            new StringReader(TEST_STOPWORDS), 0, new LevenshteinWordSimilarity());
+
+        assertEquals("findClosestWords did not rank by edit distance.",
+            List.of("cart", "cat", "house"), spellChecker.findClosestWords("carts", 3));
+    }
+
+    @Test
+    public void testLoadSnapshotWithWordSimilarity() throws IOException {
+        Path snapshotFile = folder.newFile("levenshtein.snapshot").toPath();
+        NaiveSpellChecker spellChecker = new NaiveSpellChecker(new StringReader(TEST_DICTIONARY),
+            new StringReader(TEST_STOPWORDS), 0, new LevenshteinWordSimilarity());
+        spellChecker.saveSnapshot(snapshotFile);
+
+        assertEquals("Snapshot did not keep the ranking order.", spellChecker.findClosestWords("dictword", 6),
+            NaiveSpellChecker.loadSnapshot(snapshotFile, 0, new LevenshteinWordSimilarity())
+                .findClosestWords("dictword", 6));
+        assertEquals("Snapshot without bigram index did not rank by cosine similarity.",
+            naiveSpellChecker.findClosestWords("dictword1%", 2),
+            NaiveSpellChecker.loadSnapshot(snapshotFile).findClosestWords("dictword1%", 2));
+    }
+
+    @Test
+    public void testLoadSnapshotRestoresSpellChecker() throws IOException {
+        Path snapshotFile = folder.newFile("dictionary.snapshot").toPath();
+        naiveSpellChecker.saveSnapshot(snapshotFile);
+        NaiveSpellChecker loaded = NaiveSpellChecker.loadSnapshot(snapshotFile);
+
+        String inputText = "d dictword1$%, dictword2 dictword12 dictword22" + NL + "stopword1, !@#$ dict_word6...";
+        StringWriter expected = new StringWriter();
+        StringWriter actual = new StringWriter();
+        naiveSpellChecker.analyze(new StringReader(inputText), expected, 3);
+        loaded.analyze(new StringReader(inputText), actual, 3);
+
+        assertEquals("Spell checker loaded from snapshot analyzes differently.",
+            expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void testLoadSnapshotFallsBackToTextWhenSnapshotIsInvalid() throws IOException {
+        Path snapshotFile = folder.newFile("invalid.snapshot").toPath();
+        Files.writeString(snapshotFile, "not a snapshot");
+        NaiveSpellChecker loaded = NaiveSpellChecker.loadSnapshot(snapshotFile,
+            new StringReader(TEST_DICTIONARY), new StringReader(TEST_STOPWORDS));
+
+        assertEquals("Fallback spell checker does not find closest words.",
+            naiveSpellChecker.findClosestWords("dictword1%", 2), loaded.findClosestWords("dictword1%", 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadSnapshotWithInvalidSnapshot() throws IOException {
+        Path snapshotFile = folder.newFile("invalid.snapshot").toPath();
+        Files.writeString(snapshotFile, "not a snapshot");
+        NaiveSpellChecker.loadSnapshot(snapshotFile);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testFindClosestWordsWithNullWord() {
         naiveSpellChecker.findClosestWords(null, 2);
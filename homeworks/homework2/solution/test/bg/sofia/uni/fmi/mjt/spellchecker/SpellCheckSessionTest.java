@@ -0,0 +1,131 @@
+package bg.sofia.uni.fmi.mjt.spellchecker;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpellCheckSessionTest {
+
+    private static final String NL = System.lineSeparator();
+    private static final int SUGGESTIONS_COUNT = 2;
+
+    private static NaiveSpellChecker spellChecker;
+
+    @BeforeClass
+    public static void setup() {
+        spellChecker = new NaiveSpellChecker(
+            new StringReader(String.join(NL, List.of("cat", "dog", "bird", "house", "mouse", "the", "of"))),
+            new StringReader(String.join(NL, List.of("a", "am", "me"))));
+    }
+
+    private static SpellCheckSession openSession(String text) {
+        return spellChecker.openSession(new StringReader(text), SUGGESTIONS_COUNT);
+    }
+
+    private static String analyze(String text) {
+        StringWriter output = new StringWriter();
+        spellChecker.analyze(new StringReader(text), output, SUGGESTIONS_COUNT);
+        return output.toString();
+    }
+
+    private static String writeAnalysis(SpellCheckSession session) {
+        StringWriter output = new StringWriter();
+        session.writeAnalysis(output);
+        return output.toString();
+    }
+
+    @Test
+    public void testOpenedSessionMatchesAnalyze() {
+        String text = "hello, i am a cat" + NL + NL + "the huose of the mose";
+        SpellCheckSession session = openSession(text);
+
+        assertEquals(3, session.lineCount());
+        assertEquals(spellChecker.metadata(new StringReader(text)), session.metadata());
+        assertEquals(analyze(text), writeAnalysis(session));
+    }
+
+    @Test
+    public void testEmptySessionMatchesAnalyze() {
+        SpellCheckSession session = openSession("");
+
+        assertEquals(0, session.lineCount());
+        assertEquals(analyze(""), writeAnalysis(session));
+    }
+
+    @Test
+    public void testReplaceLinesReturnsDiffOfEditedLines() {
+        SpellCheckSession session = openSession("the cat" + NL + "the huose" + NL + "a dgo");
+
+        FindingsDiff diff = session.replaceLines(2, 1, "the house" + NL + "a brid");
+
+        assertEquals(List.of(new Finding(2, "huose", spellChecker.findClosestWords("huose", SUGGESTIONS_COUNT))),
+            diff.removed());
+        assertEquals(List.of(new Finding(3, "brid", spellChecker.findClosestWords("brid", SUGGESTIONS_COUNT))),
+            diff.added());
+        assertEquals(1, diff.lineShift());
+        assertEquals("a dgo", session.line(4));
+        assertEquals(4, session.findings().get(1).line());
+    }
+
+    @Test
+    public void testInsertAndDeleteLines() {
+        SpellCheckSession session = openSession("the cat");
+
+        session.replaceLines(1, 0, "a dgo");
+        session.replaceLines(3, 0, "mose");
+        assertEquals("a dgo" + NL + "the cat" + NL + "mose" + NL, String.join(NL,
+            List.of(session.line(1), session.line(2), session.line(3))) + NL);
+
+        FindingsDiff diff = session.replaceLines(1, 2, "");
+        assertEquals(1, diff.removed().size());
+        assertTrue(diff.added().isEmpty());
+        assertEquals(analyze("mose"), writeAnalysis(session));
+    }
+
+    @Test
+    public void testRandomEditsMatchAnalyzeOfWholeText() {
+        String[] words = {"cat", "dgo", "the", "huose", "a", "Bird!", "mose", "of", "--", "me"};
+        Random random = new Random(11);
+        List<String> text = new ArrayList<>();
+        SpellCheckSession session = openSession("");
+
+        for (int edit = 0; edit < 200; ++edit) {
+            int firstLine = 1 + random.nextInt(text.size() + 1);
+            int lineCount = random.nextInt(Math.min(3, text.size() - firstLine + 2));
+            List<String> newLines = new ArrayList<>();
+            for (int i = random.nextInt(3); i > 0; --i) {
+                StringBuilder line = new StringBuilder();
+                for (int j = 1 + random.nextInt(4); j > 0; --j) { // an empty text would be no line at all
+                    line.append(words[random.nextInt(words.length)]).append(' ');
+                }
+                newLines.add(line.toString());
+            }
+
+            session.replaceLines(firstLine, lineCount, String.join(NL, newLines));
+            text.subList(firstLine - 1, firstLine - 1 + lineCount).clear();
+            text.addAll(firstLine - 1, newLines);
+
+            String wholeText = String.join(NL, text);
+            assertEquals(spellChecker.metadata(new StringReader(wholeText)), session.metadata());
+            assertEquals(analyze(wholeText), writeAnalysis(session));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReplaceLinesPastLastLine() {
+        openSession("the cat").replaceLines(1, 2, "");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReplaceLinesBeforeFirstLine() {
+        openSession("the cat").replaceLines(0, 0, "dog");
+    }
+}
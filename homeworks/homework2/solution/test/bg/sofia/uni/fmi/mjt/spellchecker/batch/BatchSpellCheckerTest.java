@@ -0,0 +1,97 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.batch;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.NaiveSpellChecker;
+import bg.sofia.uni.fmi.mjt.spellchecker.SpellChecker;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class BatchSpellCheckerTest {
+
+    private static final String NL = System.lineSeparator();
+    private static final int NUMBER_OF_DOCUMENTS = 50;
+
+    private static SpellChecker spellChecker;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setup() {
+        spellChecker = new NaiveSpellChecker(
+            new StringReader(String.join(NL, List.of("cat", "dog", "bird", "house", "mouse"))),
+            new StringReader(String.join(NL, List.of("a", "am", "me"))));
+    }
+
+    private static String documentText(int index) {
+        return "hello, i am a cat number " + index + NL + "the huose of the mose" + NL + "bird dgo";
+    }
+
+    private static String analyzeSequentially(String text) {
+        StringWriter output = new StringWriter();
+        spellChecker.analyze(new StringReader(text), output, 2);
+        return output.toString();
+    }
+
+    @Test
+    public void testAnalyzeMatchesSequentialAnalysis() {
+        List<Document> documents = new ArrayList<>();
+        List<StringWriter> outputs = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_DOCUMENTS; ++i) {
+            StringWriter output = new StringWriter();
+            outputs.add(output);
+            documents.add(new Document(new StringReader(documentText(i)), output));
+        }
+
+        try (var batchSpellChecker = new BatchSpellChecker(spellChecker, 4)) {
+            batchSpellChecker.analyze(documents, 2);
+        }
+
+        for (int i = 0; i < NUMBER_OF_DOCUMENTS; ++i) {
+            assertEquals("Batch analysis differs from sequential analysis.",
+                analyzeSequentially(documentText(i)), outputs.get(i).toString());
+        }
+    }
+
+    @Test
+    public void testAnalyzeDirectoryWritesFileWithSameName() throws IOException {
+        Path texts = folder.newFolder("texts").toPath();
+        Path results = folder.getRoot().toPath().resolve("results");
+        for (int i = 0; i < NUMBER_OF_DOCUMENTS; ++i) {
+            Files.writeString(texts.resolve("doc" + i + ".txt"), documentText(i));
+        }
+
+        try (var batchSpellChecker = new BatchSpellChecker(spellChecker, 4)) {
+            batchSpellChecker.analyzeDirectory(texts, results, 2);
+        }
+
+        for (int i = 0; i < NUMBER_OF_DOCUMENTS; ++i) {
+            assertEquals("Batch analysis of a file differs from sequential analysis.",
+                analyzeSequentially(documentText(i)), Files.readString(results.resolve("doc" + i + ".txt")));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAnalyzeWithNegativeSuggestionsCount() {
+        try (var batchSpellChecker = new BatchSpellChecker(spellChecker, 1)) {
+            batchSpellChecker.analyze(List.of(), -1);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructionWithNonPositiveParallelism() {
+        new BatchSpellChecker(spellChecker, 0);
+    }
+}
@@ -0,0 +1,65 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.cache;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SuggestionsCacheTest {
+
+    @Test
+    public void testGetAnswersSmallerNFromLargerEntry() {
+        SuggestionsCache cache = new SuggestionsCache(2);
+        cache.put("helo", 3, List.of("hello", "help", "hell"));
+
+        assertEquals("Cache did not answer a smaller n from the cached entry.",
+            List.of("hello", "help"), cache.get("helo", 2));
+        assertNull("Cache answered a larger n than the cached one.", cache.get("helo", 4));
+    }
+
+    @Test
+    public void testGetAnswersAnyNFromExhaustedDictionary() {
+        SuggestionsCache cache = new SuggestionsCache(2);
+        cache.put("helo", 5, List.of("hello"));
+
+        assertEquals("Cache did not answer from an entry shorter than its n.", List.of("hello"), cache.get("helo", 3));
+    }
+
+    @Test
+    public void testPutKeepsLargerEntry() {
+        SuggestionsCache cache = new SuggestionsCache(2);
+        cache.put("helo", 3, List.of("hello", "help", "hell"));
+        cache.put("helo", 1, List.of("hello"));
+
+        assertEquals("Cache replaced a larger entry with a smaller one.",
+            List.of("hello", "help", "hell"), cache.get("helo", 3));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedWordIsEvicted() {
+        SuggestionsCache cache = new SuggestionsCache(2);
+        cache.put("helo", 1, List.of("hello"));
+        cache.put("wrld", 1, List.of("world"));
+        cache.get("helo", 1);
+        cache.put("cta", 1, List.of("cat"));
+
+        assertNull("Least recently used word was not evicted.", cache.get("wrld", 1));
+        assertEquals("Recently used word was evicted.", List.of("hello"), cache.get("helo", 1));
+        assertEquals("Cache stats are not correct.", new CacheStats(2, 1, 1, 2), cache.stats());
+    }
+
+    @Test
+    public void testZeroCapacityCachesNothing() {
+        SuggestionsCache cache = new SuggestionsCache(0);
+        cache.put("helo", 1, List.of("hello"));
+
+        assertNull("Cache with zero capacity returned an entry.", cache.get("helo", 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructionWithNegativeCapacity() {
+        new SuggestionsCache(-1);
+    }
+}
@@ -0,0 +1,51 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.index;
+
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DeletionIndexTest {
+
+    private static DeletionIndex deletionIndex;
+
+    @BeforeClass
+    public static void setup() {
+        deletionIndex = new DeletionIndex(List.of("hello", "help", "hell", "yellow", "world", "word", "cat"), 2);
+    }
+
+    private static List<String> wordsOf(List<DeletionIndex.Match> matches) {
+        return matches.stream().map(DeletionIndex.Match::word).toList();
+    }
+
+    @Test
+    public void testSearchReturnsWordsWithinDistanceClosestFirst() {
+        assertEquals("Search did not return the words within distance 2 ordered by distance.",
+            List.of("hello", "help", "hell", "yellow"), wordsOf(deletionIndex.search("yelo", 2)));
+    }
+
+    @Test
+    public void testSearchWithSmallerDistance() {
+        assertEquals("Search did not return the words within distance 1.",
+            List.of("hello", "help", "hell"), wordsOf(deletionIndex.search("helo", 1)));
+    }
+
+    @Test
+    public void testSearchReturnsExactMatchWithZeroDistance() {
+        List<DeletionIndex.Match> matches = deletionIndex.search("word", 0);
+        assertEquals("Exact match was not found.", List.of(new DeletionIndex.Match("word", 5, 0)), matches);
+    }
+
+    @Test
+    public void testSearchWithNoCloseWords() {
+        assertTrue("Search returned words further than the distance.", deletionIndex.search("xyzxyz", 2).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchWithDistanceGreaterThanIndexed() {
+        deletionIndex.search("helo", 3);
+    }
+}
@@ -0,0 +1,75 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.metrics;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.Metadata;
+import bg.sofia.uni.fmi.mjt.spellchecker.NaiveSpellChecker;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpellCheckerMetricsTest {
+
+    private static final String NL = System.lineSeparator();
+    private static final String TEXT = "hello, i am a cat" + NL + "the huose of the mose";
+
+    private NaiveSpellChecker spellChecker;
+
+    @Before
+    public void setup() {
+        spellChecker = new NaiveSpellChecker(
+            new StringReader(String.join(NL, List.of("cat", "dog", "bird", "house", "mouse"))),
+            new StringReader(String.join(NL, List.of("a", "am", "me"))), 0);
+    }
+
+    private void analyze(String text) {
+        spellChecker.analyze(new StringReader(text), new StringWriter(), 2);
+    }
+
+    @Test
+    public void testNothingIsRecordedWhileDisabled() {
+        analyze(TEXT);
+        spellChecker.findClosestWords("huose", 2);
+
+        MetricsSnapshot snapshot = spellChecker.metrics().snapshot();
+        assertFalse(spellChecker.metrics().isEnabled());
+        assertEquals(0, snapshot.words());
+        assertEquals(0, snapshot.candidatesScored());
+        for (Phase phase : Phase.values()) {
+            assertEquals(0, snapshot.nanosOf(phase));
+        }
+    }
+
+    @Test
+    public void testAnalyzeRecordsCountsAndPhases() {
+        spellChecker.metrics().setEnabled(true);
+        analyze(TEXT);
+
+        Metadata metadata = spellChecker.metadata(new StringReader(TEXT));
+        MetricsSnapshot snapshot = spellChecker.metrics().snapshot();
+        assertEquals(2 * metadata.words(), snapshot.words());
+        assertEquals(2 * metadata.mistakes(), snapshot.misspellings());
+        assertEquals(2 * TEXT.length(), snapshot.charactersRead());
+        assertTrue(snapshot.candidatesScored() > 0);
+        assertTrue(snapshot.nanosOf(Phase.SUGGESTION_RANKING) > 0);
+        assertTrue(snapshot.nanosOf(Phase.DICTIONARY_LOOKUP) > 0);
+    }
+
+    @Test
+    public void testReset() {
+        spellChecker.metrics().setEnabled(true);
+        analyze(TEXT);
+        spellChecker.metrics().reset();
+
+        MetricsSnapshot snapshot = spellChecker.metrics().snapshot();
+        assertEquals(0, snapshot.words());
+        assertEquals(0, snapshot.charactersRead());
+        assertEquals(0, snapshot.nanosOf(Phase.READING));
+    }
+}
@@ -0,0 +1,51 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.server;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverEveryValueOnce() {
+        for (long value = 0; value < 100_000; ++value) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(value <= LatencyHistogram.upperBoundOf(bucket));
+            assertTrue(bucket == 0 || value > LatencyHistogram.upperBoundOf(bucket - 1));
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testPercentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 1000; ++nanos) {
+            histogram.record(nanos * 1000);
+        }
+
+        assertEquals(1000, histogram.count());
+        assertInRange(500_000, histogram.percentile(0.5));
+        assertInRange(990_000, histogram.percentile(0.99));
+        assertEquals(1_000_000, histogram.percentile(1));
+        assertEquals(500_500, histogram.stats().meanNanos());
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyStats stats = new LatencyHistogram().stats();
+
+        assertEquals(0, stats.count());
+        assertEquals(0, stats.p99Nanos());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRecordNegative() {
+        new LatencyHistogram().record(-1);
+    }
+
+    private static void assertInRange(long exact, long reported) {
+        assertTrue(reported + " should be at least " + exact, reported >= exact);
+        assertTrue(reported + " should be at most 12.5% above " + exact, reported <= exact + exact / 8);
+    }
+}
@@ -0,0 +1,192 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.server;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.Metadata;
+import bg.sofia.uni.fmi.mjt.spellchecker.NaiveSpellChecker;
+import bg.sofia.uni.fmi.mjt.spellchecker.SpellChecker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SpellCheckerServerTest {
+
+    private static final String NL = System.lineSeparator();
+    private static final String TEXT = "hello, i am a cat" + NL + "the huose of the mose";
+    private static final int NUMBER_OF_CLIENTS = 20;
+    private static final int REQUESTS_PER_CLIENT = 50;
+
+    private static SpellChecker spellChecker;
+
+    private SpellCheckerServer server;
+
+    @BeforeClass
+    public static void setupSpellChecker() {
+        spellChecker = new NaiveSpellChecker(
+            new StringReader(String.join(NL, List.of("cat", "dog", "bird", "house", "mouse"))),
+            new StringReader(String.join(NL, List.of("a", "am", "me"))));
+    }
+
+    @Before
+    public void startServer() {
+        server = new SpellCheckerServer(spellChecker, 0, 4);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    private Socket connect() throws IOException {
+        return new Socket("localhost", server.getPort());
+    }
+
+    private static BufferedReader responses(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static void send(Socket socket, String... requests) throws IOException {
+        OutputStream output = socket.getOutputStream();
+        output.write((String.join("\n", requests) + "\n").getBytes(StandardCharsets.UTF_8));
+        output.flush();
+    }
+
+    private static String analyzeLocally(String text, int suggestionsCount) {
+        StringWriter output = new StringWriter();
+        spellChecker.analyze(new StringReader(text), output, suggestionsCount);
+        return output.toString();
+    }
+
+    @Test
+    public void testEndpointsAnswerAsTheSpellChecker() throws IOException {
+        Metadata metadata = spellChecker.metadata(new StringReader(TEXT));
+
+        try (Socket socket = connect(); BufferedReader responses = responses(socket)) {
+            send(socket, "metadata " + LineProtocol.escape(TEXT));
+            assertEquals(LineProtocol.ok(metadata.characters() + " " + metadata.words() + " " + metadata.mistakes()),
+                responses.readLine());
+
+            send(socket, "analyze 2 " + LineProtocol.escape(TEXT));
+            assertEquals(LineProtocol.ok(analyzeLocally(TEXT, 2)), responses.readLine());
+
+            send(socket, "closest huose 2");
+            assertEquals(LineProtocol.ok(String.join(" ", spellChecker.findClosestWords("huose", 2))),
+                responses.readLine());
+        }
+    }
+
+    @Test
+    public void testInvalidRequestsGetErrorResponses() throws IOException {
+        try (Socket socket = connect(); BufferedReader responses = responses(socket)) {
+            send(socket, "translate cat", "closest cat", "closest cat many", "analyze -1 cat");
+
+            for (int i = 0; i < 4; ++i) {
+                assertTrue(responses.readLine().startsWith(LineProtocol.ERROR + LineProtocol.SEPARATOR));
+            }
+
+            send(socket, "closest hous 1");
+            assertEquals("Connection must stay usable after errors", LineProtocol.ok("house"), responses.readLine());
+        }
+    }
+
+    @Test
+    public void testPipelinedResponsesKeepRequestOrder() throws IOException {
+        List<String> requests = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 500; ++i) {
+            String text = "the huose number " + i;
+            requests.add(i % 2 == 0 ? "analyze 1 " + LineProtocol.escape(text) : "closest hous 1");
+            expected.add(i % 2 == 0 ? LineProtocol.ok(analyzeLocally(text, 1)) : LineProtocol.ok("house"));
+        }
+
+        try (Socket socket = connect(); BufferedReader responses = responses(socket)) {
+            send(socket, requests.toArray(new String[0]));
+            for (String expectedResponse : expected) {
+                assertEquals(expectedResponse, responses.readLine());
+            }
+        }
+    }
+
+    @Test
+    public void testHalfClosedConnectionGetsAllResponses() throws IOException {
+        // more requests than the server takes in flight, so some are still held back when the input ends
+        int numberOfRequests = 1_000;
+        List<String> requests = new ArrayList<>();
+        for (int i = 0; i < numberOfRequests; ++i) {
+            requests.add("closest hous 1");
+        }
+
+        try (Socket socket = connect(); BufferedReader responses = responses(socket)) {
+            send(socket, requests.toArray(new String[0]));
+            socket.getOutputStream().write("closest incomplete".getBytes(StandardCharsets.UTF_8));
+            socket.shutdownOutput();
+
+            for (int i = 0; i < numberOfRequests; ++i) {
+                assertEquals(LineProtocol.ok("house"), responses.readLine());
+            }
+            assertNull("Connection must be closed after the last response", responses.readLine());
+        }
+    }
+
+    @Test
+    public void testConcurrentClientsAndLatencyStats() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(NUMBER_OF_CLIENTS);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        String expected = LineProtocol.ok(analyzeLocally(TEXT, 2));
+        for (int i = 0; i < NUMBER_OF_CLIENTS; ++i) {
+            tasks.add(() -> {
+                try (Socket socket = connect(); BufferedReader responses = responses(socket)) {
+                    boolean allMatch = true;
+                    for (int j = 0; j < REQUESTS_PER_CLIENT; ++j) {
+                        send(socket, "analyze 2 " + LineProtocol.escape(TEXT));
+                        allMatch &= expected.equals(responses.readLine());
+                    }
+                    return allMatch;
+                }
+            });
+        }
+
+        try {
+            for (Future<Boolean> result : clients.invokeAll(tasks)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        LatencyStats stats = server.getLatencyStats(Endpoint.ANALYZE);
+        assertEquals(NUMBER_OF_CLIENTS * REQUESTS_PER_CLIENT, stats.count());
+        assertTrue(stats.p50Nanos() <= stats.p99Nanos());
+        assertTrue(stats.p99Nanos() <= stats.maxNanos());
+        assertEquals(0, server.getLatencyStats(Endpoint.METADATA).count());
+    }
+
+    @Test
+    public void testLineProtocolEscapeRoundTrip() {
+        String text = "line one\\" + "\r\n" + "line two\\n";
+        String escaped = LineProtocol.escape(text);
+
+        assertTrue(escaped.indexOf('\n') < 0 && escaped.indexOf('\r') < 0);
+        assertEquals(text, LineProtocol.unescape(escaped));
+    }
+}
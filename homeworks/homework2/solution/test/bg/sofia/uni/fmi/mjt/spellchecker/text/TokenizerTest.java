@@ -0,0 +1,36 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TokenizerTest {
+
+    private static List<String> tokensOf(String text) {
+        Tokenizer tokenizer = new Tokenizer().reset(text);
+        List<String> tokens = new ArrayList<>();
+        while (tokenizer.next()) {
+            tokens.add(text.substring(tokenizer.start(), tokenizer.end()));
+        }
+        return tokens;
+    }
+
+    @Test
+    public void testTokensAreSplitBySpacesOnly() {
+        assertEquals("Tokenizer did not split the text by spaces.",
+            List.of("hello,", "i\tam", "a", "cat!"), tokensOf("hello, i\tam a cat!"));
+    }
+
+    @Test
+    public void testEmptyTokensAreSkipped() {
+        assertEquals("Tokenizer returned empty tokens.", List.of("cat", "dog"), tokensOf("  cat   dog "));
+    }
+
+    @Test
+    public void testTextWithoutTokens() {
+        assertEquals("Tokenizer returned tokens of a blank text.", List.of(), tokensOf("   "));
+    }
+}
@@ -0,0 +1,41 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WordSetTest {
+
+    @Test
+    public void testContainsWordGivenAsBuffer() {
+        WordSet words = new WordSet(List.of("cat", "dog"));
+        WordBuffer buffer = new WordBuffer().append("do").append('g');
+
+        assertTrue("WordSet does not contain a word given as a buffer.", words.contains(buffer));
+        assertFalse("WordSet contains a missing word.", words.contains(buffer.clear().append("do")));
+    }
+
+    @Test
+    public void testIteratesInInsertionOrderWithoutDuplicates() {
+        WordSet words = new WordSet();
+        List<String> expected = new ArrayList<>();
+        for (int i = 100; i > 0; --i) {
+            words.add("word" + i);
+            words.add("word" + i);
+            expected.add("word" + i);
+        }
+
+        assertEquals("WordSet size is not correct.", expected.size(), words.size());
+        assertEquals("WordSet does not iterate in insertion order.", expected, new ArrayList<>(words));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNull() {
+        new WordSet().add(null);
+    }
+}
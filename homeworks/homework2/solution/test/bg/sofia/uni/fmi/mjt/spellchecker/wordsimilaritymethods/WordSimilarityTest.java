@@ -0,0 +1,101 @@
+package bg.sofia.uni.fmi.mjt.spellchecker.wordsimilaritymethods;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import bg.sofia.uni.fmi.mjt.spellchecker.snapshot.SnapshotInput;
+import bg.sofia.uni.fmi.mjt.spellchecker.snapshot.SnapshotOutput;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WordSimilarityTest {
+
+    private static final String ALPHABET = "abcdeф";
+    private static final int DICTIONARY_SIZE = 300;
+
+    private static String randomWord(Random random, int maxLength) {
+        StringBuilder word = new StringBuilder();
+        for (int i = random.nextInt(maxLength + 1); i > 0; --i) {
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return word.toString();
+    }
+
+    private static void assertScorerMatchesPairwiseSimilarity(WordSimilarity similarity) {
+        Random random = new Random(3);
+        String[] dictionary = new String[DICTIONARY_SIZE];
+        int[] candidates = new int[DICTIONARY_SIZE];
+        for (int i = 0; i < DICTIONARY_SIZE; ++i) {
+            dictionary[i] = randomWord(random, 12);
+            candidates[i] = DICTIONARY_SIZE - 1 - i;
+        }
+        CandidateScorer scorer = similarity.newCandidateScorer(dictionary);
+        double[] scores = new double[DICTIONARY_SIZE];
+
+        for (int query = 0; query < 200; ++query) {
+            String word = randomWord(random, query % 20 == 0 ? 80 : 12); // some longer than 64 chars
+            scorer.score(word, candidates, DICTIONARY_SIZE, scores);
+            for (int i = 0; i < DICTIONARY_SIZE; ++i) {
+                assertEquals("Scores of " + word + " and " + dictionary[candidates[i]] + " differ.",
+                    similarity.calcSimilarity(word, dictionary[candidates[i]]), scores[i], 0);
+            }
+        }
+    }
+
+    @Test
+    public void testCosineScorerMatchesCosineSimilarity() {
+        assertScorerMatchesPairwiseSimilarity(new CosineWordSimilarity());
+    }
+
+    @Test
+    public void testCosineScorerOverRestoredVectorsMatchesScorerOverWords() throws IOException {
+        Random random = new Random(5);
+        String[] dictionary = new String[DICTIONARY_SIZE];
+        int[] candidates = new int[DICTIONARY_SIZE];
+        for (int i = 0; i < DICTIONARY_SIZE; ++i) {
+            dictionary[i] = randomWord(random, 12);
+            candidates[i] = i;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            BigramVector.writePacked(BigramVector.ofAll(dictionary), new SnapshotOutput(output));
+        }
+        BigramVector[] restored = BigramVector.readPacked(new SnapshotInput(ByteBuffer.wrap(bytes.toByteArray())));
+
+        CosineWordSimilarity similarity = new CosineWordSimilarity();
+        CandidateScorer expected = similarity.newCandidateScorer(dictionary);
+        CandidateScorer actual = similarity.newCandidateScorer(dictionary, restored);
+        double[] expectedScores = new double[DICTIONARY_SIZE];
+        double[] actualScores = new double[DICTIONARY_SIZE];
+        for (int query = 0; query < 50; ++query) {
+            String word = randomWord(random, 12);
+            expected.score(word, candidates, DICTIONARY_SIZE, expectedScores);
+            actual.score(word, candidates, DICTIONARY_SIZE, actualScores);
+            for (int i = 0; i < DICTIONARY_SIZE; ++i) {
+                assertEquals("Scores over restored vectors differ.", expectedScores[i], actualScores[i], 0);
+            }
+        }
+    }
+
+    @Test
+    public void testLevenshteinScorerMatchesLevenshteinDistance() {
+        assertScorerMatchesPairwiseSimilarity(new LevenshteinWordSimilarity());
+    }
+
+    @Test
+    public void testLevenshteinSimilarityIsNegatedDistance() {
+        assertEquals(-3, new LevenshteinWordSimilarity().calcSimilarity("kitten", "sitting"), 0);
+        assertEquals(0, new LevenshteinWordSimilarity().calcSimilarity("", ""), 0);
+    }
+
+    @Test
+    public void testOnlyCosineNeedsCommonBigram() {
+        assertTrue(new CosineWordSimilarity().needsCommonBigram());
+        assertTrue(!new LevenshteinWordSimilarity().needsCommonBigram());
+    }
+}
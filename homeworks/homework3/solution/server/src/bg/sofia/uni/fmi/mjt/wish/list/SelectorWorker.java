@@ -0,0 +1,162 @@
+package bg.sofia.uni.fmi.mjt.wish.list;
+
+import bg.sofia.uni.fmi.mjt.wish.list.command.CommandCreator;
+import bg.sofia.uni.fmi.mjt.wish.list.command.CommandExecutor;
+import bg.sofia.uni.fmi.mjt.wish.list.exceptions.RunningInterruptedException;
+import bg.sofia.uni.fmi.mjt.wish.list.storage.ServerStorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+class SelectorWorker implements Runnable {
+    // One of the selector threads of the server - reads the commands of the clients handed to it by the acceptor,
+    // executes them and writes the responses. Every worker has its own selector and buffer, the storage is shared.
+
+    private static final int BUFFER_SIZE = 512;
+
+    private final Selector selector;
+    private final ByteBuffer buffer;
+    private final Queue<SocketChannel> newClients;
+
+    private final CommandExecutor commandExecutor;
+    private final ServerStorage storage;
+
+    private volatile boolean isRunning;
+
+    SelectorWorker(CommandExecutor commandExecutor, ServerStorage storage) throws IOException {
+        this.commandExecutor = commandExecutor;
+        this.storage = storage;
+        selector = Selector.open();
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        newClients = new ConcurrentLinkedQueue<>();
+        isRunning = true;
+    }
+
+    // called by the acceptor thread - the client is registered by the worker's own thread, as registering
+    // blocks while another thread is selecting
+    void addClient(SocketChannel client) {
+        newClients.add(client);
+        selector.wakeup();
+    }
+
+    void stop() {
+        isRunning = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (isRunning) {
+                selector.select();
+                registerNewClients();
+                operateSocketChannels(selector.selectedKeys().iterator());
+            }
+        } catch (IOException e) {
+            throw new RunningInterruptedException("Server running was interrupted", e);
+        } finally {
+            closeSelector();
+        }
+    }
+
+    private void registerNewClients() {
+        SocketChannel client;
+        while ((client = newClients.poll()) != null) {
+            try {
+                client.configureBlocking(false);
+                client.register(selector, SelectionKey.OP_READ);
+            } catch (IOException e) {
+                disconnect(client);
+            }
+        }
+    }
+
+    private void operateSocketChannels(Iterator<SelectionKey> keyIterator) {
+        while (keyIterator.hasNext()) {
+            SelectionKey key = keyIterator.next();
+            keyIterator.remove();
+            if (!key.isValid()) {
+                continue;
+            }
+
+            SocketChannel clientChannel = (SocketChannel) key.channel();
+            try {
+                if (key.isWritable()) {
+                    writePendingOutput(key);
+                } else if (key.isReadable()) {
+                    String clientInput = readFromClient(clientChannel);
+                    if (clientInput != null) {
+                        String output = commandExecutor.executeForClient(CommandCreator.newCommand(clientInput),
+                            clientChannel);
+                        writeToClient(output, key);
+                    }
+                }
+            } catch (IOException e) {
+                // the connection of this client is broken (e.g. reset), the others are served further
+                disconnect(clientChannel);
+            }
+        }
+    }
+
+    private String readFromClient(SocketChannel clientChannel) throws IOException {
+        buffer.clear();
+        if (clientChannel.read(buffer) < 0) {
+            disconnect(clientChannel);
+            return null;
+        }
+
+        buffer.flip();
+        byte[] clientInputBytes = new byte[buffer.remaining()];
+        buffer.get(clientInputBytes);
+
+        return new String(clientInputBytes, StandardCharsets.UTF_8);
+    }
+
+    // what the socket does not take at once is kept as the key's attachment and written when the client can
+    // receive again - the client is not read from until then, so its responses stay in order
+    private void writeToClient(String msg, SelectionKey key) throws IOException {
+        ByteBuffer output = ByteBuffer.wrap(msg.getBytes(StandardCharsets.UTF_8));
+        ((SocketChannel) key.channel()).write(output);
+        if (output.hasRemaining()) {
+            key.attach(output);
+            key.interestOps(SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void writePendingOutput(SelectionKey key) throws IOException {
+        ByteBuffer output = (ByteBuffer) key.attachment();
+        ((SocketChannel) key.channel()).write(output);
+        if (!output.hasRemaining()) {
+            key.attach(null);
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    // a client which leaves without the disconnect command is logged out as well
+    private void disconnect(SocketChannel clientChannel) {
+        storage.removeAccountLoggedInFromClient(clientChannel);
+        try {
+            clientChannel.close();
+        } catch (IOException e) {
+            // the client is gone either way
+        }
+    }
+
+    private void closeSelector() {
+        for (SelectionKey key : selector.keys()) {
+            disconnect((SocketChannel) key.channel());
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // the selector is not used any more
+        }
+    }
+}
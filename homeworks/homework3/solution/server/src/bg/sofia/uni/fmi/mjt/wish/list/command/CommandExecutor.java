@@ -6,7 +6,7 @@ import bg.sofia.uni.fmi.mjt.wish.list.storage.ServerStorage;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static bg.sofia.uni.fmi.mjt.wish.list.ui.Commands.COMMAND_DISCONNECT;
 import static bg.sofia.uni.fmi.mjt.wish.list.ui.Commands.COMMAND_GET_WISH;
@@ -36,6 +36,10 @@ public class CommandExecutor {
 
     private final ServerStorage storage; //storage to execute commands over
 
+    // Commands are executed by several selector threads at once. A decision which depends on what other clients do
+    // (taken username, logged-in account, duplicate wish, taken wish list) is made by a single atomic storage call,
+    // the other checks touch only the state of the client itself, which is served by one thread.
+
     public CommandExecutor(ServerStorage storage) {
         this.storage = storage;
     }
@@ -66,14 +70,16 @@ public class CommandExecutor {
         String username = args[0];
         String password = args[1];
         Account accountToLogIn = storage.getAccountByUsername(username);
-        if (storage.isAccountLoggedInFromAnyClient(accountToLogIn)) {
+        if (accountToLogIn != null && storage.isAccountLoggedInFromAnyClient(accountToLogIn)) {
             return String.format(MESSAGE_USER_LOGGED_IN_FROM_ANOTHER_CLIENT, username);
         }
         if (accountToLogIn == null || !accountToLogIn.password().equals(password)) {
             return MESSAGE_INVALID_USER;
         }
 
-        storage.addLoggedInAccountFromClient(accountToLogIn, clientSocketChannel);
+        if (!storage.addLoggedInAccountFromClient(accountToLogIn, clientSocketChannel)) {
+            return String.format(MESSAGE_USER_LOGGED_IN_FROM_ANOTHER_CLIENT, username);
+        }
         return String.format(MESSAGE_USER_LOGIN, username);
     }
 
@@ -100,11 +106,9 @@ public class CommandExecutor {
         } catch (IllegalArgumentException e) {
             return String.format(MESSAGE_INVALID_USERNAME, username);
         }
-        if (storage.isUsernameRegistered(username)) {
+        if (!storage.registerAndLogIn(accountToRegister, clientSocketChannel)) {
             return String.format(MESSAGE_USERNAME_ALREADY_TAKEN, username);
         }
-        storage.addRegisteredAccount(accountToRegister);
-        storage.addLoggedInAccountFromClient(accountToRegister, clientSocketChannel);
         return String.format(MESSAGE_USER_SUCCESSFULLY_REGISTERED, username);
     }
 
@@ -121,12 +125,10 @@ public class CommandExecutor {
             return String.format(MESSAGE_USER_NOT_REGISTERED, username);
         }
         String wish = getWishString(args);
-        if (storage.hasAccountWishList(account) && storage.getAccountWishList(account).contains(wish)) {
+        if (!storage.addWishToAccount(account, wish)) {
             return String.format(MESSAGE_SAME_GIFT_FOR_USER, username);
-        } else {
-            storage.addWishToAccount(account, wish);
-            return String.format(MESSAGE_GIFT_SUBMITTED_FOR_USER, wish, username);
         }
+        return String.format(MESSAGE_GIFT_SUBMITTED_FOR_USER, wish, username);
     }
 
     private String getWishString(String[] args) {
@@ -146,38 +148,36 @@ public class CommandExecutor {
         if (!storage.isAnyoneLoggedInFromClient(clientSocketChannel)) {
             return MESSAGE_NOT_LOGGED_IN;
         }
+        Account loggedInAccount = storage.getLoggedInAccountFromClient(clientSocketChannel);
         if (storage.hasNoWishLists()
-            || (storage.wishListsCount() == 1
-                && storage.hasAccountWishList(storage.getLoggedInAccountFromClient(clientSocketChannel)))) {
+            || (storage.wishListsCount() == 1 && storage.hasAccountWishList(loggedInAccount))) {
             return MESSAGE_NO_MORE_PEOPLE;
-        } else {
-            Account randomAccount = getRandomAccountExcept(storage.getLoggedInAccountFromClient(clientSocketChannel));
+        }
+
+        Account randomAccount;
+        List<String> wishList;
+        do {
+            randomAccount = getRandomAccountExcept(loggedInAccount);
             if (randomAccount == null) {
                 return MESSAGE_NO_MORE_PEOPLE;
             }
-            String wishListString = getWishListStringByAccount(randomAccount);
-            storage.removeAccountFromWishListCol(randomAccount);
+            wishList = storage.removeAccountFromWishListCol(randomAccount); // null if another client took it first
+        } while (wishList == null);
 
-            return String.format(MESSAGE_USER_TO_WISH_LIST, randomAccount.username(), wishListString);
-        }
+        return String.format(MESSAGE_USER_TO_WISH_LIST, randomAccount.username(), getWishListString(wishList));
     }
 
     private Account getRandomAccountExcept(Account account) {
-        if (storage.hasNoWishLists()) {
+        List<Account> accountsList = new ArrayList<>(storage.getAccountsWithWishList());
+        accountsList.remove(account);
+        if (accountsList.isEmpty()) {
             return null;
         }
-        Account randomAccount;
-        List<Account> accountsList = new ArrayList<>(storage.getAccountsWithWishList());
-        do {
-            int randomIndex = new Random().nextInt(accountsList.size());
-            randomAccount = accountsList.get(randomIndex);
-        } while (randomAccount.equals(account));
-        return randomAccount;
+        return accountsList.get(ThreadLocalRandom.current().nextInt(accountsList.size()));
     }
 
-    private String getWishListStringByAccount(Account account) {
+    private String getWishListString(List<String> accountWishList) {
         StringBuilder wishListString = new StringBuilder(" [");
-        List<String> accountWishList = storage.getAccountWishList(account);
         for (String wishItem : accountWishList) {
             if (wishItem != null) {
                 wishListString.append(wishItem);
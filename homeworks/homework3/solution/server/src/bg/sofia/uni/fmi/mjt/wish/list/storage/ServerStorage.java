@@ -1,27 +1,38 @@
 package bg.sofia.uni.fmi.mjt.wish.list.storage;
 
 import java.nio.channels.SocketChannel;
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ServerStorage {
     // In-memory server database and API.
+    // Safe for the selector threads of the server - every method is atomic on its own, including the check-then-act
+    // ones (registerAndLogIn, addLoggedInAccountFromClient, addWishToAccount, removeAccountFromWishListCol).
+    // Changes of an account which span several maps or its wish list hold the lock of the account's stripe.
+    private static final int ACCOUNT_LOCK_STRIPES = 64;
+
     private final Map<Account, List<String>> accountToWishList;
     private final Map<SocketChannel, Account> loggedInAccounts;
-    private final Set<Account> registeredAccounts;
+    private final Set<Account> loggedInAccountsFromAnyClient;
+    private final Map<String, Account> registeredAccounts;
+    private final Object[] accountLocks;
 
     public ServerStorage() {
-        // collections should be made synchronized in case of increasing nio's operating threads number (currently 1)
+        accountToWishList = new ConcurrentHashMap<>();
+        loggedInAccounts = new ConcurrentHashMap<>();
+        loggedInAccountsFromAnyClient = ConcurrentHashMap.newKeySet();
+        registeredAccounts = new ConcurrentHashMap<>();
+        accountLocks = new Object[ACCOUNT_LOCK_STRIPES];
+        for (int i = 0; i < ACCOUNT_LOCK_STRIPES; ++i) {
+            accountLocks[i] = new Object();
+        }
+    }
 
-        accountToWishList = new LinkedHashMap<>();
-        loggedInAccounts = new LinkedHashMap<>();
-        registeredAccounts = new LinkedHashSet<>();
+    private Object lockOf(Account account) {
+        return accountLocks[Math.floorMod(account.username().hashCode(), ACCOUNT_LOCK_STRIPES)];
     }
 
     public boolean isAnyoneLoggedInFromClient(SocketChannel clientSocketChannel) {
@@ -35,34 +46,50 @@ public class ServerStorage {
         if (account == null) {
             throw new IllegalArgumentException("account must not be null");
         }
-        return loggedInAccounts.containsValue(account);
+        return loggedInAccountsFromAnyClient.contains(account);
     }
 
     public Account getAccountByUsername(String username) {
         if (username == null) {
             throw new IllegalArgumentException("username must not be null");
         }
-        AtomicReference<Account> result = new AtomicReference<>();
-        registeredAccounts.forEach(a -> {
-            if (username.equals(a.username())) {
-                result.set(a);
-            }
-        });
-        return result.get();
+        return registeredAccounts.get(username);
     }
 
-    public void addLoggedInAccountFromClient(Account account, SocketChannel accountClientSocketChannel) {
+    // returns false and logs nobody in if the account is already logged in from a client
+    public boolean addLoggedInAccountFromClient(Account account, SocketChannel accountClientSocketChannel) {
         if (account == null || accountClientSocketChannel == null) {
             throw new IllegalArgumentException("addLoggedInAccountFromClient does not take null arguments");
         }
-        loggedInAccounts.put(accountClientSocketChannel, account);
+        synchronized (lockOf(account)) {
+            return logIn(account, accountClientSocketChannel);
+        }
+    }
+
+    private boolean logIn(Account account, SocketChannel accountClientSocketChannel) {
+        if (!loggedInAccountsFromAnyClient.add(account)) {
+            return false;
+        }
+        Account previousAccount = loggedInAccounts.put(accountClientSocketChannel, account);
+        if (previousAccount != null) {
+            loggedInAccountsFromAnyClient.remove(previousAccount);
+        }
+        return true;
     }
 
     public void removeAccountLoggedInFromClient(SocketChannel clientSocketChannel) {
         if (clientSocketChannel == null) {
             throw new IllegalArgumentException("clientSocketChannel must not be null");
         }
-        loggedInAccounts.remove(clientSocketChannel);
+        Account account = loggedInAccounts.get(clientSocketChannel);
+        if (account == null) {
+            return;
+        }
+        synchronized (lockOf(account)) {
+            if (loggedInAccounts.remove(clientSocketChannel, account)) {
+                loggedInAccountsFromAnyClient.remove(account);
+            }
+        }
     }
 
     public Account getLoggedInAccountFromClient(SocketChannel clientSocketChannel) {
@@ -76,19 +103,27 @@ public class ServerStorage {
         if (account == null) {
             throw new IllegalArgumentException("account must not be null");
         }
-        registeredAccounts.add(account);
+        registeredAccounts.putIfAbsent(account.username(), account);
+    }
+
+    // returns false and changes nothing if the username is already taken
+    public boolean registerAndLogIn(Account account, SocketChannel accountClientSocketChannel) {
+        if (account == null || accountClientSocketChannel == null) {
+            throw new IllegalArgumentException("registerAndLogIn does not take null arguments");
+        }
+        synchronized (lockOf(account)) {
+            if (registeredAccounts.putIfAbsent(account.username(), account) != null) {
+                return false;
+            }
+            return logIn(account, accountClientSocketChannel);
+        }
     }
 
     public boolean isUsernameRegistered(String username) {
         if (username == null) {
             throw new IllegalArgumentException("username must not be null");
         }
-        for (Account registeredAccount : registeredAccounts) {
-            if (registeredAccount.username().equals(username)) {
-                return true;
-            }
-        }
-        return false;
+        return registeredAccounts.containsKey(username);
     }
 
     public boolean hasAccountWishList(Account account) {
@@ -106,17 +141,24 @@ public class ServerStorage {
         if (account == null) {
             throw new IllegalArgumentException("account must not be null");
         }
-        return accountToWishList.get(account);
+        synchronized (lockOf(account)) {
+            List<String> wishList = accountToWishList.get(account);
+            return wishList == null ? null : List.copyOf(wishList);
+        }
     }
 
-    public void addWishToAccount(Account account, String wish) {
+    // returns false and adds nothing if the account already has this wish
+    public boolean addWishToAccount(Account account, String wish) {
         if (account == null || wish == null) {
             throw new IllegalArgumentException("addWishToAccount does not take null arguments");
         }
-        if (!accountToWishList.containsKey(account)) {
-            accountToWishList.put(account, new LinkedList<>());
+        synchronized (lockOf(account)) {
+            List<String> wishList = accountToWishList.computeIfAbsent(account, a -> new ArrayList<>());
+            if (wishList.contains(wish)) {
+                return false;
+            }
+            return wishList.add(wish);
         }
-        accountToWishList.get(account).add(wish);
     }
 
     public boolean hasNoWishLists() {
@@ -127,15 +169,19 @@ public class ServerStorage {
         return accountToWishList.size();
     }
 
-    public void removeAccountFromWishListCol(Account account) {
+    // returns the removed wish list, or null if the account has none (e.g. another client just took it)
+    public List<String> removeAccountFromWishListCol(Account account) {
         if (account == null) {
             throw new IllegalArgumentException("account must not be null");
         }
-        accountToWishList.remove(account);
+        synchronized (lockOf(account)) {
+            return accountToWishList.remove(account);
+        }
     }
 
     public void clearStorage() { //test purposes
         loggedInAccounts.clear();
+        loggedInAccountsFromAnyClient.clear();
         registeredAccounts.clear();
         accountToWishList.clear();
     }
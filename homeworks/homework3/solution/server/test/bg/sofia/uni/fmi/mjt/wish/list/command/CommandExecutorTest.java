@@ -11,6 +11,10 @@ import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
@@ -74,7 +78,7 @@ public class CommandExecutorTest {
     @Test
     public void testCommandRegisterExistingUsername() {
         when(storage.isAnyoneLoggedInFromClient(testClientSocket)).thenReturn(false);
-        when(storage.isUsernameRegistered(TEST_USERNAME)).thenReturn(true);
+        when(storage.registerAndLogIn(new Account(TEST_USERNAME, "bobi123"), testClientSocket)).thenReturn(false);
         String expected = String.format(Messages.MESSAGE_USERNAME_ALREADY_TAKEN, TEST_USERNAME);
         String actual = cmdExecutor.executeForClient(new Command(Commands.COMMAND_REGISTER,
                     new String[]{TEST_USERNAME, "bobi123"}), testClientSocket);
@@ -84,11 +88,11 @@ public class CommandExecutorTest {
     @Test
     public void testCommandRegisterValidUsername() {
         when(storage.isAnyoneLoggedInFromClient(testClientSocket)).thenReturn(false);
-        when(storage.isUsernameRegistered(TEST_ACCOUNT.username())).thenReturn(false);
+        when(storage.registerAndLogIn(TEST_ACCOUNT, testClientSocket)).thenReturn(true);
         String expected = String.format(Messages.MESSAGE_USER_SUCCESSFULLY_REGISTERED, TEST_USERNAME);
         String actual = cmdExecutor.executeForClient(new Command(Commands.COMMAND_REGISTER,
                     new String[]{TEST_ACCOUNT.username(), TEST_ACCOUNT.password()}), testClientSocket);
-        verify(storage, times(1)).addRegisteredAccount(TEST_ACCOUNT);
+        verify(storage, times(1)).registerAndLogIn(TEST_ACCOUNT, testClientSocket);
         assertEquals("\"register\" with valid username does not work as supposed", expected, actual);
     }
 
@@ -158,6 +162,7 @@ public class CommandExecutorTest {
         when(storage.isAnyoneLoggedInFromClient(testClientSocket)).thenReturn(false);
         when(storage.getAccountByUsername(TEST_ACCOUNT.username())).thenReturn(TEST_ACCOUNT);
         when(storage.isAccountLoggedInFromAnyClient(TEST_ACCOUNT)).thenReturn(false);
+        when(storage.addLoggedInAccountFromClient(TEST_ACCOUNT, testClientSocket)).thenReturn(true);
         String expected = String.format(Messages.MESSAGE_USER_LOGIN, TEST_ACCOUNT.username());
         String actual = cmdExecutor.executeForClient(new Command(Commands.COMMAND_LOG_IN,
             new String[]{TEST_ACCOUNT.username(), TEST_ACCOUNT.password()}), testClientSocket);
@@ -165,6 +170,20 @@ public class CommandExecutorTest {
         assertEquals("\"login\" does not work as supposed", expected, actual);
     }
 
+    @Test
+    public void testCommandLogInWithAccountLoggedInFromAnotherClientMeanwhile() {
+        SocketChannel otherClientSocket = mock(SocketChannel.class);
+        when(storage.isAnyoneLoggedInFromClient(otherClientSocket)).thenReturn(false);
+        when(storage.getAccountByUsername(TEST_ACCOUNT.username())).thenReturn(TEST_ACCOUNT);
+        when(storage.isAccountLoggedInFromAnyClient(TEST_ACCOUNT)).thenReturn(false);
+        when(storage.addLoggedInAccountFromClient(TEST_ACCOUNT, otherClientSocket)).thenReturn(false);
+        String expected = String.format(Messages.MESSAGE_USER_LOGGED_IN_FROM_ANOTHER_CLIENT, TEST_ACCOUNT.username());
+        String actual = cmdExecutor.executeForClient(new Command(Commands.COMMAND_LOG_IN,
+            new String[]{TEST_ACCOUNT.username(), TEST_ACCOUNT.password()}), otherClientSocket);
+        assertEquals("\"login\" racing with a login from another client does not work as supposed",
+            expected, actual);
+    }
+
     @Test
     public void testCommandLogOutWhileLoggedOut() {
         when(storage.isAnyoneLoggedInFromClient(testClientSocket)).thenReturn(false);
@@ -206,7 +225,7 @@ public class CommandExecutorTest {
     public void testCommandPostWishWithUniqueWish() {
         when(storage.isAnyoneLoggedInFromClient(testClientSocket)).thenReturn(true);
         when(storage.getAccountByUsername(TEST_USERNAME)).thenReturn(TEST_ACCOUNT);
-        when(storage.hasAccountWishList(TEST_ACCOUNT)).thenReturn(false);
+        when(storage.addWishToAccount(TEST_ACCOUNT, WISH)).thenReturn(true);
         String expected = String.format(Messages.MESSAGE_GIFT_SUBMITTED_FOR_USER, WISH, TEST_USERNAME);
         String actual = cmdExecutor.executeForClient(new Command(Commands.COMMAND_POST_WISH,
             new String[]{TEST_USERNAME, WISH}), testClientSocket);
@@ -218,8 +237,7 @@ public class CommandExecutorTest {
     public void testCommandPostWishWithSameWish() {
         when(storage.isAnyoneLoggedInFromClient(testClientSocket)).thenReturn(true);
         when(storage.getAccountByUsername(TEST_USERNAME)).thenReturn(TEST_ACCOUNT);
-        when(storage.hasAccountWishList(TEST_ACCOUNT)).thenReturn(true);
-        when(storage.getAccountWishList(TEST_ACCOUNT)).thenReturn(List.of(WISH));
+        when(storage.addWishToAccount(TEST_ACCOUNT, WISH)).thenReturn(false);
         String expected = String.format(Messages.MESSAGE_SAME_GIFT_FOR_USER, TEST_USERNAME);
         String actual = cmdExecutor.executeForClient(new Command(Commands.COMMAND_POST_WISH,
             new String[]{TEST_USERNAME, WISH}), testClientSocket);
@@ -266,7 +284,7 @@ public class CommandExecutorTest {
         when(storage.wishListsCount()).thenReturn(2);
         when(storage.getLoggedInAccountFromClient(testClientSocket)).thenReturn(TEST_ACCOUNT);
         when(storage.getAccountsWithWishList()).thenReturn(Set.of(TEST_ACCOUNT, TEST_ACCOUNT2));
-        when(storage.getAccountWishList(TEST_ACCOUNT2)).thenReturn(List.of(WISH2));
+        when(storage.removeAccountFromWishListCol(TEST_ACCOUNT2)).thenReturn(List.of(WISH2));
         String expected = String.format(Messages.MESSAGE_USER_TO_WISH_LIST,
             TEST_ACCOUNT2.username(), " [" + WISH2 + "] ");
         String actual = cmdExecutor.executeForClient(new Command(Commands.COMMAND_GET_WISH,
@@ -282,7 +300,7 @@ public class CommandExecutorTest {
         when(storage.wishListsCount()).thenReturn(2);
         when(storage.getLoggedInAccountFromClient(testClientSocket)).thenReturn(TEST_ACCOUNT);
         when(storage.getAccountsWithWishList()).thenReturn(Set.of(TEST_ACCOUNT, TEST_ACCOUNT2));
-        when(storage.getAccountWishList(TEST_ACCOUNT2)).thenReturn(List.of(WISH, WISH2));
+        when(storage.removeAccountFromWishListCol(TEST_ACCOUNT2)).thenReturn(List.of(WISH, WISH2));
         String expected = String.format(Messages.MESSAGE_USER_TO_WISH_LIST,
             TEST_ACCOUNT2.username(), " [" + WISH + ", " + WISH2 + "] ");
         String actual = cmdExecutor.executeForClient(new Command(Commands.COMMAND_GET_WISH,
@@ -299,4 +317,61 @@ public class CommandExecutorTest {
         verify(storage, times(1)).removeAccountLoggedInFromClient(testClientSocket);
         assertEquals("\"disconnect\" does not work as supposed", expected, actual);
     }
+
+    @Test
+    public void testCommandRegisterSameUsernameFromManyClientsConcurrently() throws Exception {
+        final int clientsCount = 8;
+        CommandExecutor executor = new CommandExecutor(new ServerStorage());
+        ExecutorService clients = Executors.newFixedThreadPool(clientsCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> responses = new ArrayList<>();
+        for (int i = 0; i < clientsCount; ++i) {
+            SocketChannel client = mock(SocketChannel.class);
+            responses.add(clients.submit(() -> {
+                start.await();
+                return executor.executeForClient(new Command(Commands.COMMAND_REGISTER,
+                    new String[]{TEST_USERNAME, "123"}), client);
+            }));
+        }
+        start.countDown();
+
+        int registered = 0;
+        for (Future<String> response : responses) {
+            if (response.get().equals(String.format(Messages.MESSAGE_USER_SUCCESSFULLY_REGISTERED, TEST_USERNAME))) {
+                ++registered;
+            }
+        }
+        clients.shutdown();
+        assertEquals("a username must be registered by exactly one of the clients registering it at once",
+            1, registered);
+    }
+
+    @Test
+    public void testCommandGetWishSameWishListFromManyClientsConcurrently() throws Exception {
+        final int clientsCount = 8;
+        ServerStorage realStorage = new ServerStorage();
+        CommandExecutor executor = new CommandExecutor(realStorage);
+        realStorage.addWishToAccount(TEST_ACCOUNT2, WISH);
+        ExecutorService clients = Executors.newFixedThreadPool(clientsCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> responses = new ArrayList<>();
+        for (int i = 0; i < clientsCount; ++i) {
+            SocketChannel client = mock(SocketChannel.class);
+            realStorage.registerAndLogIn(new Account(TEST_USERNAME + i, "123"), client);
+            responses.add(clients.submit(() -> {
+                start.await();
+                return executor.executeForClient(new Command(Commands.COMMAND_GET_WISH, new String[]{}), client);
+            }));
+        }
+        start.countDown();
+
+        int received = 0;
+        for (Future<String> response : responses) {
+            if (!response.get().equals(Messages.MESSAGE_NO_MORE_PEOPLE)) {
+                ++received;
+            }
+        }
+        clients.shutdown();
+        assertEquals("a wish list must be given to exactly one of the clients asking for it at once", 1, received);
+    }
 }
@@ -110,6 +110,15 @@ public class ServerStorageTest {
             storage.getLoggedInAccountFromClient(TEST_SC_CLIENT1));
     }
 
+    @Test
+    public void testAddLoggedInAccountFromClientWithAccountLoggedInFromAnotherClient() {
+        storage.addLoggedInAccountFromClient(TEST_ACCOUNT, TEST_SC_CLIENT1);
+        assertFalse("addLoggedInAccountFromClient must not log in an account logged in from another client",
+            storage.addLoggedInAccountFromClient(TEST_ACCOUNT, TEST_SC_CLIENT2));
+        assertNull("addLoggedInAccountFromClient must not log in an account logged in from another client",
+            storage.getLoggedInAccountFromClient(TEST_SC_CLIENT2));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testRemoveAccountLoggedInFromClientWithNullArgument() {
         storage.removeAccountLoggedInFromClient(null);
@@ -159,6 +168,23 @@ public class ServerStorageTest {
             storage.isUsernameRegistered(TEST_USERNAME));
     }
 
+    @Test
+    public void testRegisterAndLogInSuccess() {
+        assertTrue("registerAndLogIn with a free username must return true",
+            storage.registerAndLogIn(TEST_ACCOUNT, TEST_SC_CLIENT1));
+        assertEquals("registerAndLogIn must log the account in from the client", TEST_ACCOUNT,
+            storage.getLoggedInAccountFromClient(TEST_SC_CLIENT1));
+    }
+
+    @Test
+    public void testRegisterAndLogInWithTakenUsername() {
+        storage.addRegisteredAccount(TEST_ACCOUNT);
+        assertFalse("registerAndLogIn with a taken username must return false",
+            storage.registerAndLogIn(new Account(TEST_USERNAME, "456"), TEST_SC_CLIENT1));
+        assertFalse("registerAndLogIn with a taken username must not log in from the client",
+            storage.isAnyoneLoggedInFromClient(TEST_SC_CLIENT1));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testIsUsernameRegisteredWithNullArgument() {
         storage.isUsernameRegistered(null);
@@ -253,6 +279,15 @@ public class ServerStorageTest {
             List.of(TEST_WISH, TEST_WISH2), storage.getAccountWishList(TEST_ACCOUNT));
     }
 
+    @Test
+    public void testAddWishToAccountSameWish() {
+        storage.addWishToAccount(TEST_ACCOUNT, TEST_WISH);
+        assertFalse("testAddWishToAccount with a wish the account already has must return false",
+            storage.addWishToAccount(TEST_ACCOUNT, TEST_WISH));
+        assertEquals("testAddWishToAccount with a wish the account already has must not add it",
+            List.of(TEST_WISH), storage.getAccountWishList(TEST_ACCOUNT));
+    }
+
     @Test
     public void testHasNoWishListsSuccess() {
         assertTrue("hasNoWishLists must return false if there are no posted wishes", storage.hasNoWishLists());
@@ -280,4 +315,35 @@ public class ServerStorageTest {
         storage.removeAccountFromWishListCol(TEST_ACCOUNT);
         assertTrue("removeAccountFromListCol must remove the account key from collection", storage.hasNoWishLists());
     }
+
+    @Test
+    public void testRemoveAccountFromWishListColReturnsWishList() {
+        storage.addWishToAccount(TEST_ACCOUNT, TEST_WISH);
+        assertEquals("removeAccountFromWishListCol must return the removed wish list", List.of(TEST_WISH),
+            storage.removeAccountFromWishListCol(TEST_ACCOUNT));
+        assertNull("removeAccountFromWishListCol of an account without wish list must return null",
+            storage.removeAccountFromWishListCol(TEST_ACCOUNT));
+    }
+
+    @Test
+    public void testAddWishToAccountConcurrently() throws InterruptedException {
+        final int threadsCount = 8;
+        final int wishesPerThread = 1000;
+        Thread[] threads = new Thread[threadsCount];
+        for (int i = 0; i < threadsCount; ++i) {
+            final int thread = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < wishesPerThread; ++j) {
+                    storage.addWishToAccount(TEST_ACCOUNT, TEST_WISH + thread + "-" + j);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals("addWishToAccount from many threads at once must keep every wish",
+            threadsCount * wishesPerThread, storage.getAccountWishList(TEST_ACCOUNT).size());
+    }
 }